@@ -0,0 +1,86 @@
+package fibonacciheap.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import fibonacciheap.FibonacciHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ChurnBenchmark
+ * <p>
+ * Short-lived nodes, as in a timer wheel or a rate limiter, with and without the node pool. The heap holds
+ * size pending timers. expire schedules a timer and fires the earliest one; cancel schedules a timer and
+ * cancels the one scheduled WINDOW operations earlier, which is usually deep in a tree. Run with -prof gc
+ * to compare the allocation rate and the number of young collections.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmn64m"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ChurnBenchmark {
+    private static final int WINDOW = 1024;
+    private static final int DELAYS = 1024;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"0", "1024"})
+    public int pool;
+
+    private final int[] delays = new int[DELAYS];
+    private final FibonacciHeap.HeapNode[] window = new FibonacciHeap.HeapNode[WINDOW];
+    private FibonacciHeap heap;
+    private int now;
+    private int op;
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < DELAYS; i++) {
+            delays[i] = 1 + random.nextInt(1 << 16);
+        }
+        heap = new FibonacciHeap();
+        heap.setNodePoolCapacity(pool);
+        for (int i = 0; i < size; i++) {
+            heap.insert(random.nextInt(1 << 16));
+        }
+        for (int i = 0; i < WINDOW; i++) {
+            window[i] = heap.insert(random.nextInt(1 << 16));
+        }
+        now = 0;
+        op = 0;
+    }
+
+    @Benchmark
+    public int expire() {
+        int index = op++ & (DELAYS - 1);
+        heap.insert(now + delays[index]);
+        now = heap.deleteMin().getKey();
+        return now;
+    }
+
+    @Benchmark
+    public int cancel() {
+        int index = op++ & (WINDOW - 1);
+        heap.delete(window[index]);
+        FibonacciHeap.HeapNode node = heap.insert(now + delays[index]);
+        window[index] = node;
+        now++;
+        return node.getKey();
+    }
+}
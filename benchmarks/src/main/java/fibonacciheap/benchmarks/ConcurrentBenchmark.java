@@ -0,0 +1,96 @@
+package fibonacciheap.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import fibonacciheap.ConcurrentFibonacciHeap;
+import fibonacciheap.FibonacciHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ConcurrentBenchmark
+ * <p>
+ * Shared-queue workload: every thread repeatedly inserts a random key and extracts the minimum, so the
+ * queue keeps its initial size. Compares ConcurrentFibonacciHeap, a FibonacciHeap behind one global lock
+ * and PriorityBlockingQueue. Score is operations (insert + deleteMin pairs) per microsecond over all threads;
+ * run with -t 1,2,4,8,... to see the scaling.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+public class ConcurrentBenchmark {
+    private static final int KEY_RANGE = 1 << 30;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"COMBINING", "LOCKED", "PRIORITY_BLOCKING_QUEUE"})
+    public String queue;
+
+    private ConcurrentFibonacciHeap combining;
+    private FibonacciHeap locked;
+    private PriorityBlockingQueue<Integer> blocking;
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        SplittableRandom random = new SplittableRandom(42);
+        combining = new ConcurrentFibonacciHeap();
+        locked = new FibonacciHeap();
+        blocking = new PriorityBlockingQueue<>();
+        for (int i = 0; i < size; i++) {
+            int key = random.nextInt(KEY_RANGE);
+            switch (queue) {
+                case "COMBINING":
+                    combining.insert(key);
+                    break;
+                case "LOCKED":
+                    locked.insert(key);
+                    break;
+                default:
+                    blocking.add(key);
+                    break;
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public int insertDeleteMin(ThreadRandom thread) {
+        int key = thread.random.nextInt(KEY_RANGE);
+        switch (queue) {
+            case "COMBINING":
+                combining.insert(key);
+                return combining.deleteMin().getKey();
+            case "LOCKED":
+                synchronized (locked) {
+                    locked.insert(key);
+                    return locked.deleteMin().getKey();
+                }
+            default:
+                blocking.add(key);
+                return blocking.poll();
+        }
+    }
+}
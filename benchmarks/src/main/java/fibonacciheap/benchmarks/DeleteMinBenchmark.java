@@ -0,0 +1,65 @@
+package fibonacciheap.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DeleteMinBenchmark
+ * <p>
+ * Time to drain a heap of size keys with deleteMin. The heap is refilled before every invocation.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DeleteMinBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param
+    public KeyDistribution distribution;
+
+    @Param
+    public Engine engine;
+
+    private int[] keys;
+    private HeapAdapter heap;
+
+    @Setup(Level.Trial)
+    public void setUpKeys() {
+        keys = distribution.keys(size, 42);
+    }
+
+    @Setup(Level.Invocation)
+    public void fill() {
+        heap = engine.create(size);
+        for (int i = 0; i < size; i++) {
+            heap.insert(i, keys[i]);
+        }
+    }
+
+    @Benchmark
+    public int drain() {
+        int last = 0;
+        while (heap.size() > 0) {
+            last = heap.findMinKey();
+            heap.deleteMin();
+        }
+        return last;
+    }
+}
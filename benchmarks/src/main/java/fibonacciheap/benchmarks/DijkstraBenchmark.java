@@ -0,0 +1,98 @@
+package fibonacciheap.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DijkstraBenchmark
+ * <p>
+ * decreaseKey-heavy workload: single-source shortest paths over a RandomGraph of size vertices.
+ * <p>
+ * A vertex v at distance d is stored under the key d * size + v, so the vertex of the minimum is
+ * recovered from its key and every engine runs the same code without a node-to-vertex map.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DijkstraBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param
+    public Engine engine;
+
+    private RandomGraph graph;
+    private int[] dist;
+    private boolean[] settled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new RandomGraph(size, 42);
+        dist = new int[size];
+        settled = new boolean[size];
+
+        // Make sure the key encoding cannot overflow on this graph
+        dijkstra(Engine.ARRAY);
+        int maxDist = 0;
+        for (int d : dist) {
+            maxDist = Math.max(maxDist, d);
+        }
+        if ((long) (maxDist + RandomGraph.MAX_WEIGHT) * size + size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("distances too large for the key encoding: " + maxDist);
+        }
+    }
+
+    @Benchmark
+    public int dijkstra() {
+        return dijkstra(engine);
+    }
+
+    private int dijkstra(Engine engine) {
+        int n = size;
+        int[] edgeStart = graph.edgeStart;
+        int[] edgeTarget = graph.edgeTarget;
+        byte[] edgeWeight = graph.edgeWeight;
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(settled, false);
+        HeapAdapter heap = engine.create(n);
+        dist[0] = 0;
+        heap.insert(0, 0);
+        int checksum = 0;
+        while (heap.size() > 0) {
+            int u = heap.findMinKey() % n;
+            heap.deleteMin();
+            settled[u] = true;
+            int du = dist[u];
+            checksum += du;
+            for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) {
+                int v = edgeTarget[e];
+                int candidate = du + edgeWeight[e];
+                if (dist[v] == Integer.MAX_VALUE) {
+                    dist[v] = candidate;
+                    heap.insert(v, candidate * n + v);
+                } else if (!settled[v] && candidate < dist[v]) {
+                    heap.decreaseKey(v, (dist[v] - candidate) * n);
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return checksum;
+    }
+}
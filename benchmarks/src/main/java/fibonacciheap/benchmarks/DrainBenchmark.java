@@ -0,0 +1,80 @@
+package fibonacciheap.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import fibonacciheap.FibonacciHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DrainBenchmark
+ * <p>
+ * Draining a FibonacciHeap in chunks of k keys: pollMin against k findMin/deleteMin calls.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DrainBenchmark {
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"16", "256", "4096"})
+    public int k;
+
+    @Param({"RANDOM"})
+    public KeyDistribution distribution;
+
+    private int[] keys;
+    private int[] out;
+    private FibonacciHeap heap;
+
+    @Setup(Level.Trial)
+    public void setUpKeys() {
+        keys = distribution.keys(size, 42);
+        out = new int[k];
+    }
+
+    @Setup(Level.Invocation)
+    public void fill() {
+        heap = new FibonacciHeap();
+        heap.insertAll(keys);
+        heap.deleteMin();
+    }
+
+    @Benchmark
+    public int deleteMin() {
+        int sum = 0;
+        while (!heap.empty()) {
+            for (int i = 0; i < k && !heap.empty(); i++) {
+                out[i] = heap.findMin().getKey();
+                heap.deleteMin();
+            }
+            sum += out[0];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int pollMin() {
+        int sum = 0;
+        while (!heap.empty()) {
+            heap.pollMin(k, out);
+            sum += out[0];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,108 @@
+package fibonacciheap.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import fibonacciheap.DurableHeap;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DurableBenchmark
+ * <p>
+ * Throughput of a DurableHeap for group commit windows from 0 (one force() per operation) to 10 ms. Each
+ * operation schedules an event and extracts the earliest one from a heap of SIZE events, and every fourth
+ * operation also decreases the key of a pending event, so three to four records are logged per operation.
+ * The commits counter reports the number of force() calls per iteration.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DurableBenchmark {
+    private static final int SIZE = 10000;
+    private static final int DELAYS = 1024;
+
+    @Param({"0", "100", "1000", "10000"})
+    public long windowMicros;
+
+    @Param({"65536"})
+    public int windowBytes;
+
+    private final int[] delays = new int[DELAYS];
+    private final int[] pending = new int[DELAYS];
+    private Path directory;
+    private DurableHeap heap;
+    private long commitsBefore;
+    private int op;
+
+    /**
+     * Force calls of the measured iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Commits {
+        public long commits;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("heap");
+        heap = new DurableHeap(directory, windowMicros, windowBytes);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < DELAYS; i++) {
+            delays[i] = 1 + random.nextInt(1 << 16);
+        }
+        for (int i = 0; i < SIZE; i++) {
+            int id = heap.insert(random.nextInt(1 << 16));
+            pending[i % DELAYS] = id;
+        }
+        heap.checkpoint();
+        commitsBefore = heap.commits();
+        op = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        heap.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int operation(Commits commits) {
+        int index = op++ & (DELAYS - 1);
+        int id = heap.deleteMin();
+        int next = heap.insert(heap.key(id) + delays[index]);
+        if ((op & 3) == 0) {
+            int victim = pending[index];
+            if (heap.contains(victim)) {
+                heap.decreaseKey(victim, 1);
+            }
+        }
+        pending[index] = next;
+        commits.commits = heap.commits() - commitsBefore;
+        return next;
+    }
+}
@@ -0,0 +1,305 @@
+package fibonacciheap.benchmarks;
+
+import fibonacciheap.AdaptiveHeap;
+import fibonacciheap.AddressableHeap;
+import fibonacciheap.DaryHeap;
+import fibonacciheap.FibonacciHeap;
+import fibonacciheap.IntAddressableHeap;
+import fibonacciheap.IntFibonacciHeap;
+import fibonacciheap.PairingHeap;
+
+/**
+ * Engine
+ * <p>
+ * The heap implementations the benchmarks compare.
+ */
+
+public enum Engine {
+    /**
+     * FibonacciHeap, one HeapNode object per entry.
+     */
+    OBJECT {
+        @Override
+        HeapAdapter create(int capacity) {
+            return new ObjectAdapter(capacity);
+        }
+    },
+
+    /**
+     * IntFibonacciHeap, parallel primitive arrays addressed by int handles.
+     */
+    ARRAY {
+        @Override
+        HeapAdapter create(int capacity) {
+            return new ArrayAdapter(capacity);
+        }
+    },
+
+    /**
+     * PairingHeap, driven through the AddressableHeap interface.
+     */
+    PAIRING {
+        @Override
+        HeapAdapter create(int capacity) {
+            return new AddressableAdapter<>(new PairingHeap(), capacity);
+        }
+    },
+
+    /**
+     * DaryHeap with 4 children per node.
+     */
+    DARY4 {
+        @Override
+        HeapAdapter create(int capacity) {
+            return new DaryAdapter(4, capacity);
+        }
+    },
+
+    /**
+     * DaryHeap with 8 children per node.
+     */
+    DARY8 {
+        @Override
+        HeapAdapter create(int capacity) {
+            return new DaryAdapter(8, capacity);
+        }
+    },
+
+    /**
+     * AdaptiveHeap, switching between FibonacciHeap and DaryHeap with the workload.
+     */
+    ADAPTIVE {
+        @Override
+        HeapAdapter create(int capacity) {
+            return new IntAddressableAdapter<>(new AdaptiveHeap(), capacity);
+        }
+    };
+
+    /**
+     * Create an empty heap with room for the given number of slots.
+     */
+    abstract HeapAdapter create(int capacity);
+
+    private static final class ObjectAdapter implements HeapAdapter {
+        private final FibonacciHeap heap = new FibonacciHeap();
+        private final FibonacciHeap.HeapNode[] nodes;
+
+        ObjectAdapter(int capacity) {
+            this.nodes = new FibonacciHeap.HeapNode[capacity];
+        }
+
+        public void insert(int slot, int key) {
+            nodes[slot] = heap.insert(key);
+        }
+
+        public void insertAll(int[] keys) {
+            heap.insertAll(keys, 0, keys.length, nodes);
+        }
+
+        public void decreaseKey(int slot, int delta) {
+            heap.decreaseKey(nodes[slot], delta);
+        }
+
+        public int findMinKey() {
+            return heap.findMin().getKey();
+        }
+
+        public boolean isMin(int slot) {
+            return heap.findMin() == nodes[slot];
+        }
+
+        public void deleteMin() {
+            heap.deleteMin();
+        }
+
+        public void meld(HeapAdapter other) {
+            heap.meld(((ObjectAdapter) other).heap);
+        }
+
+        public int size() {
+            return heap.size();
+        }
+    }
+
+    /**
+     * Adapter for any AddressableHeap engine. Bulk insert is a loop of inserts.
+     */
+    private static final class AddressableAdapter<H extends AddressableHeap.Handle, Q extends AddressableHeap<H, Q>>
+            implements HeapAdapter {
+        private final Q heap;
+        private final Object[] handles;
+
+        AddressableAdapter(Q heap, int capacity) {
+            this.heap = heap;
+            this.handles = new Object[capacity];
+        }
+
+        public void insert(int slot, int key) {
+            handles[slot] = heap.insert(key);
+        }
+
+        public void insertAll(int[] keys) {
+            for (int i = 0; i < keys.length; i++) {
+                handles[i] = heap.insert(keys[i]);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public void decreaseKey(int slot, int delta) {
+            heap.decreaseKey((H) handles[slot], delta);
+        }
+
+        public int findMinKey() {
+            return heap.findMin().getKey();
+        }
+
+        public boolean isMin(int slot) {
+            return heap.findMin() == handles[slot];
+        }
+
+        public void deleteMin() {
+            heap.deleteMin();
+        }
+
+        @SuppressWarnings("unchecked")
+        public void meld(HeapAdapter other) {
+            heap.meld(((AddressableAdapter<H, Q>) other).heap);
+        }
+
+        public int size() {
+            return heap.size();
+        }
+    }
+
+    /**
+     * Adapter for any IntAddressableHeap engine. Bulk insert is a loop of inserts.
+     */
+    private static final class IntAddressableAdapter<Q extends IntAddressableHeap<Q>> implements HeapAdapter {
+        private final Q heap;
+        private final int[] handles;
+
+        IntAddressableAdapter(Q heap, int capacity) {
+            this.heap = heap;
+            this.handles = new int[capacity];
+        }
+
+        public void insert(int slot, int key) {
+            handles[slot] = heap.insert(key);
+        }
+
+        public void insertAll(int[] keys) {
+            for (int i = 0; i < keys.length; i++) {
+                handles[i] = heap.insert(keys[i]);
+            }
+        }
+
+        public void decreaseKey(int slot, int delta) {
+            heap.decreaseKey(handles[slot], delta);
+        }
+
+        public int findMinKey() {
+            return heap.key(heap.findMin());
+        }
+
+        public boolean isMin(int slot) {
+            return heap.findMin() == handles[slot];
+        }
+
+        public void deleteMin() {
+            heap.deleteMin();
+        }
+
+        @SuppressWarnings("unchecked")
+        public void meld(HeapAdapter other) {
+            heap.meld(((IntAddressableAdapter<Q>) other).heap);
+        }
+
+        public int size() {
+            return heap.size();
+        }
+    }
+
+    private static final class DaryAdapter implements HeapAdapter {
+        private final DaryHeap heap;
+        private final int[] handles;
+
+        DaryAdapter(int arity, int capacity) {
+            this.heap = new DaryHeap(arity, capacity);
+            this.handles = new int[capacity];
+        }
+
+        public void insert(int slot, int key) {
+            handles[slot] = heap.insert(key);
+        }
+
+        public void insertAll(int[] keys) {
+            heap.insertAll(keys, 0, keys.length, handles);
+        }
+
+        public void decreaseKey(int slot, int delta) {
+            heap.decreaseKey(handles[slot], delta);
+        }
+
+        public int findMinKey() {
+            return heap.key(heap.findMin());
+        }
+
+        public boolean isMin(int slot) {
+            return heap.findMin() == handles[slot];
+        }
+
+        public void deleteMin() {
+            heap.deleteMin();
+        }
+
+        public void meld(HeapAdapter other) {
+            heap.meld(((DaryAdapter) other).heap);
+        }
+
+        public int size() {
+            return heap.size();
+        }
+    }
+
+    private static final class ArrayAdapter implements HeapAdapter {
+        private final IntFibonacciHeap heap;
+        private final int[] handles;
+
+        ArrayAdapter(int capacity) {
+            this.heap = new IntFibonacciHeap(capacity);
+            this.handles = new int[capacity];
+        }
+
+        public void insert(int slot, int key) {
+            handles[slot] = heap.insert(key);
+        }
+
+        public void insertAll(int[] keys) {
+            heap.insertAll(keys, 0, keys.length, handles);
+        }
+
+        public void decreaseKey(int slot, int delta) {
+            heap.decreaseKey(handles[slot], delta);
+        }
+
+        public int findMinKey() {
+            return heap.key(heap.findMin());
+        }
+
+        public boolean isMin(int slot) {
+            return heap.findMin() == handles[slot];
+        }
+
+        public void deleteMin() {
+            heap.deleteMin();
+        }
+
+        public void meld(HeapAdapter other) {
+            heap.meld(((ArrayAdapter) other).heap);
+        }
+
+        public int size() {
+            return heap.size();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package fibonacciheap.benchmarks;
+
+/**
+ * HeapAdapter
+ * <p>
+ * The operations the benchmarks need, so one workload can drive every heap engine.
+ * Entries are addressed by slots in [0, capacity) chosen by the caller; the adapter keeps
+ * the engine's handle for each slot.
+ */
+
+interface HeapAdapter {
+    /**
+     * Insert a key and remember its handle under the given slot.
+     */
+    void insert(int slot, int key);
+
+    /**
+     * Insert keys[i] under slot i for every i, in one bulk operation.
+     */
+    void insertAll(int[] keys);
+
+    /**
+     * Decrease the key stored under the given slot by delta.
+     */
+    void decreaseKey(int slot, int delta);
+
+    /**
+     * Return the minimal key. Pre-condition: the heap is not empty.
+     */
+    int findMinKey();
+
+    /**
+     * Return true if the minimum is the entry stored under the given slot.
+     */
+    boolean isMin(int slot);
+
+    void deleteMin();
+
+    /**
+     * Meld other into this heap. Slots of other are not carried over.
+     */
+    void meld(HeapAdapter other);
+
+    int size();
+}
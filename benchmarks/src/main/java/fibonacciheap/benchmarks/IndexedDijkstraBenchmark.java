@@ -0,0 +1,164 @@
+package fibonacciheap.benchmarks;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import fibonacciheap.FibonacciHeap;
+import fibonacciheap.IndexedFibonacciHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * IndexedDijkstraBenchmark
+ * <p>
+ * Single-source shortest paths over a RandomGraph, with the vertex-to-node lookup done three ways:
+ * a HashMap from vertex to HeapNode, a HeapNode[] indexed by vertex, and IndexedFibonacciHeap,
+ * which addresses its entries by vertex directly.
+ * <p>
+ * The FibonacciHeap variants store a vertex v at distance d under the key d * size + v to recover
+ * the vertex of the minimum, and pass decreaseKey a delta; the indexed variant stores d itself and
+ * calls decreaseKeyTo.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class IndexedDijkstraBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private RandomGraph graph;
+    private int[] dist;
+    private boolean[] settled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new RandomGraph(size, 42);
+        dist = new int[size];
+        settled = new boolean[size];
+
+        // Make sure the key encoding of the FibonacciHeap variants cannot overflow on this graph
+        indexed();
+        int maxDist = 0;
+        for (int d : dist) {
+            maxDist = Math.max(maxDist, d);
+        }
+        if ((long) (maxDist + RandomGraph.MAX_WEIGHT) * size + size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("distances too large for the key encoding: " + maxDist);
+        }
+    }
+
+    @Benchmark
+    public int hashMap() {
+        int n = size;
+        int[] edgeStart = graph.edgeStart;
+        int[] edgeTarget = graph.edgeTarget;
+        byte[] edgeWeight = graph.edgeWeight;
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(settled, false);
+        FibonacciHeap heap = new FibonacciHeap();
+        HashMap<Integer, FibonacciHeap.HeapNode> nodes = new HashMap<>();
+        dist[0] = 0;
+        nodes.put(0, heap.insert(0));
+        int checksum = 0;
+        while (!heap.empty()) {
+            int u = heap.findMin().getKey() % n;
+            heap.deleteMin();
+            nodes.remove(u);
+            settled[u] = true;
+            int du = dist[u];
+            checksum += du;
+            for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) {
+                int v = edgeTarget[e];
+                int candidate = du + edgeWeight[e];
+                if (dist[v] == Integer.MAX_VALUE) {
+                    dist[v] = candidate;
+                    nodes.put(v, heap.insert(candidate * n + v));
+                } else if (!settled[v] && candidate < dist[v]) {
+                    heap.decreaseKey(nodes.get(v), (dist[v] - candidate) * n);
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public int nodeArray() {
+        int n = size;
+        int[] edgeStart = graph.edgeStart;
+        int[] edgeTarget = graph.edgeTarget;
+        byte[] edgeWeight = graph.edgeWeight;
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(settled, false);
+        FibonacciHeap heap = new FibonacciHeap();
+        FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[n];
+        dist[0] = 0;
+        nodes[0] = heap.insert(0);
+        int checksum = 0;
+        while (!heap.empty()) {
+            int u = heap.findMin().getKey() % n;
+            heap.deleteMin();
+            settled[u] = true;
+            int du = dist[u];
+            checksum += du;
+            for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) {
+                int v = edgeTarget[e];
+                int candidate = du + edgeWeight[e];
+                if (dist[v] == Integer.MAX_VALUE) {
+                    dist[v] = candidate;
+                    nodes[v] = heap.insert(candidate * n + v);
+                } else if (!settled[v] && candidate < dist[v]) {
+                    heap.decreaseKey(nodes[v], (dist[v] - candidate) * n);
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public int indexed() {
+        int[] edgeStart = graph.edgeStart;
+        int[] edgeTarget = graph.edgeTarget;
+        byte[] edgeWeight = graph.edgeWeight;
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(settled, false);
+        IndexedFibonacciHeap heap = new IndexedFibonacciHeap(size);
+        dist[0] = 0;
+        heap.insert(0, 0);
+        int checksum = 0;
+        while (!heap.empty()) {
+            int u = heap.deleteMin();
+            settled[u] = true;
+            int du = dist[u];
+            checksum += du;
+            for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) {
+                int v = edgeTarget[e];
+                int candidate = du + edgeWeight[e];
+                if (dist[v] == Integer.MAX_VALUE) {
+                    dist[v] = candidate;
+                    heap.insert(v, candidate);
+                } else if (!settled[v] && candidate < dist[v]) {
+                    heap.decreaseKeyTo(v, candidate);
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,55 @@
+package fibonacciheap.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * InsertBenchmark
+ * <p>
+ * Time to insert size keys into an empty heap.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class InsertBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param
+    public KeyDistribution distribution;
+
+    @Param
+    public Engine engine;
+
+    private int[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = distribution.keys(size, 42);
+    }
+
+    @Benchmark
+    public HeapAdapter insert() {
+        HeapAdapter heap = engine.create(size);
+        for (int i = 0; i < size; i++) {
+            heap.insert(i, keys[i]);
+        }
+        return heap;
+    }
+}
@@ -0,0 +1,63 @@
+package fibonacciheap.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import fibonacciheap.FibonacciHeap;
+import fibonacciheap.HeapInstrumentation;
+import fibonacciheap.RecordingInstrumentation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * InstrumentationBenchmark
+ * <p>
+ * Cost of instrumentation on a hold workload (insert a random key, then deleteMin) over size keys:
+ * NONE should match an uninstrumented heap, RECORDING adds two clock reads per operation.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class InstrumentationBenchmark {
+    private static final int KEY_RANGE = 1 << 30;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"NONE", "RECORDING"})
+    public String instrumentation;
+
+    private FibonacciHeap heap;
+    private SplittableRandom random;
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        random = new SplittableRandom(42);
+        heap = new FibonacciHeap();
+        heap.setInstrumentation(instrumentation.equals("NONE")
+                ? HeapInstrumentation.NONE : new RecordingInstrumentation());
+        for (int i = 0; i < size; i++) {
+            heap.insert(random.nextInt(KEY_RANGE));
+        }
+    }
+
+    @Benchmark
+    public int hold() {
+        heap.insert(random.nextInt(KEY_RANGE));
+        return heap.deleteMin().getKey();
+    }
+}
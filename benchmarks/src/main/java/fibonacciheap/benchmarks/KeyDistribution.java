@@ -0,0 +1,61 @@
+package fibonacciheap.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * KeyDistribution
+ * <p>
+ * Key sequences fed to the benchmarks, all non-negative.
+ */
+
+public enum KeyDistribution {
+    /**
+     * n-1, n-2, ..., 0: every insert is a new minimum.
+     */
+    DESCENDING {
+        @Override
+        int[] keys(int n, long seed) {
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = n - 1 - i;
+            }
+            return keys;
+        }
+    },
+
+    /**
+     * Uniform keys in [0, 2^30).
+     */
+    RANDOM {
+        @Override
+        int[] keys(int n, long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = random.nextInt(1 << 30);
+            }
+            return keys;
+        }
+    },
+
+    /**
+     * Zig-zag between a descending and an ascending run (n, n+1, n-2, n+3, ...). Every other insert
+     * is a new minimum, which defeats branch prediction on the minimum update, and consolidation
+     * links trees whose keys come from both runs.
+     */
+    ADVERSARIAL {
+        @Override
+        int[] keys(int n, long seed) {
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = (i & 1) == 0 ? n - i : n + i;
+            }
+            return keys;
+        }
+    };
+
+    /**
+     * Return n keys drawn from this distribution.
+     */
+    abstract int[] keys(int n, long seed);
+}
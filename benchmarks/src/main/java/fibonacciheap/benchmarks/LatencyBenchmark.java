@@ -0,0 +1,72 @@
+package fibonacciheap.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import fibonacciheap.FibonacciHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * LatencyBenchmark
+ * <p>
+ * Per-operation latency distribution under bursts: on top of size keys, the heap repeatedly takes burst inserts
+ * and then burst deleteMins, one operation per invocation. In the default mode the first deleteMin after a burst
+ * consolidates all burst new roots at once; bounded latency mode spreads that work over the inserts.
+ * JMH's sample mode reports the percentiles (p99.99 shows the consolidation pauses).
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LatencyBenchmark {
+    private static final int KEY_RANGE = 1 << 30;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"10000"})
+    public int burst;
+
+    @Param({"false", "true"})
+    public boolean bounded;
+
+    private FibonacciHeap heap;
+    private SplittableRandom random;
+    private int step;
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        random = new SplittableRandom(42);
+        heap = new FibonacciHeap();
+        heap.setBoundedLatency(bounded);
+        for (int i = 0; i < size; i++) {
+            heap.insert(random.nextInt(KEY_RANGE));
+        }
+        heap.deleteMin();
+        step = 0;
+    }
+
+    @Benchmark
+    public Object operation() {
+        int phase = step;
+        step = step + 1 == 2 * burst ? 0 : step + 1;
+        if (phase < burst) {
+            return heap.insert(random.nextInt(KEY_RANGE));
+        }
+        return heap.deleteMin();
+    }
+}
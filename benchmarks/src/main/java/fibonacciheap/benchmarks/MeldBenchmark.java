@@ -0,0 +1,72 @@
+package fibonacciheap.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MeldBenchmark
+ * <p>
+ * meld-heavy workload: size keys are split into heaps of PART keys, which are melded one by one
+ * into the first heap with a deleteMin after every meld.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MeldBenchmark {
+    private static final int PART = 64;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param
+    public KeyDistribution distribution;
+
+    @Param
+    public Engine engine;
+
+    private int[] keys;
+    private HeapAdapter[] parts;
+
+    @Setup(Level.Trial)
+    public void setUpKeys() {
+        keys = distribution.keys(size, 42);
+    }
+
+    @Setup(Level.Invocation)
+    public void fill() {
+        parts = new HeapAdapter[(size + PART - 1) / PART];
+        for (int i = 0; i < parts.length; i++) {
+            HeapAdapter part = engine.create(PART);
+            for (int j = i * PART; j < Math.min(size, (i + 1) * PART); j++) {
+                part.insert(j - i * PART, keys[j]);
+            }
+            parts[i] = part;
+        }
+    }
+
+    @Benchmark
+    public int meld() {
+        HeapAdapter result = parts[0];
+        for (int i = 1; i < parts.length; i++) {
+            result.meld(parts[i]);
+            result.deleteMin();
+        }
+        return result.size();
+    }
+}
@@ -0,0 +1,107 @@
+package fibonacciheap.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import fibonacciheap.FibonacciHeap;
+import fibonacciheap.KWayMerge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MergeBenchmark
+ * <p>
+ * Merges k sorted runs of random keys, 2^22 keys in all: by hand, with an insert, findMin and deleteMin per key,
+ * against KWayMerge reading one key ahead per source, which isolates replaceMin, and reading DEFAULT_BATCH keys
+ * ahead. Every variant sums the merged keys.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MergeBenchmark {
+    private static final int TOTAL = 1 << 22;
+
+    @Param({"16", "1024", "65536"})
+    public int k;
+
+    private int[][] runs;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(25);
+        runs = new int[k][];
+        for (int i = 0; i < k; i++) {
+            runs[i] = new int[TOTAL / k];
+            for (int j = 0; j < runs[i].length; j++) {
+                runs[i][j] = random.nextInt();
+            }
+            Arrays.sort(runs[i]);
+        }
+    }
+
+    @Benchmark
+    public long manual() {
+        FibonacciHeap heap = new FibonacciHeap();
+        List<PrimitiveIterator.OfInt> sources = sources();
+        for (int i = 0; i < k; i++) {
+            PrimitiveIterator.OfInt source = sources.get(i);
+            if (source.hasNext()) {
+                heap.insert(source.nextInt(), i);
+            }
+        }
+        long sum = 0;
+        while (!heap.empty()) {
+            FibonacciHeap.IntEntry head = (FibonacciHeap.IntEntry)heap.findMin();
+            sum += head.key;
+            heap.deleteMin();
+            PrimitiveIterator.OfInt source = sources.get(head.value);
+            if (source.hasNext()) {
+                heap.insert(source.nextInt(), head.value);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long replaceMin() {
+        return sum(KWayMerge.merge(sources(), 1));
+    }
+
+    @Benchmark
+    public long batched() {
+        return sum(KWayMerge.merge(sources(), KWayMerge.DEFAULT_BATCH));
+    }
+
+    private long sum(KWayMerge.Ints merge) {
+        long sum = 0;
+        while (merge.hasNext()) {
+            sum += merge.nextInt();
+        }
+        return sum;
+    }
+
+    private List<PrimitiveIterator.OfInt> sources() {
+        List<PrimitiveIterator.OfInt> sources = new ArrayList<>(k);
+        for (int[] run : runs) {
+            sources.add(Arrays.stream(run).iterator());
+        }
+        return sources;
+    }
+}
@@ -0,0 +1,91 @@
+package fibonacciheap.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MixedBenchmark
+ * <p>
+ * Event-queue workload on a heap of constant size: every operation extracts the minimum, inserts a
+ * later event and decreases the key of the event inserted TRACKED operations earlier if it is still
+ * pending. Score is time per operation.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MixedBenchmark {
+    private static final int OPS = 1024;
+    private static final int TRACKED = 8;
+    private static final int UNTRACKED = TRACKED;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param
+    public KeyDistribution distribution;
+
+    @Param
+    public Engine engine;
+
+    private int[] increments;
+    private HeapAdapter heap;
+    private final boolean[] pending = new boolean[TRACKED];
+    private int cursor;
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        int[] keys = distribution.keys(size, 42);
+        increments = new int[OPS];
+        for (int i = 0; i < OPS; i++) {
+            increments[i] = 1 + keys[i % size] % size;
+        }
+        heap = engine.create(TRACKED + 1);
+        for (int i = 0; i < size; i++) {
+            heap.insert(UNTRACKED, keys[i] % size);
+        }
+        Arrays.fill(pending, false);
+        cursor = 0;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public int mixed() {
+        int min = 0;
+        for (int j = 0; j < OPS; j++) {
+            for (int t = 0; t < TRACKED; t++) {
+                if (pending[t] && heap.isMin(t)) {
+                    pending[t] = false;
+                }
+            }
+            min = heap.findMinKey();
+            heap.deleteMin();
+
+            int slot = cursor;
+            cursor = (cursor + 1) % TRACKED;
+            if (pending[slot]) {
+                heap.decreaseKey(slot, increments[j] >> 1);
+            }
+            heap.insert(slot, min + increments[j]);
+            pending[slot] = true;
+        }
+        return min;
+    }
+}
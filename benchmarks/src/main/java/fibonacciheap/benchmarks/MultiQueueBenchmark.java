@@ -0,0 +1,122 @@
+package fibonacciheap.benchmarks;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import fibonacciheap.MultiQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * MultiQueueBenchmark
+ * <p>
+ * Same shared-queue workload as ConcurrentBenchmark, on a MultiQueue of shardFactor * threads shards.
+ * <p>
+ * After each iteration the quality of the relaxed order is measured on a separate queue with the same
+ * number of shards: size distinct keys are held while size more are inserted, one deleteMin per insert,
+ * and the rank error of every deleteMin (how many smaller keys were left in the queue) is printed as mean,
+ * 99th percentile and max. The measurement runs single-threaded, so it shows the error caused by sampling
+ * shards, not the extra error caused by concurrent operations.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+public class MultiQueueBenchmark {
+    private static final int KEY_RANGE = 1 << 30;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"1", "2", "4"})
+    public int shardFactor;
+
+    private int shards;
+    private MultiQueue queue;
+
+    @Setup(Level.Iteration)
+    public void fill(BenchmarkParams params) {
+        shards = shardFactor * params.getThreads();
+        queue = new MultiQueue(shards);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < size; i++) {
+            queue.insert(random.nextInt(KEY_RANGE));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public int insertDeleteMin(ThreadRandom thread) {
+        queue.insert(thread.random.nextInt(KEY_RANGE));
+        return queue.deleteMin().getKey();
+    }
+
+    @TearDown(Level.Iteration)
+    public void rankError() {
+        // Keys are a random permutation of [0, 2 * size); a Fenwick tree counts the keys in the queue
+        int n = 2 * size;
+        int[] keys = new int[n];
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i + 1);
+            keys[i] = keys[j];
+            keys[j] = i;
+        }
+        int[] tree = new int[n + 1];
+        MultiQueue probe = new MultiQueue(shards);
+        for (int i = 0; i < size; i++) {
+            probe.insert(keys[i]);
+            add(tree, keys[i], 1);
+        }
+
+        int[] errors = new int[size];
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            int key = probe.deleteMin().getKey();
+            add(tree, key, -1);
+            errors[i] = countBelow(tree, key);
+            total += errors[i];
+            probe.insert(keys[size + i]);
+            add(tree, keys[size + i], 1);
+        }
+        Arrays.sort(errors);
+        System.out.printf("%nrank error with %d shards: mean %.2f, p99 %d, max %d%n", shards,
+                (double) total / size, errors[(int) (size * 0.99)], errors[size - 1]);
+    }
+
+    private static void add(int[] tree, int key, int delta) {
+        for (int i = key + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private static int countBelow(int[] tree, int key) {
+        int count = 0;
+        for (int i = key; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+}
@@ -0,0 +1,91 @@
+package fibonacciheap.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PhasedBenchmark
+ * <p>
+ * A workload whose mix changes over time, for AdaptiveHeap. The heap holds size background entries with
+ * large keys, which are never extracted, and size events with small keys. Every invocation runs a
+ * deleteMin-heavy phase, where each operation extracts the next event and schedules a later one, and then a
+ * decreaseKey-heavy phase, where each operation also decreases DECREASES background keys. Score is time per
+ * operation.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PhasedBenchmark {
+    private static final int PHASE = 1 << 16;
+    private static final int DECREASES = 16;
+    private static final int BACKGROUND_KEY = (1 << 30) + (1 << 29);
+    private static final int INCREMENTS = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"OBJECT", "DARY4", "ADAPTIVE"})
+    public Engine engine;
+
+    private final int[] increments = new int[INCREMENTS];
+    private HeapAdapter heap;
+    private int cursor;
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < INCREMENTS; i++) {
+            increments[i] = 1 + random.nextInt(64);
+        }
+        heap = engine.create(size + 1);
+        for (int i = 0; i < size; i++) {
+            heap.insert(i, BACKGROUND_KEY + i);
+        }
+        for (int i = 0; i < size; i++) {
+            heap.insert(size, random.nextInt(1 << 20)); // events share one slot, they are never decreased
+        }
+        cursor = 0;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * PHASE)
+    public int phases() {
+        int checksum = 0;
+        for (int i = 0; i < PHASE; i++) {
+            checksum += nextEvent(i);
+        }
+        for (int i = 0; i < PHASE; i++) {
+            checksum += nextEvent(i);
+            for (int j = 0; j < DECREASES; j++) {
+                heap.decreaseKey(cursor, 1);
+                cursor = cursor + 1 == size ? 0 : cursor + 1;
+            }
+        }
+        return checksum;
+    }
+
+    private int nextEvent(int i) {
+        int key = heap.findMinKey();
+        heap.deleteMin();
+        heap.insert(size, key + increments[i & (INCREMENTS - 1)]);
+        return key;
+    }
+}
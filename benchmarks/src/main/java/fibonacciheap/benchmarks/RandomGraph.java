@@ -0,0 +1,40 @@
+package fibonacciheap.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * RandomGraph
+ * <p>
+ * A random directed graph in compressed form: every vertex has DEGREE random out-edges with weights
+ * 1..MAX_WEIGHT, plus an edge of weight MAX_WEIGHT to the next vertex so that all vertices are reachable.
+ * The out-edges of v are edgeStart[v], ..., edgeStart[v + 1] - 1.
+ */
+
+final class RandomGraph {
+    static final int DEGREE = 8;
+    static final int MAX_WEIGHT = 8;
+
+    final int size;
+    final int[] edgeStart;
+    final int[] edgeTarget;
+    final byte[] edgeWeight;
+
+    RandomGraph(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        this.size = size;
+        this.edgeStart = new int[size + 1];
+        this.edgeTarget = new int[size * (DEGREE + 1)];
+        this.edgeWeight = new byte[edgeTarget.length];
+        int edge = 0;
+        for (int v = 0; v < size; v++) {
+            edgeStart[v] = edge;
+            edgeTarget[edge] = (v + 1) % size;
+            edgeWeight[edge++] = MAX_WEIGHT;
+            for (int i = 0; i < DEGREE; i++) {
+                edgeTarget[edge] = random.nextInt(size);
+                edgeWeight[edge++] = (byte) (1 + random.nextInt(MAX_WEIGHT));
+            }
+        }
+        edgeStart[size] = edge;
+    }
+}
@@ -0,0 +1,118 @@
+package fibonacciheap.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import fibonacciheap.LongFibonacciHeap;
+import fibonacciheap.LongRadixHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * RoadDijkstraBenchmark
+ * <p>
+ * Single-source shortest paths from a corner of a RoadGraph of size vertices, with a fibonacci heap and with
+ * a radix heap. Dijkstra's algorithm deletes distances in non-decreasing order, which is what the radix heap
+ * relies on.
+ * <p>
+ * Both variants store a vertex v at distance d under the long key d * size + v. Every road is at least 1 long,
+ * so every key inserted after deleting d * size + u is at least (d + 1) * size and the keys stay monotone.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RoadDijkstraBenchmark {
+    @Param({"100000", "1000000", "4000000"})
+    public int size;
+
+    private RoadGraph graph;
+    private long[] dist;
+    private boolean[] settled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new RoadGraph((int) Math.sqrt(size), 42);
+        dist = new long[graph.size];
+        settled = new boolean[graph.size];
+    }
+
+    @Benchmark
+    public long fibonacci() {
+        int n = graph.size;
+        int[] edgeStart = graph.edgeStart;
+        int[] edgeTarget = graph.edgeTarget;
+        int[] edgeWeight = graph.edgeWeight;
+        Arrays.fill(dist, Long.MAX_VALUE);
+        Arrays.fill(settled, false);
+        LongFibonacciHeap heap = new LongFibonacciHeap();
+        LongFibonacciHeap.HeapNode[] nodes = new LongFibonacciHeap.HeapNode[n];
+        dist[0] = 0;
+        nodes[0] = heap.insert(0);
+        long checksum = 0;
+        while (!heap.empty()) {
+            int u = (int) (heap.deleteMin().getKey() % n);
+            settled[u] = true;
+            long du = dist[u];
+            checksum += du;
+            for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) {
+                int v = edgeTarget[e];
+                long candidate = du + edgeWeight[e];
+                if (dist[v] == Long.MAX_VALUE) {
+                    dist[v] = candidate;
+                    nodes[v] = heap.insert(candidate * n + v);
+                } else if (!settled[v] && candidate < dist[v]) {
+                    heap.decreaseKey(nodes[v], (dist[v] - candidate) * n);
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long radix() {
+        int n = graph.size;
+        int[] edgeStart = graph.edgeStart;
+        int[] edgeTarget = graph.edgeTarget;
+        int[] edgeWeight = graph.edgeWeight;
+        Arrays.fill(dist, Long.MAX_VALUE);
+        Arrays.fill(settled, false);
+        LongRadixHeap heap = new LongRadixHeap();
+        LongRadixHeap.HeapNode[] nodes = new LongRadixHeap.HeapNode[n];
+        dist[0] = 0;
+        nodes[0] = heap.insert(0);
+        long checksum = 0;
+        while (!heap.empty()) {
+            int u = (int) (heap.deleteMin().getKey() % n);
+            settled[u] = true;
+            long du = dist[u];
+            checksum += du;
+            for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) {
+                int v = edgeTarget[e];
+                long candidate = du + edgeWeight[e];
+                if (dist[v] == Long.MAX_VALUE) {
+                    dist[v] = candidate;
+                    nodes[v] = heap.insert(candidate * n + v);
+                } else if (!settled[v] && candidate < dist[v]) {
+                    heap.decreaseKey(nodes[v], (dist[v] - candidate) * n);
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return checksum;
+    }
+}
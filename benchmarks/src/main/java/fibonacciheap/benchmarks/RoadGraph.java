@@ -0,0 +1,68 @@
+package fibonacciheap.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * RoadGraph
+ * <p>
+ * A road-network-style graph in compressed form: the vertices form a side x side grid, and every pair of
+ * neighbours in the grid is joined by a two-way road with probability KEEP_PERCENT / 100, whose length is
+ * 1..MAX_WEIGHT in both directions. Like a road network, it has a low degree, a large diameter and many
+ * short paths of nearly equal length. The out-edges of v are edgeStart[v], ..., edgeStart[v + 1] - 1.
+ */
+
+final class RoadGraph {
+    static final int MAX_WEIGHT = 1000;
+    static final int KEEP_PERCENT = 85;
+
+    final int size;
+    final int[] edgeStart;
+    final int[] edgeTarget;
+    final int[] edgeWeight;
+
+    RoadGraph(int side, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        this.size = side * side;
+
+        // Roads from v to its right and lower neighbours; 0 if there is none
+        int[] right = new int[size];
+        int[] down = new int[size];
+        int[] degree = new int[size];
+        for (int v = 0; v < size; v++) {
+            if (v % side + 1 < side && random.nextInt(100) < KEEP_PERCENT) {
+                right[v] = 1 + random.nextInt(MAX_WEIGHT);
+                degree[v]++;
+                degree[v + 1]++;
+            }
+            if (v + side < size && random.nextInt(100) < KEEP_PERCENT) {
+                down[v] = 1 + random.nextInt(MAX_WEIGHT);
+                degree[v]++;
+                degree[v + side]++;
+            }
+        }
+
+        this.edgeStart = new int[size + 1];
+        for (int v = 0; v < size; v++) {
+            edgeStart[v + 1] = edgeStart[v] + degree[v];
+        }
+        this.edgeTarget = new int[edgeStart[size]];
+        this.edgeWeight = new int[edgeTarget.length];
+        int[] next = new int[size];
+        System.arraycopy(edgeStart, 0, next, 0, size);
+        for (int v = 0; v < size; v++) {
+            if (right[v] != 0) {
+                addRoad(next, v, v + 1, right[v]);
+            }
+            if (down[v] != 0) {
+                addRoad(next, v, v + side, down[v]);
+            }
+        }
+    }
+
+    private void addRoad(int[] next, int u, int v, int weight) {
+        edgeTarget[next[u]] = v;
+        edgeWeight[next[u]++] = weight;
+        edgeTarget[next[v]] = u;
+        edgeWeight[next[v]++] = weight;
+    }
+}
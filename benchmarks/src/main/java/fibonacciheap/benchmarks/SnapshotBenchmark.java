@@ -0,0 +1,73 @@
+package fibonacciheap.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import fibonacciheap.FibonacciHeap;
+import fibonacciheap.HeapSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SnapshotBenchmark
+ * <p>
+ * Time until a restarted scheduler can serve its first deadline: rebuilding its heap of (deadline, id) entries
+ * with one insert per entry, against reading a snapshot of it. Both end with a deleteMin, which consolidates
+ * the rebuilt heap but finds the restored one already consolidated.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SnapshotBenchmark {
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    private int[] keys;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        keys = KeyDistribution.RANDOM.keys(size, 42);
+        file = Files.createTempFile("heap", ".snapshot");
+        HeapSnapshot.write(rebuild(), file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public FibonacciHeap rebuild() {
+        FibonacciHeap heap = new FibonacciHeap();
+        for (int i = 0; i < size; i++) {
+            heap.insert(keys[i], i);
+        }
+        heap.deleteMin();
+        return heap;
+    }
+
+    @Benchmark
+    public FibonacciHeap restore() throws IOException {
+        FibonacciHeap heap = HeapSnapshot.read(file);
+        heap.deleteMin();
+        return heap;
+    }
+}
@@ -0,0 +1,84 @@
+package fibonacciheap.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import fibonacciheap.FibonacciHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TopKBenchmark
+ * <p>
+ * Keeps the k largest of a stream of 1e8 keys: by hand, inserting every key and deleting the minimum whenever
+ * the heap grows beyond k, against a heap with a capacity of k, with and without the node pool. RANDOM keys
+ * are mostly rejected once the heap is full; ASCENDING keys all evict the minimum, the worst case. The keys
+ * come from an xorshift generator inlined in the loop, the same for every variant.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class TopKBenchmark {
+    private static final long STREAM = 100_000_000L;
+
+    @Param({"100", "10000"})
+    public int k;
+
+    @Param({"RANDOM", "ASCENDING"})
+    public String order;
+
+    @Benchmark
+    public int manual() {
+        FibonacciHeap heap = new FibonacciHeap();
+        boolean ascending = order.equals("ASCENDING");
+        long state = 42;
+        for (long i = 0; i < STREAM; i++) {
+            state ^= state << 13;
+            state ^= state >>> 7;
+            state ^= state << 17;
+            heap.insert(ascending ? (int)i : (int)state);
+            if (heap.size() > k) {
+                heap.deleteMin();
+            }
+        }
+        return heap.findMin().getKey();
+    }
+
+    @Benchmark
+    public int bounded() {
+        return stream(false);
+    }
+
+    @Benchmark
+    public int boundedPooled() {
+        return stream(true);
+    }
+
+    private int stream(boolean pooled) {
+        FibonacciHeap heap = new FibonacciHeap();
+        heap.setCapacity(k, FibonacciHeap.EvictionPolicy.EVICT_MIN);
+        if (pooled) {
+            heap.setNodePoolCapacity(16);
+        }
+        boolean ascending = order.equals("ASCENDING");
+        long state = 42;
+        for (long i = 0; i < STREAM; i++) {
+            state ^= state << 13;
+            state ^= state >>> 7;
+            state ^= state << 17;
+            heap.insert(ascending ? (int)i : (int)state);
+        }
+        return heap.findMin().getKey();
+    }
+}
@@ -0,0 +1,515 @@
+package fibonacciheap;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * AdaptiveHeap
+ * <p>
+ * A heap over integers that profiles its own workload and moves its entries to whichever engine suits the
+ * workload best: a FibonacciHeap, whose decreaseKey is O(1) but whose deleteMin chases pointers all over the
+ * memory, or a DaryHeap, whose deleteMin is several times faster but whose decreaseKey costs O(log n).
+ * <p>
+ * The heap counts its operations over a sliding window of the last window operations, kept as two halves. At
+ * the end of every half, a cost model prices the counted mix on both engines at the current size; the cost of
+ * a DaryHeap decreaseKey depends on how many levels the keys move up, which the heap measures while it runs
+ * on the DaryHeap. When the other engine is predicted to be at least MARGIN cheaper for STREAK halves in a
+ * row, and the predicted savings of those halves pay for moving every entry, the heap migrates: it copies all
+ * keys out of the current engine into reused buffers and bulk-loads them into the other engine in linear
+ * time. The margin, the streak and the pay-back rule are the hysteresis that keeps a workload near the
+ * break-even point from flipping the heap back and forth.
+ * <p>
+ * Entries are addressed by int ids issued by this heap and mapped to the handles of the current engine, so ids
+ * stay valid across migrations.
+ */
+
+public class AdaptiveHeap implements IntAddressableHeap<AdaptiveHeap> {
+    /**
+     * Id value meaning "no entry".
+     */
+    public static final int NONE = -1;
+
+    /**
+     * The engines an AdaptiveHeap can run on.
+     */
+    public enum Engine {
+        /**
+         * FibonacciHeap, one node object per entry.
+         */
+        FIBONACCI,
+
+        /**
+         * 4-ary DaryHeap in primitive arrays.
+         */
+        DARY
+    }
+
+    // Cost model, in units of one cheap insert; the deleteMin costs are per bit of the size. Rough fits to
+    // DeleteMinBenchmark, DijkstraBenchmark and PhasedBenchmark.
+    private static final double FIBONACCI_INSERT = 1;
+    private static final double FIBONACCI_DELETE_MIN = 4;
+    private static final double FIBONACCI_DECREASE_KEY = 2;
+    private static final double FIBONACCI_MELD = 1;
+    private static final double DARY_INSERT = 1;
+    private static final double DARY_DELETE_MIN = 0.5;
+    private static final double DARY_DECREASE_KEY = 1;
+    private static final double DARY_LEVEL = 1; // per level a decreaseKey moves up
+    private static final double DARY_MELDED_ENTRY = 1;
+    private static final double MIGRATED_ENTRY = 4;
+
+    private static final double MARGIN = 0.25;
+    private static final int STREAK = 3;
+    private static final int DEFAULT_WINDOW = 4096;
+    private static final int DARY_ARITY = 4;
+
+    // Operation counters, indexes into the window halves
+    private static final int INSERT = 0;
+    private static final int DELETE_MIN = 1;
+    private static final int DECREASE_KEY = 2;
+    private static final int MELD = 3;
+    private static final int MELDED_ENTRIES = 4;
+    private static final int LEVELS = 5; // levels moved by decreaseKeys on the DaryHeap
+    private static final int DARY_DECREASE_KEYS = 6; // decreaseKeys that ran on the DaryHeap
+
+    private final int halfWindow;
+    private long[] current = new long[7];
+    private long[] previous = new long[7];
+    private int halfOps;
+    private int streak;
+    private double streakSavings;
+    private double decreaseLevels = -1; // levels per DaryHeap decreaseKey, -1 until measured
+    private long migrations;
+
+    private Engine engine;
+    private FibonacciHeap fibonacci; // while FIBONACCI
+    private DaryHeap dary; // while DARY
+    private FibonacciHeap.IntEntry[] entries = new FibonacciHeap.IntEntry[16]; // id to node, while FIBONACCI
+    private int[] slots = new int[16]; // id to DaryHeap handle, while DARY
+    private int[] ids = new int[16]; // DaryHeap handle to id, while DARY
+
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int top; // ids in [0, top) have been handed out at least once
+
+    // Buffers of migrate and meld, reused between calls
+    private int[] keyBuffer = new int[0];
+    private int[] idBuffer = new int[0];
+    private int[] slotBuffer = new int[0];
+    private FibonacciHeap.HeapNode[] nodeBuffer = new FibonacciHeap.HeapNode[0];
+
+    /**
+     * Default constructor to initialize an empty heap on the FIBONACCI engine, with a window of 4096 operations.
+     */
+    public AdaptiveHeap() {
+        this(Engine.FIBONACCI, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Initialize an empty heap on the given engine.
+     * @param engine engine to start on
+     * @param window number of operations the profile covers, at least 2
+     */
+    public AdaptiveHeap(Engine engine, int window) {
+        if (window < 2) {
+            throw new IllegalArgumentException("Window must be at least 2: " + window);
+        }
+        this.halfWindow = window / 2;
+        this.engine = Objects.requireNonNull(engine);
+        createEngine(0);
+    }
+
+    /**
+     * public Engine engine()
+     * <p>
+     * Return the engine the heap currently runs on.
+     */
+    public Engine engine() {
+        return engine;
+    }
+
+    /**
+     * public long migrations()
+     * <p>
+     * Return the number of times the heap has moved its entries to another engine.
+     */
+    public long migrations() {
+        return migrations;
+    }
+
+    /**
+     * public boolean empty()
+     * <p>
+     * The method returns true if and only if the heap is empty.
+     */
+    @Override
+    public boolean empty() {
+        return size() == 0;
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap.
+     */
+    @Override
+    public int size() {
+        return engine == Engine.FIBONACCI ? fibonacci.size() : dary.size();
+    }
+
+    /**
+     * public int insert(int key)
+     * <p>
+     * Inserts the key into the heap and returns the id of its entry.
+     */
+    @Override
+    public int insert(int key) {
+        record(INSERT, 1);
+        int id = allocateId();
+        if (engine == Engine.FIBONACCI) {
+            entries[id] = fibonacci.insert(key, id);
+        } else {
+            mapSlot(id, dary.insert(key));
+        }
+        return id;
+    }
+
+    /**
+     * public int findMin()
+     * <p>
+     * Return the id of the entry whose key is minimal, or NONE if the heap is empty.
+     */
+    @Override
+    public int findMin() {
+        if (engine == Engine.FIBONACCI) {
+            FibonacciHeap.HeapNode min = fibonacci.findMin();
+            return min == null ? NONE : ((FibonacciHeap.IntEntry) min).value;
+        }
+        int min = dary.findMin();
+        return min == DaryHeap.NONE ? NONE : ids[min];
+    }
+
+    /**
+     * public int deleteMin()
+     * <p>
+     * Delete the entry whose key is minimal and return its id, or return NONE if the heap is empty.
+     * The key of the deleted entry can be read until the next operation that changes the heap.
+     */
+    @Override
+    public int deleteMin() {
+        record(DELETE_MIN, 1);
+        int id;
+        if (engine == Engine.FIBONACCI) {
+            FibonacciHeap.HeapNode min = fibonacci.deleteMin();
+            if (min == null) {
+                return NONE;
+            }
+            id = ((FibonacciHeap.IntEntry) min).value;
+        } else {
+            int min = dary.deleteMin();
+            if (min == DaryHeap.NONE) {
+                return NONE;
+            }
+            id = ids[min];
+        }
+        freeId(id);
+        return id;
+    }
+
+    /**
+     * public int key(int node)
+     * <p>
+     * Return the key of the entry with the given id.
+     */
+    @Override
+    public int key(int node) {
+        return engine == Engine.FIBONACCI ? entries[node].key : dary.key(slots[node]);
+    }
+
+    /**
+     * public void decreaseKey(int node, int delta)
+     * <p>
+     * Decreases the key of the entry with the given id by delta.
+     */
+    @Override
+    public void decreaseKey(int node, int delta) {
+        record(DECREASE_KEY, 1);
+        if (engine == Engine.FIBONACCI) {
+            fibonacci.decreaseKey(entries[node], delta);
+        } else {
+            long levels = dary.siftUpLevels;
+            dary.decreaseKey(slots[node], delta);
+            current[LEVELS] += dary.siftUpLevels - levels;
+            current[DARY_DECREASE_KEYS]++;
+        }
+    }
+
+    /**
+     * public void decreaseKeyTo(int node, int newKey)
+     * <p>
+     * Set the key of the entry to newKey, which must not be larger than its current key.
+     */
+    @Override
+    public void decreaseKeyTo(int node, int newKey) {
+        int key = key(node);
+        if (newKey > key) {
+            throw new IllegalArgumentException("New key " + newKey + " is larger than the current key " + key);
+        }
+        decreaseKey(node, key - newKey);
+    }
+
+    /**
+     * public void delete(int node)
+     * <p>
+     * Deletes the entry with the given id from the heap. Counts as a deleteMin in the profile.
+     */
+    @Override
+    public void delete(int node) {
+        record(DELETE_MIN, 1);
+        if (engine == Engine.FIBONACCI) {
+            fibonacci.delete(entries[node]);
+        } else {
+            dary.delete(slots[node]);
+        }
+        freeId(node);
+    }
+
+    /**
+     * public int meld (AdaptiveHeap heap2)
+     * <p>
+     * Meld the heap with heap2, whatever engine each of them runs on. The entries of heap2 are copied into this
+     * heap and heap2 is left empty. An id h issued by heap2 refers to the entry h + offset of this heap, where
+     * offset is the returned value.
+     */
+    @Override
+    public int meld(AdaptiveHeap heap2) {
+        if (heap2 == this) {
+            return 0;
+        }
+        int count = heap2.size();
+        record(MELD, 1);
+        record(MELDED_ENTRIES, count);
+        if (count == 0) {
+            heap2.clear();
+            return top;
+        }
+        if (empty()) {
+            // Nothing worth keeping, start over so heap2's ids stay unchanged
+            top = 0;
+            freeCount = 0;
+        }
+
+        int offset = top;
+        ensureIdCapacity(offset + heap2.top);
+        top = offset + heap2.top;
+        for (int i = 0; i < heap2.freeCount; i++) {
+            freeIds[freeCount++] = heap2.freeIds[i] + offset;
+        }
+        heap2.drain();
+        for (int i = 0; i < count; i++) {
+            heap2.idBuffer[i] += offset;
+        }
+        load(heap2.keyBuffer, heap2.idBuffer, count);
+        heap2.clear();
+        return offset;
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Count operations in the current half of the window, and when the half is full, price the window on both
+     * engines and migrate if the other engine has been clearly cheaper for long enough. Runs before the
+     * operation, so that the operation itself already runs on the new engine.
+     * @param op operation counter to add to
+     * @param count amount to add
+     */
+    private void record(int op, int count) {
+        current[op] += count;
+        if (op == MELDED_ENTRIES || ++halfOps < halfWindow) {
+            return;
+        }
+        halfOps = 0;
+
+        int size = size();
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(size, 2));
+        long daryDecreaseKeys = current[DARY_DECREASE_KEYS] + previous[DARY_DECREASE_KEYS];
+        if (daryDecreaseKeys > 0) {
+            decreaseLevels = (double) (current[LEVELS] + previous[LEVELS]) / daryDecreaseKeys;
+        } else if (decreaseLevels < 0) {
+            decreaseLevels = bits / 4.0; // half the depth of a 4-ary heap, until measured
+        }
+        long inserts = current[INSERT] + previous[INSERT];
+        long deleteMins = current[DELETE_MIN] + previous[DELETE_MIN];
+        long decreaseKeys = current[DECREASE_KEY] + previous[DECREASE_KEY];
+        double fibonacciCost = inserts * FIBONACCI_INSERT + deleteMins * FIBONACCI_DELETE_MIN * bits
+                + decreaseKeys * FIBONACCI_DECREASE_KEY + (current[MELD] + previous[MELD]) * FIBONACCI_MELD;
+        double daryCost = inserts * DARY_INSERT + deleteMins * DARY_DELETE_MIN * bits
+                + decreaseKeys * (DARY_DECREASE_KEY + decreaseLevels * DARY_LEVEL)
+                + (current[MELDED_ENTRIES] + previous[MELDED_ENTRIES]) * DARY_MELDED_ENTRY;
+        long[] oldest = previous;
+        previous = current;
+        current = oldest;
+        Arrays.fill(current, 0);
+
+        // The window covers two halves, so half of the difference is what this half saved
+        double currentCost = engine == Engine.FIBONACCI ? fibonacciCost : daryCost;
+        double otherCost = engine == Engine.FIBONACCI ? daryCost : fibonacciCost;
+        if (otherCost < currentCost * (1 - MARGIN)) {
+            streak++;
+            streakSavings += (currentCost - otherCost) / 2;
+        } else {
+            streak = 0;
+            streakSavings = 0;
+        }
+        if (streak >= STREAK && streakSavings >= size * MIGRATED_ENTRY) {
+            streak = 0;
+            streakSavings = 0;
+            migrate();
+        }
+    }
+
+    /**
+     * Move all entries to the other engine, keeping their ids.
+     */
+    private void migrate() {
+        int count = size();
+        drain();
+        if (engine == Engine.FIBONACCI) {
+            Arrays.fill(entries, null);
+            engine = Engine.DARY;
+        } else {
+            engine = Engine.FIBONACCI;
+        }
+        createEngine(count);
+        load(keyBuffer, idBuffer, count);
+        migrations++;
+    }
+
+    /**
+     * Replace the current engine by an empty one of the type given by engine.
+     * @param capacity number of entries the engine will be loaded with
+     */
+    private void createEngine(int capacity) {
+        if (engine == Engine.FIBONACCI) {
+            fibonacci = new FibonacciHeap();
+            dary = null;
+        } else {
+            dary = new DaryHeap(DARY_ARITY, Math.max(capacity, 16));
+            fibonacci = null;
+        }
+    }
+
+    /**
+     * Copy the keys and ids of all entries into keyBuffer and idBuffer, without changing the heap.
+     */
+    private void drain() {
+        int count = size();
+        if (keyBuffer.length < count) {
+            keyBuffer = new int[count];
+            idBuffer = new int[count];
+        }
+        if (engine == Engine.FIBONACCI) {
+            if (nodeBuffer.length < count + fibonacci.deadCount()) {
+                nodeBuffer = new FibonacciHeap.HeapNode[count + fibonacci.deadCount()];
+            }
+            fibonacci.collectNodes(nodeBuffer);
+            for (int i = 0; i < count; i++) {
+                FibonacciHeap.IntEntry node = (FibonacciHeap.IntEntry) nodeBuffer[i];
+                nodeBuffer[i] = null;
+                keyBuffer[i] = node.key;
+                idBuffer[i] = node.value;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                int slot = dary.handleAt(i);
+                keyBuffer[i] = dary.key(slot);
+                idBuffer[i] = ids[slot];
+            }
+        }
+    }
+
+    /**
+     * Bulk-insert entries into the current engine under the given ids.
+     * @param keys keys of the entries
+     * @param entryIds ids of the entries
+     * @param count number of entries
+     */
+    private void load(int[] keys, int[] entryIds, int count) {
+        if (engine == Engine.FIBONACCI) {
+            if (nodeBuffer.length < count) {
+                nodeBuffer = new FibonacciHeap.HeapNode[count];
+            }
+            for (int i = 0; i < count; i++) {
+                FibonacciHeap.IntEntry node = new FibonacciHeap.IntEntry(keys[i], entryIds[i]);
+                entries[entryIds[i]] = node;
+                nodeBuffer[i] = node;
+            }
+            fibonacci.insertNodes(nodeBuffer, count);
+            Arrays.fill(nodeBuffer, 0, count, null);
+        } else {
+            if (slotBuffer.length < count) {
+                slotBuffer = new int[count];
+            }
+            dary.insertAll(keys, 0, count, slotBuffer);
+            for (int i = 0; i < count; i++) {
+                mapSlot(entryIds[i], slotBuffer[i]);
+            }
+        }
+    }
+
+    /**
+     * Record that the entry with the given id lives in the given DaryHeap slot.
+     * @param id id of the entry
+     * @param slot handle of the entry in the DaryHeap
+     */
+    private void mapSlot(int id, int slot) {
+        if (slot >= ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(slot + 1, ids.length * 2));
+        }
+        slots[id] = slot;
+        ids[slot] = id;
+    }
+
+    /**
+     * Take an id from the free ids, or a fresh one if there are none.
+     * @return the id
+     */
+    private int allocateId() {
+        if (freeCount > 0) {
+            return freeIds[--freeCount];
+        }
+        ensureIdCapacity(top + 1);
+        return top++;
+    }
+
+    /**
+     * Return an id to the free ids.
+     * @param id id of a deleted entry
+     */
+    private void freeId(int id) {
+        freeIds[freeCount++] = id;
+    }
+
+    /**
+     * Make sure the arrays indexed by id can hold the given number of ids.
+     * @param capacity required number of ids
+     */
+    private void ensureIdCapacity(int capacity) {
+        if (capacity <= slots.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, slots.length + (slots.length >> 1));
+        entries = Arrays.copyOf(entries, newCapacity);
+        slots = Arrays.copyOf(slots, newCapacity);
+        freeIds = Arrays.copyOf(freeIds, newCapacity);
+    }
+
+    /**
+     * Reset the heap to the empty state on its current engine, forgetting all ids.
+     */
+    private void clear() {
+        Arrays.fill(entries, 0, top, null);
+        top = 0;
+        freeCount = 0;
+        createEngine(0);
+    }
+}
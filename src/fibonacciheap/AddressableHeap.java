@@ -0,0 +1,85 @@
+package fibonacciheap;
+
+/**
+ * AddressableHeap
+ * <p>
+ * A min-heap over integers whose entries are addressed by the handles insert returns, so that their keys can
+ * be decreased and they can be deleted. The handle type H and the heap type Q itself are type parameters, so
+ * each engine keeps its own handle class and melds only with heaps of its own kind.
+ * <p>
+ * A handle must not be used after its entry has been deleted.
+ *
+ * @param <H> type of the handles
+ * @param <Q> type of the heap, the implementing class itself
+ */
+
+public interface AddressableHeap<H extends AddressableHeap.Handle, Q extends AddressableHeap<H, Q>> {
+    /**
+     * public boolean empty()
+     * <p>
+     * The method returns true if and only if the heap is empty.
+     */
+    boolean empty();
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap.
+     */
+    int size();
+
+    /**
+     * public H insert(int key)
+     * <p>
+     * Insert the key into the heap and return the handle of its entry.
+     */
+    H insert(int key);
+
+    /**
+     * public H findMin()
+     * <p>
+     * Return the handle of the entry whose key is minimal, or null if the heap is empty.
+     */
+    H findMin();
+
+    /**
+     * public H deleteMin()
+     * <p>
+     * Delete the entry whose key is minimal and return its handle, or return null if the heap is empty.
+     */
+    H deleteMin();
+
+    /**
+     * public void decreaseKey(H x, int delta)
+     * <p>
+     * Decrease the key of the entry x by delta.
+     */
+    void decreaseKey(H x, int delta);
+
+    /**
+     * public void delete(H x)
+     * <p>
+     * Delete the entry x from the heap.
+     */
+    void delete(H x);
+
+    /**
+     * public void meld(Q heap2)
+     * <p>
+     * Move the entries of heap2 into this heap; heap2 must not be used afterwards. The handles of heap2 stay
+     * valid and now belong to this heap.
+     */
+    void meld(Q heap2);
+
+    /**
+     * Handle
+     * <p>
+     * The entry of a key in an AddressableHeap.
+     */
+    interface Handle {
+        /**
+         * Return the current key of the entry.
+         */
+        int getKey();
+    }
+}
@@ -0,0 +1,335 @@
+package fibonacciheap;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ConcurrentFibonacciHeap
+ * <p>
+ * A thread-safe fibonacci heap over integers based on flat combining.
+ * <p>
+ * Every thread owns a publication record. To run an operation, a thread writes it to its record and tries to
+ * become the combiner; the thread that wins applies the pending operations of all threads to a plain
+ * FibonacciHeap in one batch, while the others wait for their records to be answered. A batch applies all
+ * its inserts as one splice into the root list, and answers all its deleteMins with one pollMin, so a batch
+ * of deleteMins pays for one consolidate.
+ * <p>
+ * The nodes returned by insert are the handles for decreaseKey and delete, as in FibonacciHeap. They must
+ * not be used after they have been deleted. An exception thrown by an operation, such as decreaseKey with a
+ * negative delta, is handed back to the thread that published it and does not affect the rest of the batch.
+ * <p>
+ * The combiner drops records that stayed idle for IDLE_PASSES passes, so threads that stopped using the heap
+ * do not lengthen every pass; a dropped record is added again by its thread on its next operation.
+ */
+
+public class ConcurrentFibonacciHeap {
+    private static final int NONE = 0;
+    private static final int INSERT = 1;
+    private static final int DECREASE_KEY = 2;
+    private static final int DELETE = 3;
+    private static final int DELETE_MIN = 4;
+
+    // Spins before a waiting thread starts yielding, so a combiner that lost its CPU gets it back
+    private static final int SPINS = 64;
+
+    // Combining passes a record may stay idle before the combiner drops it from the list
+    private static final int IDLE_PASSES = 1024;
+
+    private final FibonacciHeap heap = new FibonacciHeap(); // touched by the combiner only
+    private final AtomicBoolean combining = new AtomicBoolean();
+    private final AtomicReference<Record> records = new AtomicReference<>(); // all records, newest first
+    private final ThreadLocal<Record> ownRecord = ThreadLocal.withInitial(this::register);
+    private volatile int size;
+
+    // Batches of the combiner, reused between batches
+    private Record[] insertRecords = new Record[16];
+    private FibonacciHeap.HeapNode[] inserts = new FibonacciHeap.HeapNode[16];
+    private Record[] deleteMins = new Record[16];
+    private FibonacciHeap.HeapNode[] deleted = new FibonacciHeap.HeapNode[16];
+
+    private long batches;
+    private long batchedOperations;
+
+    /**
+     * public boolean empty()
+     * <p>
+     * Return true if the heap was empty after the last batch of operations.
+     */
+    public boolean empty() {
+        return size == 0;
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap after the last batch of operations.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * public HeapNode insert(int key)
+     * <p>
+     * Creates a node which contains the given key, inserts it into the heap and returns it.
+     */
+    public FibonacciHeap.HeapNode insert(int key) {
+        FibonacciHeap.HeapNode node = new FibonacciHeap.HeapNode(key);
+        Record record = ownRecord.get();
+        record.node = node;
+        run(record, INSERT);
+        return node;
+    }
+
+    /**
+     * public void decreaseKey(HeapNode x, int delta)
+     * <p>
+     * Decreases the key of the node x by delta.
+     */
+    public void decreaseKey(FibonacciHeap.HeapNode x, int delta) {
+        Record record = ownRecord.get();
+        record.node = x;
+        record.delta = delta;
+        run(record, DECREASE_KEY);
+    }
+
+    /**
+     * public void delete(HeapNode x)
+     * <p>
+     * Deletes the node x from the heap.
+     */
+    public void delete(FibonacciHeap.HeapNode x) {
+        Record record = ownRecord.get();
+        record.node = x;
+        run(record, DELETE);
+    }
+
+    /**
+     * public HeapNode deleteMin()
+     * <p>
+     * Delete the node containing the minimum key and return it, or return null if the heap is empty.
+     */
+    public FibonacciHeap.HeapNode deleteMin() {
+        Record record = ownRecord.get();
+        run(record, DELETE_MIN);
+        FibonacciHeap.HeapNode result = record.node;
+        record.node = null;
+        return result;
+    }
+
+    /**
+     * public HeapCounters counters()
+     * <p>
+     * Return a snapshot of the operation counters of the underlying heap.
+     */
+    public HeapCounters counters() {
+        lock();
+        try {
+            return heap.counters();
+        } finally {
+            combining.set(false);
+        }
+    }
+
+    /**
+     * public double averageBatchSize()
+     * <p>
+     * Return the average number of operations applied per combining pass.
+     */
+    public double averageBatchSize() {
+        lock();
+        try {
+            return batches == 0 ? 0 : (double) batchedOperations / batches;
+        } finally {
+            combining.set(false);
+        }
+    }
+
+    /**
+     * Return the number of records in the list, for tests.
+     */
+    int recordCount() {
+        lock();
+        try {
+            int count = 0;
+            for (Record record = records.get(); record != null; record = record.next) {
+                count++;
+            }
+            return count;
+        } finally {
+            combining.set(false);
+        }
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Publish an operation in the record, and wait until some combiner, possibly this thread, has applied it.
+     * @param record record of the calling thread, with the arguments of the operation set
+     * @param op operation to run
+     */
+    private void run(Record record, int op) {
+        record.op = op; // volatile write publishes the arguments
+        int spins = 0;
+        while (true) {
+            if (!record.active) {
+                // Dropped by a combiner as idle, possibly after op was written: add it again
+                record.active = true;
+                push(record);
+            }
+            if (!combining.get() && combining.compareAndSet(false, true)) {
+                try {
+                    combine();
+                } finally {
+                    combining.set(false);
+                }
+            }
+            if (record.op == NONE) {
+                RuntimeException failure = record.failure;
+                if (failure != null) {
+                    record.failure = null;
+                    throw failure;
+                }
+                return;
+            }
+            if (++spins < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Wait until this thread is the combiner, without publishing an operation.
+     */
+    private void lock() {
+        while (!combining.compareAndSet(false, true)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Apply the pending operations of all records as one batch. Runs only while holding the combiner flag.
+     */
+    private void combine() {
+        int insertCount = 0;
+        int deleteMinCount = 0;
+        int operations = 0;
+        Record previous = null;
+        for (Record record = records.get(), next; record != null; record = next) {
+            next = record.next;
+            int op = record.op;
+            if (op == NONE) {
+                if (++record.idle > IDLE_PASSES && previous != null) {
+                    // Only the head is changed by other threads, so any other record can be unlinked here
+                    previous.next = next;
+                    record.active = false;
+                    continue;
+                }
+            } else {
+                record.idle = 0;
+            }
+            previous = record;
+            switch (op) {
+                case INSERT:
+                    if (insertCount == inserts.length) {
+                        insertRecords = Arrays.copyOf(insertRecords, insertCount * 2);
+                        inserts = Arrays.copyOf(inserts, insertCount * 2);
+                    }
+                    insertRecords[insertCount] = record;
+                    inserts[insertCount++] = record.node;
+                    operations++;
+                    break;
+                case DECREASE_KEY:
+                case DELETE:
+                    try {
+                        if (op == DECREASE_KEY) {
+                            heap.decreaseKey(record.node, record.delta);
+                        } else {
+                            heap.delete(record.node);
+                        }
+                    } catch (RuntimeException e) {
+                        record.failure = e; // rethrown by the owner
+                    }
+                    record.node = null;
+                    record.op = NONE;
+                    operations++;
+                    break;
+                case DELETE_MIN:
+                    if (deleteMinCount == deleteMins.length) {
+                        deleteMins = Arrays.copyOf(deleteMins, deleteMinCount * 2);
+                        deleted = new FibonacciHeap.HeapNode[deleteMins.length];
+                    }
+                    deleteMins[deleteMinCount++] = record;
+                    operations++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (operations == 0) {
+            return;
+        }
+
+        // The operations of a batch are concurrent, so any order is a valid one: inserts go first,
+        // so that deleteMins see them
+        heap.insertNodes(inserts, insertCount);
+        for (int i = 0; i < insertCount; i++) {
+            Record record = insertRecords[i];
+            insertRecords[i] = null;
+            inserts[i] = null;
+            record.node = null;
+            record.op = NONE;
+        }
+        int found = heap.pollMin(deleteMinCount, deleted);
+        for (int i = 0; i < deleteMinCount; i++) {
+            Record record = deleteMins[i];
+            deleteMins[i] = null;
+            record.node = i < found ? deleted[i] : null;
+            deleted[i] = null;
+            record.op = NONE; // volatile write publishes the result
+        }
+
+        size = heap.size();
+        batches++;
+        batchedOperations += operations;
+    }
+
+    /**
+     * Create the record of the calling thread and add it to the list of records.
+     */
+    private Record register() {
+        Record record = new Record();
+        push(record);
+        return record;
+    }
+
+    /**
+     * Add a record at the head of the list of records.
+     * @param record record not in the list
+     */
+    private void push(Record record) {
+        record.idle = 0;
+        Record head;
+        do {
+            head = records.get();
+            record.next = head;
+        } while (!records.compareAndSet(head, record));
+    }
+
+    /**
+     * Publication record of one thread. op is NONE while no operation is pending; the other fields are
+     * written by the owner before op is set, and by the combiner before op is reset to NONE.
+     */
+    private static final class Record {
+        volatile int op;
+        volatile boolean active = true; // in the list of records; reset by the combiner that drops it
+        FibonacciHeap.HeapNode node; // argument, or result of deleteMin
+        int delta;
+        RuntimeException failure; // thrown by the operation, for the owner to rethrow
+        int idle; // combining passes without an operation, counted by the combiner
+        Record next;
+    }
+}
@@ -0,0 +1,435 @@
+package fibonacciheap;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * DaryHeap
+ * <p>
+ * An indexed implicit d-ary heap over integers, for heaps small enough to stay in the CPU caches.
+ * <p>
+ * The keys are stored in heap order in one int array, so a sift touches one run of adjacent keys per level
+ * instead of one object per node, and a tree of n keys has only log_d(n) levels. The root lives at position
+ * d - 1, which puts the d children of every node at positions d * k, ..., d * k + d - 1 for some k. Each child
+ * group thus starts at a multiple of d keys from the start of the array, so with a power of two d &lt;= 16 a
+ * group never spans more than two cache lines, and exactly one if the JVM places the array data on a line
+ * boundary; a sift down scans one group per level.
+ * <p>
+ * Entries are addressed by int handles as in IntFibonacciHeap. A parallel array maps positions to handles and
+ * an index maps handles to positions, so decreaseKey and delete find their entry in O(1). Sifting moves a
+ * hole instead of swapping, and nothing is allocated once the arrays are large enough.
+ */
+
+public class DaryHeap implements IntAddressableHeap<DaryHeap> {
+    /**
+     * Handle value meaning "no node".
+     */
+    public static final int NONE = -1;
+
+    private static final int DEFAULT_ARITY = 4;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_ARITY = 64;
+
+    private final int arity;
+    private final int root; // position of the root, arity - 1
+
+    private int[] keys; // keys in heap order, by position
+    private int[] handles; // handle of the entry at each position; free handles are kept after the last entry
+    private int[] position; // position of each handle
+
+    private int size;
+    private int top; // handles in [0, top) have been handed out at least once
+
+    long siftUpLevels; // levels moved by siftUp, read by AdaptiveHeap to price decreaseKey
+
+    /**
+     * Default constructor to initialize an empty 4-ary heap.
+     */
+    public DaryHeap() {
+        this(DEFAULT_ARITY, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initialize an empty heap with the given arity, that can hold the given number of entries before growing
+     * its arrays. Throws IllegalArgumentException if the arity is not in [2, 64].
+     * @param arity number of children per node; a power of two keeps the child groups aligned
+     * @param capacity initial number of entries
+     */
+    public DaryHeap(int arity, int capacity) {
+        if (arity < 2 || arity > MAX_ARITY) {
+            throw new IllegalArgumentException("Arity must be in [2, " + MAX_ARITY + "]: " + arity);
+        }
+        if (capacity < 1) {
+            capacity = 1;
+        }
+        this.arity = arity;
+        this.root = arity - 1;
+        this.keys = new int[root + capacity];
+        this.handles = new int[root + capacity];
+        this.position = new int[capacity];
+    }
+
+    /**
+     * public int arity()
+     * <p>
+     * Return the number of children per node.
+     */
+    public int arity() {
+        return arity;
+    }
+
+    /**
+     * public boolean empty()
+     * <p>
+     * The method returns true if and only if the heap is empty.
+     */
+    @Override
+    public boolean empty() {
+        return size == 0;
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * public int insert(int key)
+     * <p>
+     * Inserts the key into the heap and returns the handle of its entry.
+     */
+    @Override
+    public int insert(int key) {
+        int end = root + size;
+        int node;
+        if (size < top) {
+            node = handles[end]; // reuse the most recently freed handle
+        } else {
+            ensureCapacity(size + 1);
+            node = top++;
+        }
+        size++;
+        siftUp(end, key, node);
+        return node;
+    }
+
+    /**
+     * public void insertAll(int[] keys)
+     * <p>
+     * Inserts all the given keys, as insertAll(keys, 0, keys.length, null) does.
+     */
+    public void insertAll(int[] keys) {
+        insertAll(keys, 0, keys.length, null);
+    }
+
+    /**
+     * public void insertAll(int[] keys, int offset, int length, int[] handles)
+     * <p>
+     * Inserts keys[offset], ..., keys[offset + length - 1]. The keys are appended after the last entry and the
+     * heap order is restored once, bottom-up in linear time if they are many. If handles is not null,
+     * handles[i] is set to the handle of keys[offset + i].
+     */
+    public void insertAll(int[] keys, int offset, int length, int[] handles) {
+        Objects.checkFromIndexSize(offset, length, keys.length);
+        if (handles != null) {
+            Objects.checkFromIndexSize(0, length, handles.length);
+        }
+        ensureCapacity(top + Math.max(0, length - (top - size)));
+        int first = root + size;
+        for (int i = 0; i < length; i++) {
+            int end = root + size;
+            int node = size < top ? this.handles[end] : top++;
+            this.keys[end] = keys[offset + i];
+            this.handles[end] = node;
+            position[node] = end;
+            size++;
+            if (handles != null) {
+                handles[i] = node;
+            }
+        }
+        restore(first);
+    }
+
+    /**
+     * public int findMin()
+     * <p>
+     * Return the handle of the entry whose key is minimal, or NONE if the heap is empty.
+     */
+    @Override
+    public int findMin() {
+        return size == 0 ? NONE : handles[root];
+    }
+
+    /**
+     * public int deleteMin()
+     * <p>
+     * Delete the entry whose key is minimal and return its handle, or return NONE if the heap is empty.
+     * The key of the deleted entry can be read until the next insert, which may reuse its handle.
+     */
+    @Override
+    public int deleteMin() {
+        if (size == 0) {
+            return NONE;
+        }
+        int node = handles[root];
+        removeAt(root);
+        return node;
+    }
+
+    /**
+     * public int key(int node)
+     * <p>
+     * Return the key of the entry with the given handle.
+     */
+    @Override
+    public int key(int node) {
+        return keys[position[node]];
+    }
+
+    /**
+     * public void decreaseKey(int node, int delta)
+     * <p>
+     * Decreases the key of the entry by delta, sifting it up towards the root.
+     */
+    @Override
+    public void decreaseKey(int node, int delta) {
+        int pos = position[node];
+        siftUp(pos, keys[pos] - delta, node);
+    }
+
+    /**
+     * public void decreaseKeyTo(int node, int newKey)
+     * <p>
+     * Set the key of the entry to newKey, which must not be larger than its current key.
+     */
+    @Override
+    public void decreaseKeyTo(int node, int newKey) {
+        int pos = position[node];
+        if (newKey > keys[pos]) {
+            throw new IllegalArgumentException("New key " + newKey + " is larger than the current key " + keys[pos]);
+        }
+        siftUp(pos, newKey, node);
+    }
+
+    /**
+     * public void delete(int node)
+     * <p>
+     * Deletes the entry with the given handle from the heap.
+     */
+    @Override
+    public void delete(int node) {
+        removeAt(position[node]);
+    }
+
+    /**
+     * public int meld (DaryHeap heap2)
+     * <p>
+     * Meld the heap with heap2. The entries of heap2 are copied into this heap and heap2 is left empty.
+     * A handle h issued by heap2 refers to the entry h + offset of this heap, where offset is the returned value.
+     * Takes time linear in the size of both heaps if heap2 is large, and O(log n) per entry of heap2 otherwise.
+     */
+    @Override
+    public int meld(DaryHeap heap2) {
+        if (heap2 == this) {
+            return 0;
+        }
+        if (heap2.empty()) {
+            heap2.clear();
+            return top;
+        }
+        if (empty()) {
+            // Nothing worth keeping, start over so heap2's handles stay unchanged
+            top = 0;
+        }
+
+        int offset = top;
+        int count = heap2.top;
+        int live = heap2.size;
+        ensureCapacity(offset + count);
+
+        // Entries of heap2 go right after ours, free handles of both heaps after those
+        int end = root + size;
+        int freed = top - size;
+        System.arraycopy(keys, end, keys, end + live, freed);
+        System.arraycopy(handles, end, handles, end + live, freed);
+        System.arraycopy(heap2.keys, heap2.root, keys, end, live);
+        System.arraycopy(heap2.keys, heap2.root + live, keys, end + live + freed, count - live);
+        copyHandles(heap2.handles, heap2.root, end, live, offset);
+        copyHandles(heap2.handles, heap2.root + live, end + live + freed, count - live, offset);
+        int tail = root + offset + count;
+        for (int pos = end; pos < tail; pos++) {
+            position[handles[pos]] = pos;
+        }
+        top = offset + count;
+        size += live;
+        restore(end);
+        heap2.clear();
+        return offset;
+    }
+
+    /**
+     * Return the handle of the entry at an index in [0, size()), in heap order, to walk all entries.
+     * @param index index of the entry
+     */
+    int handleAt(int index) {
+        return handles[root + index];
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Remove the entry at a position: the last entry takes its place, and the freed handle and its key move to
+     * the position after the new last entry, where insert reuses them.
+     * @param pos position of the entry to remove
+     */
+    private void removeAt(int pos) {
+        int last = root + size - 1;
+        int node = handles[pos];
+        int key = keys[pos];
+        size--;
+        if (pos != last) {
+            int lastKey = keys[last];
+            int lastNode = handles[last];
+            keys[last] = key;
+            handles[last] = node;
+            position[node] = last;
+            if (pos > root && lastKey < keys[parentOf(pos)]) {
+                siftUp(pos, lastKey, lastNode);
+            } else {
+                siftDown(pos, lastKey, lastNode);
+            }
+        }
+    }
+
+    /**
+     * Move a hole up from a position until the key fits, then place the entry there.
+     * @param pos position of the hole
+     * @param key key of the entry
+     * @param node handle of the entry
+     */
+    private void siftUp(int pos, int key, int node) {
+        while (pos > root) {
+            int parent = parentOf(pos);
+            int parentKey = keys[parent];
+            if (parentKey <= key) {
+                break;
+            }
+            keys[pos] = parentKey;
+            int parentNode = handles[parent];
+            handles[pos] = parentNode;
+            position[parentNode] = pos;
+            pos = parent;
+            siftUpLevels++;
+        }
+        keys[pos] = key;
+        handles[pos] = node;
+        position[node] = pos;
+    }
+
+    /**
+     * Move a hole down from a position until the key fits, then place the entry there.
+     * @param pos position of the hole
+     * @param key key of the entry
+     * @param node handle of the entry
+     */
+    private void siftDown(int pos, int key, int node) {
+        int end = root + size;
+        while (true) {
+            int first = firstChildOf(pos);
+            if (first >= end) {
+                break;
+            }
+            int last = Math.min(first + arity, end);
+            int best = first;
+            int bestKey = keys[first];
+            for (int c = first + 1; c < last; c++) {
+                int k = keys[c];
+                if (k < bestKey) {
+                    best = c;
+                    bestKey = k;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            keys[pos] = bestKey;
+            int bestNode = handles[best];
+            handles[pos] = bestNode;
+            position[bestNode] = pos;
+            pos = best;
+        }
+        keys[pos] = key;
+        handles[pos] = node;
+        position[node] = pos;
+    }
+
+    /**
+     * Restore the heap order after entries were appended from a position on: by sifting each of them up if they
+     * are few, or bottom-up over the whole heap in linear time otherwise.
+     * @param from position of the first appended entry
+     */
+    private void restore(int from) {
+        int end = root + size;
+        if (end - from <= (size >> 3)) {
+            for (int pos = from; pos < end; pos++) {
+                siftUp(pos, keys[pos], handles[pos]);
+            }
+        } else if (size > 1) {
+            for (int pos = parentOf(end - 1); pos >= root; pos--) {
+                siftDown(pos, keys[pos], handles[pos]);
+            }
+        }
+    }
+
+    /**
+     * Return the position of the parent of a position other than the root.
+     * @param pos position of a child
+     */
+    private int parentOf(int pos) {
+        return pos / arity + root - 1;
+    }
+
+    /**
+     * Return the position of the first child of a position.
+     * @param pos position of a parent
+     */
+    private int firstChildOf(int pos) {
+        return arity * (pos - root + 1);
+    }
+
+    /**
+     * Make sure the arrays can hold the given number of handles.
+     * @param capacity required number of handles
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= position.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, position.length + (position.length >> 1));
+        keys = Arrays.copyOf(keys, root + newCapacity);
+        handles = Arrays.copyOf(handles, root + newCapacity);
+        position = Arrays.copyOf(position, newCapacity);
+    }
+
+    /**
+     * Copy handles from another heap shifting every handle by offset.
+     */
+    private void copyHandles(int[] src, int srcPos, int destPos, int count, int offset) {
+        for (int i = 0; i < count; i++) {
+            handles[destPos + i] = src[srcPos + i] + offset;
+        }
+    }
+
+    /**
+     * Reset the heap to the empty state, forgetting all handles.
+     */
+    private void clear() {
+        size = 0;
+        top = 0;
+    }
+}
@@ -0,0 +1,963 @@
+package fibonacciheap;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * DoubleFibonacciHeap
+ * <p>
+ * FibonacciHeap specialized for double keys, with the same API. Keys are compared as primitives on every path,
+ * so nothing is boxed and no Comparator is called. Keys may be any double except NaN,
+ * which has no place in the order; -0.0 and 0.0 compare as equal keys.
+ * <p>
+ * Link and cut totals are added to FibonacciHeap.totalLinks() and FibonacciHeap.totalCuts().
+ */
+
+public class DoubleFibonacciHeap {
+    private HeapNode min; // never a deleted node
+    private int size; // number of live nodes
+    private int markedCount;
+    private int treesCount;
+
+    private boolean lazyDelete;
+    private double compactionThreshold;
+    private int deadCount; // deleted nodes still linked into the trees
+
+    private HeapNode[] treeArr; // consolidation buckets, all null between calls
+    private int treeArrThreshold; // size at which treeArr becomes too small
+    private HeapNode[] candidates; // binary heap of candidate minima used by pollMin
+
+    private long links;
+    private long cuts;
+    private long cascadingCuts;
+    private int maxCascadeDepth;
+    private long consolidations;
+    private long rootsScanned;
+    private long marksSet;
+
+    /**
+     * Default constructor to initialize an empty heap.
+     */
+    public DoubleFibonacciHeap() {
+        this.min = null;
+        this.size = 0;
+        this.markedCount = 0;
+        this.treesCount = 0;
+        this.treeArr = new HeapNode[0];
+        this.treeArrThreshold = FibonacciHeap.growThreshold(0);
+        this.candidates = new HeapNode[0];
+        this.lazyDelete = false;
+        this.compactionThreshold = 0.5;
+        this.deadCount = 0;
+    }
+
+    /**
+     * public boolean empty()
+     * <p>
+     * precondition: none
+     * <p>
+     * The method returns true if and only if the heap
+     * is empty.
+     */
+    public boolean empty() {
+        return size == 0;
+    }
+
+    /**
+     * public HeapNode insert(double key)
+     * <p>
+     * Creates a node (of type HeapNode) which contains the given key, and inserts it into the heap.
+     * Throws IllegalArgumentException if the key is NaN.
+     */
+    public HeapNode insert(double key) {
+        return insertNode(new HeapNode(key));
+    }
+
+    /**
+     * public IntEntry insert(double key, int value)
+     * <p>
+     * Inserts a node which carries the given int value along with its key.
+     */
+    public IntEntry insert(double key, int value) {
+        return insertNode(new IntEntry(key, value));
+    }
+
+    /**
+     * public LongEntry insert(double key, long value)
+     * <p>
+     * Inserts a node which carries the given long value along with its key.
+     */
+    public LongEntry insert(double key, long value) {
+        return insertNode(new LongEntry(key, value));
+    }
+
+    /**
+     * public &lt;V&gt; Entry&lt;V&gt; insert(double key, V value)
+     * <p>
+     * Inserts a node which carries the given object along with its key.
+     */
+    public <V> Entry<V> insert(double key, V value) {
+        return insertNode(new Entry<>(key, value));
+    }
+
+    /**
+     * public void insertAll(double[] keys)
+     * <p>
+     * Inserts all the given keys, as insertAll(keys, 0, keys.length, null) does.
+     */
+    public void insertAll(double[] keys) {
+        insertAll(keys, 0, keys.length, null);
+    }
+
+    /**
+     * public void insertAll(double[] keys, int offset, int length, HeapNode[] handles)
+     * <p>
+     * Inserts keys[offset], ..., keys[offset + length - 1] as new roots. The new nodes are chained into one list
+     * and spliced into the root list at once, and the minimum is updated after a single scan.
+     * If handles is not null, handles[i] is set to the node holding keys[offset + i].
+     * Throws IllegalArgumentException, leaving the heap unchanged, if one of the keys is NaN.
+     */
+    public void insertAll(double[] keys, int offset, int length, HeapNode[] handles) {
+        Objects.checkFromIndexSize(offset, length, keys.length);
+        if (handles != null) {
+            Objects.checkFromIndexSize(0, length, handles.length);
+        }
+        if (length == 0) {
+            return;
+        }
+
+        // Chain the new nodes into a list of their own
+        HeapNode first = new HeapNode(keys[offset]);
+        HeapNode listMin = first;
+        HeapNode last = first;
+        if (handles != null) {
+            handles[0] = first;
+        }
+        for (int i = 1; i < length; i++) {
+            HeapNode node = new HeapNode(keys[offset + i]);
+            node.prev = last;
+            last.next = node;
+            if (node.key < listMin.key) {
+                listMin = node;
+            }
+            if (handles != null) {
+                handles[i] = node;
+            }
+            last = node;
+        }
+        last.next = first;
+        first.prev = last;
+
+        if (empty()) {
+            min = listMin;
+        } else {
+            concatenate(min, first);
+            if (listMin.key < min.key) {
+                min = listMin;
+            }
+        }
+        size += length;
+        treesCount += length;
+    }
+
+    /**
+     * public HeapNode deleteMin()
+     * <p>
+     * Delete the node containing the minimum key and return it, or return null if the heap is empty.
+     */
+    public HeapNode deleteMin() {
+        if (empty()) {
+            return null;
+        }
+
+        HeapNode oldMin = min;
+        if (oldMin.isMarked()) {
+            // A child of a deleted node keeps its mark as a root
+            oldMin.setMarked(false);
+            markedCount--;
+        }
+        if (min.child != null) {
+            // Set parent pointer of all children to null
+            HeapNode iterator = min.child;
+            do {
+                iterator.parent = null;
+                iterator = iterator.next;
+            } while (iterator != min.child);
+
+            // Add list of children as new roots into the heap
+            concatenate(min, min.child);
+            treesCount += min.rank();
+            oldMin.child = null;
+            oldMin.setRank(0);
+        } else if (min.next == min) {
+            // min is the only node in the heap
+            min = null;
+            size = 0;
+            treesCount = 0;
+            return oldMin;
+        }
+
+        // Arbitrarily choose min's next as new min and fix it when consolidating
+        min = min.next;
+
+        // Remove current minimum from root list
+        removeNodeFromList(oldMin);
+        treesCount--;
+        size--;
+
+        // Start successive-linking
+        if (treesCount > 1 || deadCount > 0) {
+            consolidate();
+        }
+        return oldMin;
+    }
+
+    /**
+     * public int pollMin(int k, double[] out)
+     * <p>
+     * Delete the min(k, size()) nodes with the smallest keys and write their keys to out in ascending order.
+     * Returns the number of deleted nodes. Unlike k calls to deleteMin, successive linking runs at most twice.
+     */
+    public int pollMin(int k, double[] out) {
+        return pollMin(k, out, null);
+    }
+
+    /**
+     * public int pollMin(int k, HeapNode[] out)
+     * <p>
+     * Same as pollMin(int k, double[] out), but writes the deleted nodes themselves.
+     */
+    public int pollMin(int k, HeapNode[] out) {
+        return pollMin(k, null, out);
+    }
+
+    /**
+     * public HeapNode findMin()
+     * <p>
+     * Return the node of the heap whose key is minimal.
+     */
+    public HeapNode findMin() {
+        return min;
+    }
+
+    /**
+     * public void meld (DoubleFibonacciHeap heap2)
+     * <p>
+     * Meld the heap with heap2
+     */
+    public void meld(DoubleFibonacciHeap heap2) {
+        if (empty()) {
+            this.min = heap2.min;
+            this.size = heap2.size;
+            this.markedCount = heap2.markedCount;
+            this.treesCount = heap2.treesCount;
+            this.deadCount = heap2.deadCount;
+            return;
+        }
+
+        if (!heap2.empty()) {
+            // Insert heap2's root list next to this heap's minimum
+            concatenate(this.min, heap2.min);
+
+            // Update minimum pointer if needed
+            if (heap2.min.key < this.min.key) {
+                min = heap2.min;
+            }
+
+            this.size += heap2.size;
+            this.markedCount += heap2.markedCount;
+            this.treesCount += heap2.treesCount;
+            this.deadCount += heap2.deadCount;
+        }
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * public int[] countersRep()
+     * <p>
+     * Return a counters array, where the value of the i-th entry is the number of trees of order i in the heap.
+     */
+    public int[] countersRep() {
+        if (empty()) {
+            return new int[0];
+        }
+
+        int[] arr = new int[FibonacciHeap.maxRank(size + deadCount) + 1];
+        HeapNode iterator = min;
+        do {
+            arr[iterator.rank()]++;
+            iterator = iterator.next;
+        } while (iterator != min);
+        return arr;
+    }
+
+    /**
+     * public void delete(HeapNode x)
+     * <p>
+     * Deletes the node x from the heap.
+     * In lazy delete mode, a node other than the minimum is only marked as deleted in O(1). It stays in its tree
+     * until it surfaces as a root during successive linking, or until compaction.
+     */
+    public void delete(HeapNode x) {
+        if (lazyDelete && x != min) {
+            x.setDead(true);
+            deadCount++;
+            size--;
+            if (deadCount > compactionThreshold * size) {
+                compact();
+            }
+            return;
+        }
+        // Move x to the root list and treat it as the minimum, no matter what its key is
+        if (x.parent != null) {
+            cutAndCascade(x);
+        }
+        min = x;
+        deleteMin();
+    }
+
+    /**
+     * public void setLazyDelete(boolean lazyDelete)
+     * <p>
+     * Turn lazy delete mode on or off. Nodes already marked as deleted are removed lazily either way.
+     */
+    public void setLazyDelete(boolean lazyDelete) {
+        this.lazyDelete = lazyDelete;
+    }
+
+    /**
+     * public void setCompactionThreshold(double fraction)
+     * <p>
+     * Set the fraction of the live nodes the deleted nodes may reach before delete runs compact(). Default: 0.5.
+     */
+    public void setCompactionThreshold(double fraction) {
+        if (!(fraction >= 0)) {
+            throw new IllegalArgumentException("Compaction threshold must be non-negative: " + fraction);
+        }
+        this.compactionThreshold = fraction;
+    }
+
+    /**
+     * public int deadCount()
+     * <p>
+     * Return the number of deleted nodes that are still linked into the heap.
+     */
+    public int deadCount() {
+        return deadCount;
+    }
+
+    /**
+     * public void compact()
+     * <p>
+     * Physically remove all nodes marked as deleted: cut each of them from its parent and drop it during
+     * successive linking.
+     */
+    public void compact() {
+        if (deadCount == 0) {
+            return;
+        }
+
+        // Find the deleted nodes below the roots, using candidates as the traversal stack
+        HeapNode[] dead = new HeapNode[deadCount];
+        int deadFound = 0;
+        int stackSize = 0;
+        HeapNode root = min;
+        do {
+            if (root.child != null) {
+                stackSize = push(root.child, stackSize);
+            }
+            root = root.next;
+        } while (root != min);
+        while (stackSize > 0) {
+            HeapNode first = candidates[--stackSize];
+            candidates[stackSize] = null;
+            HeapNode iterator = first;
+            do {
+                if (iterator.isDead()) {
+                    dead[deadFound++] = iterator;
+                }
+                if (iterator.child != null) {
+                    stackSize = push(iterator.child, stackSize);
+                }
+                iterator = iterator.next;
+            } while (iterator != first);
+        }
+
+        // Cutting turns them into roots, which successive linking removes
+        for (int i = 0; i < deadFound; i++) {
+            if (dead[i].parent != null) {
+                cutAndCascade(dead[i]);
+            }
+        }
+        consolidate();
+    }
+
+    /**
+     * public void decreaseKey(HeapNode x, double delta)
+     * <p>
+     * The function decreases the key of the node x by delta. The structure of the heap should be updated
+     * to reflect this chage (for example, the cascading cuts procedure should be applied if needed).
+     * Throws IllegalArgumentException, leaving x unchanged, if the new key would be NaN.
+     */
+    public void decreaseKey(HeapNode x, double delta) {
+        x.key = checkKey(x.key - delta);
+        if (x.parent != null && x.key < x.parent.key) {
+            cutAndCascade(x);
+        }
+        if (x.key < min.key) {
+            min = x;
+        }
+    }
+
+    /**
+     * public int potential()
+     * <p>
+     * This function returns the current potential of the heap, which is:
+     * Potential = #trees + 2*#marked
+     * The potential equals to the number of trees in the heap plus twice the number of marked nodes in the heap.
+     */
+    public int potential() {
+        return treesCount + 2*markedCount;
+    }
+
+    /**
+     * public HeapCounters counters()
+     * <p>
+     * Return a snapshot of the operation counters of this heap.
+     */
+    public HeapCounters counters() {
+        return new HeapCounters(links, cuts, cascadingCuts, maxCascadeDepth, consolidations, rootsScanned,
+                marksSet);
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Insert a new node into the root list next to the current minimum.
+     * @param node node to insert
+     * @return the inserted node
+     */
+    private <N extends HeapNode> N insertNode(N node) {
+        if (empty()) {
+            min = node;
+        } else {
+            insertNodeToList(node, min);
+
+            // Update minimum pointer if needed
+            if (node.key < min.key) {
+                min = node;
+            }
+        }
+        size++;
+        treesCount++;
+        return node;
+    }
+
+    /**
+     * Delete the nodes with the smallest keys, writing them (or their keys) to the given array.
+     * <p>
+     * The smallest nodes of a heap-ordered forest are found best-first: starting from the roots, repeatedly take
+     * the smallest candidate and add its children as candidates. The taken nodes are closed under parent, so the
+     * candidates left over at the end are exactly the trees that remain, and become the new root list.
+     * @param k maximal number of nodes to delete
+     * @param keysOut array receiving the keys, or null
+     * @param nodesOut array receiving the nodes if keysOut is null
+     * @return number of deleted nodes
+     */
+    private int pollMin(int k, double[] keysOut, HeapNode[] nodesOut) {
+        int count = Math.min(Math.max(k, 0), size);
+        Objects.checkFromIndexSize(0, count, keysOut != null ? keysOut.length : nodesOut.length);
+        if (count == 0) {
+            return 0;
+        }
+
+        // Fewer roots to seed the candidates with, none of them deleted
+        if (treesCount > 1 || deadCount > 0) {
+            consolidate();
+        }
+
+        int candidatesCount = 0;
+        HeapNode root = min;
+        do {
+            candidatesCount = pushCandidate(root, candidatesCount);
+            root = root.next;
+        } while (root != min);
+
+        for (int i = 0; i < count; ) {
+            HeapNode node = candidates[0];
+            candidatesCount = popCandidate(candidatesCount);
+            if (node.child != null) {
+                HeapNode iterator = node.child;
+                do {
+                    HeapNode next = iterator.next;
+                    candidatesCount = pushCandidate(iterator, candidatesCount);
+                    iterator = next;
+                } while (iterator != node.child);
+            }
+
+            // Detach the deleted node from the heap
+            if (node.isMarked()) {
+                node.setMarked(false);
+                markedCount--;
+            }
+            node.parent = null;
+            node.child = null;
+            node.setRank(0);
+            node.next = node;
+            node.prev = node;
+            if (node.isDead()) {
+                deadCount--;
+                continue;
+            }
+            if (keysOut != null) {
+                keysOut[i] = node.key;
+            } else {
+                nodesOut[i] = node;
+            }
+            i++;
+        }
+
+        // The remaining candidates are the new roots
+        size -= count;
+        treesCount = candidatesCount;
+        min = null;
+        for (int i = 0; i < candidatesCount; i++) {
+            HeapNode node = candidates[i];
+            candidates[i] = null;
+            node.parent = null;
+            if (min == null) {
+                min = node;
+                node.next = node;
+                node.prev = node;
+            } else {
+                insertNodeToList(node, min);
+            }
+        }
+        if (treesCount > 0) {
+            consolidate();
+        }
+        return count;
+    }
+
+    /**
+     * Push a node onto candidates used as a plain stack.
+     * @return new stack size
+     */
+    private int push(HeapNode node, int count) {
+        if (count == candidates.length) {
+            candidates = Arrays.copyOf(candidates, Math.max(16, count * 2));
+        }
+        candidates[count] = node;
+        return count + 1;
+    }
+
+    /**
+     * Add a node to the binary heap of candidates.
+     * @return new number of candidates
+     */
+    private int pushCandidate(HeapNode node, int count) {
+        if (count == candidates.length) {
+            candidates = Arrays.copyOf(candidates, Math.max(16, count * 2));
+        }
+        int i = count;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (candidates[parent].key <= node.key) {
+                break;
+            }
+            candidates[i] = candidates[parent];
+            i = parent;
+        }
+        candidates[i] = node;
+        return count + 1;
+    }
+
+    /**
+     * Remove the smallest node from the binary heap of candidates.
+     * @return new number of candidates
+     */
+    private int popCandidate(int count) {
+        count--;
+        HeapNode last = candidates[count];
+        candidates[count] = null;
+        if (count == 0) {
+            return 0;
+        }
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= count) {
+                break;
+            }
+            if (child + 1 < count && candidates[child + 1].key < candidates[child].key) {
+                child++;
+            }
+            if (last.key <= candidates[child].key) {
+                break;
+            }
+            candidates[i] = candidates[child];
+            i = child;
+        }
+        candidates[i] = last;
+        return count;
+    }
+
+    /**
+     * Cut a non-root node from its parent and apply cascading cuts above it.
+     * @param node root of the sub-tree
+     */
+    private void cutAndCascade(HeapNode node) {
+        HeapNode parent = node.parent;
+        cut(node);
+        int depth = cascadingCut(parent);
+        cascadingCuts += depth;
+        if (depth > maxCascadeDepth) {
+            maxCascadeDepth = depth;
+        }
+        FibonacciHeap.TOTAL_CUTS.add(1 + depth);
+    }
+
+    /**
+     * Recursively cut sub-trees from the tree until we reach the root of the whole tree or an unmarked node.
+     * @param node root of the sub-tree
+     * @return number of cuts made
+     */
+    private int cascadingCut(HeapNode node) {
+        HeapNode parent = node.parent;
+        if (parent != null) {
+            if (!node.isMarked()) {
+                node.setMarked(true);
+                markedCount++;
+                marksSet++;
+            } else {
+                cut(node);
+                return 1 + cascadingCut(parent);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Cuts sub-tree starting at the given node from its parent and adds it to root list.
+     * @param node root of the sub-tree
+     */
+    private void cut(HeapNode node) {
+        node.parent.setRank(node.parent.rank() - 1);
+        if (node.parent.child == node) {
+            if (node.next == node) {
+                node.parent.child = null;
+            } else {
+                node.parent.child = node.next;
+            }
+        }
+        removeNodeFromList(node);
+        insertNodeToList(node, min);
+        treesCount++;
+        if (node.isMarked()) {
+            markedCount--;
+        }
+        node.parent = null;
+        node.setMarked(false);
+
+        cuts++;
+    }
+
+    /**
+     * Insert a node to the root list next to another node.
+     * @param node1 node to be inserted
+     * @param node2 node1 will be inserted next to this node
+     */
+    private void insertNodeToList(HeapNode node1, HeapNode node2) {
+        node1.next = node2.next;
+        node1.prev = node2;
+        node2.next.prev = node1;
+        node2.next = node1;
+    }
+
+    /**
+     * Removes a node from the linked list it's a member of.
+     * Removed node's next and prev pointers are set to itself.
+     * @param node node to be removed
+     */
+    private void removeNodeFromList(HeapNode node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.next = node;
+        node.prev = node;
+    }
+
+    /**
+     * Successively links trees in the heap.
+     * Pre-condition: the heap is not empty
+     * Post-condition: the heap contains one tree of each rank at most.
+     * Post-condition: minimum pointer is updated to the correct node.
+     */
+    private void consolidate() {
+        if (deadCount > 0) {
+            removeDeadRoots();
+            if (min == null) {
+                return;
+            }
+        }
+        if (size + deadCount >= treeArrThreshold) {
+            int maxTreeRank = FibonacciHeap.maxRank(size + deadCount);
+            treeArr = new HeapNode[maxTreeRank + 1];
+            treeArrThreshold = FibonacciHeap.growThreshold(treeArr.length);
+        }
+        HeapNode[] treeArr = this.treeArr;
+        long linksBefore = links;
+
+        // Consolidate heap trees according to the algorithm shown in class
+        int range = treesCount;
+        consolidations++;
+        rootsScanned += range;
+        HeapNode iterator = min;
+        for(int i = 0; i < range; i++) {
+            HeapNode root1 = iterator;
+            iterator = iterator.next;
+            int rank = root1.rank();
+            while (treeArr[rank] != null) {
+                HeapNode root2 = treeArr[rank]; // we found another tree with the same rank
+
+                // Make sure root1 has the smaller key between the roots
+                if (root2.key < root1.key) {
+                    HeapNode temp = root2;
+                    root2 = root1;
+                    root1 = temp;
+                }
+
+                link(root1, root2);
+                treeArr[rank] = null;
+                rank++;
+            }
+            treeArr[rank] = root1;
+        }
+
+        // Recreate root list with the consolidated trees, leaving the buckets empty for the next call
+        min = null;
+        for (int i = 0; i < treeArr.length; i++) {
+            HeapNode root = treeArr[i];
+            if (root != null) {
+                treeArr[i] = null;
+                if (min == null) {
+                    min = root;
+                    root.next = root;
+                    root.prev = root;
+                } else {
+                    insertNodeToList(root, min);
+                    if (root.key < min.key) {
+                        min = root;
+                    }
+                }
+            }
+        }
+        FibonacciHeap.TOTAL_LINKS.add(links - linksBefore);
+    }
+
+    /**
+     * Remove the deleted nodes from the root list, moving their children up to the root list until no root
+     * is deleted. Sets min to null if no root remains.
+     * Post-condition: min is a root, but not necessarily the minimal one.
+     */
+    private void removeDeadRoots() {
+        int remaining = treesCount;
+        HeapNode iterator = min;
+        while (remaining > 0) {
+            HeapNode root = iterator;
+            remaining--;
+            if (!root.isDead()) {
+                iterator = root.next;
+                continue;
+            }
+
+            if (root.child != null) {
+                // Children become roots right after the deleted node, so they are visited next
+                HeapNode child = root.child;
+                do {
+                    child.parent = null;
+                    child = child.next;
+                } while (child != root.child);
+                concatenate(root, root.child);
+                remaining += root.rank();
+                treesCount += root.rank();
+            }
+            iterator = root.next;
+            if (iterator == root) {
+                // It was the last root
+                iterator = null;
+            }
+            removeNodeFromList(root);
+            if (root.isMarked()) {
+                root.setMarked(false);
+                markedCount--;
+            }
+            root.child = null;
+            root.setRank(0);
+            treesCount--;
+            deadCount--;
+            if (min == root) {
+                min = iterator;
+            }
+        }
+    }
+
+    /**
+     * Return the given key if it can be ordered, throw IllegalArgumentException if it is NaN.
+     * @param key key to check
+     */
+    private static double checkKey(double key) {
+        if (Double.isNaN(key)) {
+            throw new IllegalArgumentException("Key must not be NaN");
+        }
+        return key;
+    }
+
+    /**
+     * Link two trees. Tree whose root's key is bigger will be a child of the other tree.
+     * @param root1 first root
+     * @param root2 second root
+     */
+    private void link(HeapNode root1, HeapNode root2) {
+        removeNodeFromList(root2);
+        if (root1.child != null) {
+            insertNodeToList(root2, root1.child);
+        } else {
+            root1.child = root2;
+        }
+        root1.setRank(root1.rank() + 1);
+        root2.parent = root1;
+        if (root2.isMarked()) {
+            root2.setMarked(false);
+            markedCount--;
+        }
+
+        treesCount--;
+        links++;
+    }
+
+    /**
+     * Insert node2's root list into node1's root list.
+     * @param node1 root from the list that is being melded into
+     * @param node2 root from the list being melded into node1's list
+     */
+    private void concatenate(HeapNode node1, HeapNode node2) {
+        node2.prev.next = node1.next;
+        node1.next.prev = node2.prev;
+        node2.prev = node1;
+        node1.next = node2;
+    }
+
+    /**
+     * public static class HeapNode
+     * <p>
+     * A node of the heap, holding a double key. Its rank and its flags share one byte, as in FibonacciHeap.HeapNode.
+     */
+    public static class HeapNode {
+        private static final int RANK_MASK = 0x3F;
+        private static final int MARKED = 0x40;
+        private static final int DEAD = 0x80; // deleted in lazy delete mode, not yet removed
+
+        public double key;
+        private byte state; // rank, MARKED and DEAD
+        HeapNode child;
+        HeapNode next;
+        HeapNode prev;
+        HeapNode parent;
+
+        public HeapNode(double key) {
+            this.key = checkKey(key);
+            this.next = this;
+            this.prev = this;
+        }
+
+        public double getKey() {
+            return key;
+        }
+
+        int rank() {
+            return state & RANK_MASK;
+        }
+
+        void setRank(int rank) {
+            state = (byte)((state & ~RANK_MASK) | rank);
+        }
+
+        boolean isMarked() {
+            return (state & MARKED) != 0;
+        }
+
+        void setMarked(boolean marked) {
+            state = (byte)(marked ? state | MARKED : state & ~MARKED);
+        }
+
+        boolean isDead() {
+            return (state & DEAD) != 0;
+        }
+
+        void setDead(boolean dead) {
+            state = (byte)(dead ? state | DEAD : state & ~DEAD);
+        }
+    }
+
+    /**
+     * public static class IntEntry
+     * <p>
+     * A node carrying an int value along with its key.
+     */
+    public static class IntEntry extends HeapNode {
+        public int value;
+
+        public IntEntry(double key, int value) {
+            super(key);
+            this.value = value;
+        }
+
+        public int getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * public static class LongEntry
+     * <p>
+     * A node carrying a long value along with its key.
+     */
+    public static class LongEntry extends HeapNode {
+        public long value;
+
+        public LongEntry(double key, long value) {
+            super(key);
+            this.value = value;
+        }
+
+        public long getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * public static class Entry&lt;V&gt;
+     * <p>
+     * A node carrying an object along with its key.
+     */
+    public static class Entry<V> extends HeapNode {
+        public V value;
+
+        public Entry(double key, V value) {
+            super(key);
+            this.value = value;
+        }
+
+        public V getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,567 @@
+package fibonacciheap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * DurableHeap
+ * <p>
+ * A FibonacciHeap over integers that survives crashes: every operation is appended to a write-ahead log as a
+ * compact binary record, and checkpoint() saves a HeapSnapshot after which the log starts over. On opening,
+ * the heap reads the latest snapshot of its directory and replays the log written after it.
+ * <p>
+ * Records are not forced to the disk one by one. They collect in a batch, which is written and forced with a
+ * single force() once it is windowBytes long or, at the next operation, once its first record is windowMicros
+ * old: the group commit. An operation is durable once its batch is forced, which sync() does at once; with a
+ * window of 0 every operation is forced before it returns. The heap has no thread of its own, so a batch waits
+ * for the next operation or sync() call, however old it is: call sync() when going idle.
+ * <p>
+ * An operation is logged before it is applied. If forcing its batch fails, the operation throws
+ * UncheckedIOException and leaves the heap unchanged; the records before it stay in the pending batch, which the
+ * next sync() writes again over the failed attempt.
+ * <p>
+ * Entries are addressed by int ids issued by this heap, which insert records carry so that decreaseKey and
+ * delete records replay onto the same entries. Ids are reused once their entry is deleted.
+ * <p>
+ * The directory holds heap-&lt;g&gt;.snapshot and heap-&lt;g&gt;.wal for the generation g of the last
+ * checkpoint. A log file starts with the magic 0x4648574C ("FHWL") and the version 1, little-endian, followed by
+ * batches, each of them a length and a CRC-32 of its records, then the records: a 1-byte operation followed
+ * by 4-byte little-endian operands, insert(id, key), decreaseKey(id, delta), delete(id) and deleteMin(id).
+ * Replay reads the log one batch at a time, so a log of any length can be replayed, and stops at the first batch
+ * that is cut short or fails its CRC, which only a crash while it was written can leave, and drops it from the
+ * log. Creating and deleting the files of a checkpoint forces the directory, so that a crash cannot lose them.
+ */
+
+public class DurableHeap implements AutoCloseable {
+    /**
+     * Id value meaning "no entry".
+     */
+    public static final int NONE = -1;
+
+    private static final int MAGIC = 0x4648574C;
+    private static final int VERSION = 1;
+    private static final int LOG_HEADER = 8;
+    private static final int BATCH_HEADER = 8; // length and CRC-32 of the records
+    private static final int MAX_RECORD = 9;
+
+    private static final byte INSERT = 1;
+    private static final byte DECREASE_KEY = 2;
+    private static final byte DELETE = 3;
+    private static final byte DELETE_MIN = 4;
+
+    private final Path directory;
+    private final long windowNanos;
+    private final int windowBytes;
+
+    private FibonacciHeap heap = new FibonacciHeap();
+    private FibonacciHeap.IntEntry[] entries = new FibonacciHeap.IntEntry[16]; // by id; value is NONE once deleted
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int top; // ids in [0, top) have been handed out at least once
+
+    private long generation;
+    private FileChannel log;
+    private final ByteBuffer batch; // batch header, then the records not yet written
+    private final CRC32 crc = new CRC32();
+    private long batchStart; // System.nanoTime() of the first record of the batch
+
+    private long records;
+    private long commits;
+
+    /**
+     * Open the durable heap of a directory, creating the directory if needed: read its latest snapshot, replay
+     * its log, and go on appending to the log.
+     * Throws IllegalArgumentException if a window is negative, or windowBytes is 0.
+     * @param directory directory holding the snapshot and the log
+     * @param windowMicros age of a batch, in microseconds, after which the next operation forces it
+     * @param windowBytes length of the records of a batch after which it is forced
+     */
+    public DurableHeap(Path directory, long windowMicros, int windowBytes) throws IOException {
+        if (windowMicros < 0 || windowBytes < 1) {
+            throw new IllegalArgumentException("Invalid group commit window: " + windowMicros + " us, " + windowBytes
+                    + " bytes");
+        }
+        this.directory = directory;
+        this.windowNanos = windowMicros * 1000;
+        this.windowBytes = windowBytes;
+        this.batch = ByteBuffer.allocateDirect(BATCH_HEADER + windowBytes + MAX_RECORD);
+        this.batch.order(ByteOrder.LITTLE_ENDIAN).position(BATCH_HEADER);
+
+        Files.createDirectories(directory);
+        generation = latestGeneration();
+        if (generation >= 0 && Files.exists(snapshotFile(generation))) {
+            load(HeapSnapshot.read(snapshotFile(generation)));
+        }
+        if (generation < 0) {
+            generation = 0;
+        }
+        Path logFile = logFile(generation);
+        log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (log.size() < LOG_HEADER) {
+            // New, or cut short by a crash right after a checkpoint created it
+            log.truncate(0);
+            writeLogHeader();
+            HeapSnapshot.forceDirectory(directory);
+        } else {
+            replay();
+        }
+        rebuildFreeIds();
+
+        if (generation > 0) {
+            // Left over if the last checkpoint crashed before deleting them
+            Files.deleteIfExists(logFile(generation - 1));
+            Files.deleteIfExists(snapshotFile(generation - 1));
+        }
+    }
+
+    /**
+     * public boolean empty()
+     * <p>
+     * The method returns true if and only if the heap is empty.
+     */
+    public boolean empty() {
+        return heap.empty();
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap.
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * public int insert(int key)
+     * <p>
+     * Inserts the key into the heap and returns the id of its entry.
+     */
+    public int insert(int key) {
+        int id = allocateId();
+        try {
+            append(INSERT, id, key);
+        } catch (UncheckedIOException e) {
+            freeIds[freeCount++] = id;
+            throw e;
+        }
+        entries[id] = heap.insert(key, id);
+        return id;
+    }
+
+    /**
+     * public int findMin()
+     * <p>
+     * Return the id of the entry whose key is minimal, or NONE if the heap is empty.
+     */
+    public int findMin() {
+        return heap.empty() ? NONE : ((FibonacciHeap.IntEntry)heap.findMin()).value;
+    }
+
+    /**
+     * public int deleteMin()
+     * <p>
+     * Delete the entry whose key is minimal and return its id, or return NONE if the heap is empty.
+     * The key of the deleted entry can be read until the next insert, which may reuse its id.
+     */
+    public int deleteMin() {
+        if (heap.empty()) {
+            return NONE;
+        }
+        int id = ((FibonacciHeap.IntEntry)heap.findMin()).value;
+        append(DELETE_MIN, id, 0);
+        heap.deleteMin();
+        retire(id);
+        return id;
+    }
+
+    /**
+     * public boolean contains(int id)
+     * <p>
+     * Return true if and only if the id names an entry of the heap.
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < top && entries[id] != null && entries[id].value == id;
+    }
+
+    /**
+     * public int key(int id)
+     * <p>
+     * Return the key of the entry with the given id.
+     */
+    public int key(int id) {
+        return entries[id].key;
+    }
+
+    /**
+     * public void decreaseKey(int id, int delta)
+     * <p>
+     * Decreases the key of the entry by delta. Throws IllegalArgumentException if the id is not in the heap.
+     */
+    public void decreaseKey(int id, int delta) {
+        FibonacciHeap.IntEntry node = live(id);
+        append(DECREASE_KEY, id, delta);
+        heap.decreaseKey(node, delta);
+    }
+
+    /**
+     * public void delete(int id)
+     * <p>
+     * Deletes the entry with the given id from the heap. Throws IllegalArgumentException if the id is not in
+     * the heap.
+     */
+    public void delete(int id) {
+        FibonacciHeap.IntEntry node = live(id);
+        append(DELETE, id, 0);
+        heap.delete(node);
+        retire(id);
+    }
+
+    /**
+     * public void sync()
+     * <p>
+     * Write and force the pending batch, making every operation so far durable. If that fails, the log is cut
+     * back to where the batch started and the batch stays pending, so that sync can be called again.
+     */
+    public void sync() throws IOException {
+        int end = batch.position();
+        if (end == BATCH_HEADER) {
+            return;
+        }
+        long start = log.position();
+        batch.putInt(0, end - BATCH_HEADER);
+        crc.reset();
+        crc.update(batch.duplicate().position(BATCH_HEADER).limit(end));
+        batch.putInt(4, (int)crc.getValue());
+        batch.flip();
+        try {
+            while (batch.hasRemaining()) {
+                log.write(batch);
+            }
+            log.force(false);
+        } catch (IOException e) {
+            batch.limit(batch.capacity()).position(end);
+            try {
+                log.truncate(start);
+                log.position(start);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        batch.clear();
+        batch.position(BATCH_HEADER);
+        commits++;
+    }
+
+    /**
+     * public void checkpoint()
+     * <p>
+     * Save a snapshot of the heap and start a new, empty log after it, then delete the previous snapshot and
+     * log. Keeps replay short; how often to call it is a tradeoff between the time spent saving and the length
+     * of the log to replay after a crash.
+     */
+    public void checkpoint() throws IOException {
+        sync();
+        long next = generation + 1;
+        HeapSnapshot.write(heap, snapshotFile(next));
+        FileChannel nextLog = FileChannel.open(logFile(next), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        log.close();
+        log = nextLog;
+        writeLogHeader();
+        HeapSnapshot.forceDirectory(directory);
+        Files.deleteIfExists(logFile(generation));
+        Files.deleteIfExists(snapshotFile(generation));
+        generation = next;
+    }
+
+    /**
+     * public void close()
+     * <p>
+     * Sync the pending batch and close the log.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            log.close();
+        }
+    }
+
+    /**
+     * public long records()
+     * <p>
+     * Return the number of records appended to the log since the heap was opened.
+     */
+    public long records() {
+        return records;
+    }
+
+    /**
+     * public long commits()
+     * <p>
+     * Return the number of batches forced to the disk since the heap was opened.
+     */
+    public long commits() {
+        return commits;
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Append a record to the batch, and force the batch if its window is over. If forcing fails, the record is
+     * taken out of the batch again and UncheckedIOException is thrown, for the operation not to be applied.
+     * @param op operation of the record
+     * @param id id of the entry
+     * @param operand key or delta for insert and decreaseKey records
+     */
+    private void append(byte op, int id, int operand) {
+        int start = batch.position();
+        if (start == BATCH_HEADER) {
+            batchStart = System.nanoTime();
+        }
+        batch.put(op).putInt(id);
+        if (op == INSERT || op == DECREASE_KEY) {
+            batch.putInt(operand);
+        }
+        if (batch.position() - BATCH_HEADER >= windowBytes || System.nanoTime() - batchStart >= windowNanos) {
+            try {
+                sync();
+            } catch (IOException e) {
+                batch.position(start);
+                throw new UncheckedIOException(e);
+            }
+        }
+        records++;
+    }
+
+    /**
+     * Apply the complete batches of the log to the heap, and cut off a batch torn by a crash.
+     */
+    private void replay() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Math.max(LOG_HEADER, BATCH_HEADER)).order(ByteOrder.LITTLE_ENDIAN);
+        header.limit(LOG_HEADER);
+        if (!readFully(header, 0) || header.getInt() != MAGIC) {
+            throw new IOException(logFile(generation) + " is not a heap log");
+        }
+        int version = header.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException(logFile(generation) + " has version " + version + ", this reader supports up to "
+                    + VERSION);
+        }
+
+        long size = log.size();
+        long end = LOG_HEADER;
+        ByteBuffer records = ByteBuffer.allocate(BATCH_HEADER + windowBytes + MAX_RECORD)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        while (true) {
+            header.clear().limit(BATCH_HEADER);
+            if (!readFully(header, end)) {
+                break;
+            }
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || length > size - end - BATCH_HEADER) {
+                break;
+            }
+            if (length > records.capacity()) {
+                // Written with a larger window
+                records = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            records.clear().limit(length);
+            if (!readFully(records, end + BATCH_HEADER)) {
+                break;
+            }
+            crc.reset();
+            crc.update(records.duplicate());
+            if ((int)crc.getValue() != checksum) {
+                break;
+            }
+            while (records.hasRemaining()) {
+                apply(records);
+            }
+            end += BATCH_HEADER + length;
+        }
+        if (end < size) {
+            log.truncate(end);
+        }
+        log.position(end);
+    }
+
+    /**
+     * Fill a cleared buffer from the log, starting at a position of the log, then flip it.
+     * @param buffer buffer at position 0
+     * @param position position in the log of the first byte to read
+     * @return false if the log ends before the buffer is full
+     */
+    private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (log.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    /**
+     * Apply one record of the log to the heap.
+     * @param records records of a batch, positioned at a record
+     */
+    private void apply(ByteBuffer records) throws IOException {
+        byte op = records.get();
+        int id = records.getInt();
+        switch (op) {
+            case INSERT:
+                ensureIdCapacity(id + 1);
+                top = Math.max(top, id + 1);
+                entries[id] = heap.insert(records.getInt(), id);
+                break;
+            case DECREASE_KEY:
+                heap.decreaseKey(replayed(id), records.getInt());
+                break;
+            case DELETE:
+            case DELETE_MIN:
+                // The minimum when deleteMin ran; delete takes the same path for it
+                heap.delete(replayed(id));
+                entries[id].value = NONE;
+                break;
+            default:
+                throw new IOException(logFile(generation) + " holds an unknown operation " + op);
+        }
+    }
+
+    /**
+     * Return the live entry of an id named by a replayed record, or throw IOException if there is none.
+     * @param id id of the entry
+     */
+    private FibonacciHeap.IntEntry replayed(int id) throws IOException {
+        if (!contains(id)) {
+            throw new IOException(logFile(generation) + " names id " + id + ", which is not in the heap");
+        }
+        return entries[id];
+    }
+
+    /**
+     * Take over the entries of a restored snapshot.
+     * @param restored heap of IntEntry nodes whose values are their ids
+     */
+    private void load(FibonacciHeap restored) {
+        heap = restored;
+        FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[heap.size() + heap.deadCount()];
+        int count = heap.collectNodes(nodes);
+        for (int i = 0; i < count; i++) {
+            FibonacciHeap.IntEntry node = (FibonacciHeap.IntEntry)nodes[i];
+            ensureIdCapacity(node.value + 1);
+            top = Math.max(top, node.value + 1);
+            entries[node.value] = node;
+        }
+    }
+
+    /**
+     * Start the log file with its magic and version.
+     */
+    private void writeLogHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            log.write(header);
+        }
+        log.force(true);
+    }
+
+    /**
+     * Return the generation of the latest snapshot or log in the directory, or -1 if there is none.
+     */
+    private long latestGeneration() throws IOException {
+        long latest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "heap-*.{snapshot,wal}")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    latest = Math.max(latest, Long.parseLong(name.substring(5, name.lastIndexOf('.'))));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        return latest;
+    }
+
+    private Path snapshotFile(long generation) {
+        return directory.resolve("heap-" + generation + ".snapshot");
+    }
+
+    private Path logFile(long generation) {
+        return directory.resolve("heap-" + generation + ".wal");
+    }
+
+    /**
+     * Return the node of an id in the heap, or throw IllegalArgumentException.
+     * @param id id of the entry
+     */
+    private FibonacciHeap.IntEntry live(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Id " + id + " is not in the heap");
+        }
+        return entries[id];
+    }
+
+    /**
+     * Mark the entry of an id as deleted and return the id to the free ids.
+     * @param id id of a deleted entry
+     */
+    private void retire(int id) {
+        entries[id].value = NONE;
+        freeIds[freeCount++] = id;
+    }
+
+    /**
+     * Take an id from the free ids, or a fresh one if there are none.
+     * @return the id
+     */
+    private int allocateId() {
+        if (freeCount > 0) {
+            return freeIds[--freeCount];
+        }
+        ensureIdCapacity(top + 1);
+        return top++;
+    }
+
+    /**
+     * Collect the ids below top whose entries are not in the heap, after loading and replaying.
+     */
+    private void rebuildFreeIds() {
+        freeCount = 0;
+        for (int id = top - 1; id >= 0; id--) {
+            if (!contains(id)) {
+                freeIds[freeCount++] = id;
+            }
+        }
+    }
+
+    /**
+     * Make sure the arrays indexed by id can hold the given number of ids.
+     * @param capacity required number of ids
+     */
+    private void ensureIdCapacity(int capacity) {
+        if (capacity <= entries.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, entries.length + (entries.length >> 1));
+        entries = Arrays.copyOf(entries, newCapacity);
+        freeIds = Arrays.copyOf(freeIds, newCapacity);
+    }
+}
@@ -0,0 +1,1844 @@
+package fibonacciheap;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FibonacciHeap
+ * <p>
+ * An implementation of fibonacci heap over integers.
+ */
+
+public class FibonacciHeap implements AddressableHeap<FibonacciHeap.HeapNode, FibonacciHeap> {
+    /**
+     * What an insert into a heap at its capacity does. The minimum is the worst of the kept keys, so a heap with
+     * a capacity of k keeps the k largest keys of a stream; negate the keys to keep the k smallest.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Reject every insert until a node is deleted.
+         */
+        REJECT,
+
+        /**
+         * Evict the minimum for a larger key, and reject keys not larger than the minimum, so the oldest of
+         * equal keys are kept.
+         */
+        EVICT_MIN,
+
+        /**
+         * Evict the minimum for a key not smaller than it, so the newest of equal keys are kept.
+         */
+        EVICT_MIN_OR_EQUAL
+    }
+
+    /**
+     * MIN_TREE_SIZE[r] is the smallest number of nodes a tree of rank r can have, which is the fibonacci
+     * number F(r+2). A heap of n nodes has no tree of rank r with MIN_TREE_SIZE[r] > n.
+     */
+    private static final int[] MIN_TREE_SIZE = minTreeSizes();
+
+    // Totals of all heaps. Every heap adds its own counts once per operation, and LongAdder spreads
+    // concurrent adds over separate cells, so heaps on different threads do not contend.
+    static final LongAdder TOTAL_CUTS = new LongAdder();
+    static final LongAdder TOTAL_LINKS = new LongAdder();
+
+    private HeapNode min; // never a deleted node
+    private int size; // number of live nodes
+    private int markedCount;
+    private int treesCount;
+
+    private boolean lazyDelete;
+    private double compactionThreshold;
+    private int deadCount; // deleted nodes still linked into the trees
+
+    private HeapNode[] treeArr; // consolidation buckets, all null between calls
+    private int treeArrThreshold; // size at which treeArr becomes too small
+    private HeapNode[] candidates; // binary heap of candidate minima used by pollMin
+
+    private HeapInstrumentation instrumentation;
+
+    private int capacity; // Integer.MAX_VALUE when unbounded
+    private EvictionPolicy evictionPolicy;
+    private long evictions;
+    private long rejections;
+
+    private HeapNode pool; // removed nodes kept for reuse, chained through next
+    private int poolSize;
+    private int poolCapacity;
+
+    private boolean boundedLatency;
+    private HeapNode[] cutRoots; // roots made by cuts, not yet linked into treeArr in bounded latency mode
+    private int cutRootsCount;
+
+    private long links;
+    private long cuts;
+    private long cascadingCuts;
+    private int maxCascadeDepth;
+    private long consolidations;
+    private long rootsScanned;
+    private long marksSet;
+
+    /**
+     * Default constructor to initialize an empty heap.
+     */
+    public FibonacciHeap() {
+        this.min = null;
+        this.size = 0;
+        this.markedCount = 0;
+        this.treesCount = 0;
+        this.treeArr = new HeapNode[0];
+        this.treeArrThreshold = growThreshold(0);
+        this.candidates = new HeapNode[0];
+        this.instrumentation = HeapInstrumentation.NONE;
+        this.boundedLatency = false;
+        this.cutRoots = new HeapNode[0];
+        this.cutRootsCount = 0;
+        this.lazyDelete = false;
+        this.compactionThreshold = 0.5;
+        this.deadCount = 0;
+        this.pool = null;
+        this.poolSize = 0;
+        this.poolCapacity = 0;
+        this.capacity = Integer.MAX_VALUE;
+        this.evictionPolicy = EvictionPolicy.EVICT_MIN;
+    }
+
+    /**
+     * public boolean empty()
+     * <p>
+     * precondition: none
+     * <p>
+     * The method returns true if and only if the heap
+     * is empty.
+     */
+    public boolean empty() {
+        return size == 0;
+    }
+
+    /**
+     * public HeapNode insert(int key)
+     * <p>
+     * Creates a node (of type HeapNode) which contains the given key, and inserts it into the heap.
+     * If the node pool is enabled, a recycled node is reused when there is one.
+     * If the heap is at its capacity, the eviction policy decides whether the minimum is evicted to make room;
+     * if it is not, nothing changes and null is returned.
+     */
+    public HeapNode insert(int key) {
+        if (size >= capacity && !makeRoom(key)) {
+            return null;
+        }
+        return insertNode(newNode(key));
+    }
+
+    /**
+     * public IntEntry insert(int key, int value)
+     * <p>
+     * Inserts a node which carries the given int value along with its key, or returns null as insert(key) does.
+     */
+    public IntEntry insert(int key, int value) {
+        if (size >= capacity && !makeRoom(key)) {
+            return null;
+        }
+        return insertNode(new IntEntry(key, value));
+    }
+
+    /**
+     * public LongEntry insert(int key, long value)
+     * <p>
+     * Inserts a node which carries the given long value along with its key, or returns null as insert(key) does.
+     */
+    public LongEntry insert(int key, long value) {
+        if (size >= capacity && !makeRoom(key)) {
+            return null;
+        }
+        return insertNode(new LongEntry(key, value));
+    }
+
+    /**
+     * public &lt;V&gt; Entry&lt;V&gt; insert(int key, V value)
+     * <p>
+     * Inserts a node which carries the given object along with its key, or returns null as insert(key) does.
+     */
+    public <V> Entry<V> insert(int key, V value) {
+        if (size >= capacity && !makeRoom(key)) {
+            return null;
+        }
+        return insertNode(new Entry<>(key, value));
+    }
+
+    /**
+     * public void insertAll(int[] keys)
+     * <p>
+     * Inserts all the given keys, as insertAll(keys, 0, keys.length, null) does.
+     */
+    public void insertAll(int[] keys) {
+        insertAll(keys, 0, keys.length, null);
+    }
+
+    /**
+     * public void insertAll(int[] keys, int offset, int length, HeapNode[] handles)
+     * <p>
+     * Inserts keys[offset], ..., keys[offset + length - 1] as new roots. The new nodes are chained into one list
+     * and spliced into the root list at once, and the minimum is updated after a single scan.
+     * If handles is not null, handles[i] is set to the node holding keys[offset + i]. If the heap has a capacity,
+     * the keys are inserted one by one as insert(key) does, and handles[i] is null for a rejected key.
+     */
+    public void insertAll(int[] keys, int offset, int length, HeapNode[] handles) {
+        Objects.checkFromIndexSize(offset, length, keys.length);
+        if (handles != null) {
+            Objects.checkFromIndexSize(0, length, handles.length);
+        }
+        if (length == 0) {
+            return;
+        }
+        if (capacity != Integer.MAX_VALUE) {
+            for (int i = 0; i < length; i++) {
+                HeapNode node = insert(keys[offset + i]);
+                if (handles != null) {
+                    handles[i] = node;
+                }
+            }
+            return;
+        }
+
+        // Chain the new nodes into a list of their own
+        HeapNode first = newNode(keys[offset]);
+        HeapNode listMin = first;
+        HeapNode last = first;
+        if (handles != null) {
+            handles[0] = first;
+        }
+        for (int i = 1; i < length; i++) {
+            HeapNode node = newNode(keys[offset + i]);
+            node.prev = last;
+            last.next = node;
+            if (node.key < listMin.key) {
+                listMin = node;
+            }
+            if (handles != null) {
+                handles[i] = node;
+            }
+            last = node;
+        }
+        last.next = first;
+        first.prev = last;
+
+        if (empty()) {
+            min = listMin;
+        } else {
+            concatenate(min, first);
+            if (listMin.key < min.key) {
+                min = listMin;
+            }
+        }
+        size += length;
+        treesCount += length;
+        if (boundedLatency) {
+            addRoots(first, length);
+        }
+    }
+
+    /**
+     * public HeapNode deleteMin()
+     * <p>
+     * Delete the node containing the minimum key and return it, or return null if the heap is empty.
+     * If the node pool is enabled, the key of the returned node can be read until the next insert, which may
+     * reuse the node.
+     */
+    public HeapNode deleteMin() {
+        long start = instrumentation.start();
+        HeapNode oldMin = removeMin();
+        if (oldMin != null) {
+            release(oldMin);
+        }
+        instrumentation.deleteMin(start);
+        return oldMin;
+    }
+
+    /**
+     * public HeapNode replaceMin(int key)
+     * <p>
+     * Give the node containing the minimum key the new key, which may be larger, and return that node, or return
+     * null if the heap is empty. This is deleteMin followed by an insert of the same node, without releasing or
+     * allocating a node: a key not larger than the minimum is written in place in O(1), and a larger one moves
+     * the children of the node to the root list and takes a single consolidation, in which the node itself
+     * takes part. The node keeps its value and its handle stays valid.
+     */
+    public HeapNode replaceMin(int key) {
+        if (empty()) {
+            return null;
+        }
+
+        HeapNode node = min;
+        if (key <= node.key) {
+            // Still a root no larger than any other node
+            node.key = key;
+            return node;
+        }
+        long start = instrumentation.start();
+        if (boundedLatency) {
+            // Take the node out and put it back, linking as insert does
+            removeRoot(node);
+            node.key = key;
+            if (min == null) {
+                min = node;
+            } else {
+                insertNodeToList(node, min);
+                if (key < min.key) {
+                    min = node;
+                }
+            }
+            size++;
+            treesCount++;
+            addRoot(node);
+            instrumentation.deleteMin(start);
+            return node;
+        }
+        if (node.isMarked()) {
+            node.setMarked(false);
+            markedCount--;
+        }
+        if (node.child != null) {
+            promoteChildren(node);
+        }
+        node.key = key;
+
+        // The node stays in the root list, min until consolidating finds the new one
+        if (treesCount > 1 || deadCount > 0) {
+            consolidate();
+        }
+        instrumentation.deleteMin(start);
+        return node;
+    }
+
+    /**
+     * Delete the node containing the minimum key and return it, or return null if the heap is empty.
+     */
+    private HeapNode removeMin() {
+        if (empty()) {
+            return null;
+        }
+
+        HeapNode oldMin = min;
+        if (boundedLatency) {
+            removeRoot(oldMin);
+            return oldMin;
+        }
+        if (oldMin.isMarked()) {
+            // A child of a deleted node keeps its mark as a root
+            oldMin.setMarked(false);
+            markedCount--;
+        }
+        if (min.child != null) {
+            promoteChildren(oldMin);
+        } else if (min.next == min) {
+            // min is the only node in the heap
+            min = null;
+            size = 0;
+            treesCount = 0;
+            return oldMin;
+        }
+
+        // Arbitrarily choose min's next as new min and fix it when consolidating
+        min = min.next;
+
+        // Remove current minimum from root list
+        removeNodeFromList(oldMin);
+        treesCount--;
+        size--;
+
+        // Start successive-linking
+        if (treesCount > 1 || deadCount > 0) {
+            consolidate();
+        }
+        return oldMin;
+    }
+
+    /**
+     * Move the children of a root into the root list.
+     * @param root root with at least one child
+     */
+    private void promoteChildren(HeapNode root) {
+        // Set parent pointer of all children to null
+        HeapNode iterator = root.child;
+        do {
+            iterator.parent = null;
+            iterator = iterator.next;
+        } while (iterator != root.child);
+
+        // Add list of children as new roots into the heap
+        concatenate(root, root.child);
+        treesCount += root.rank();
+        root.child = null;
+        root.setRank(0);
+    }
+
+    /**
+     * public int pollMin(int k, int[] out)
+     * <p>
+     * Delete the min(k, size()) nodes with the smallest keys and write their keys to out in ascending order.
+     * Returns the number of deleted nodes. Unlike k calls to deleteMin, successive linking runs at most twice.
+     */
+    public int pollMin(int k, int[] out) {
+        return pollMin(k, out, null);
+    }
+
+    /**
+     * public int pollMin(int k, HeapNode[] out)
+     * <p>
+     * Same as pollMin(int k, int[] out), but writes the deleted nodes themselves. If the node pool is enabled,
+     * their keys can be read until the next insert, as with deleteMin.
+     */
+    public int pollMin(int k, HeapNode[] out) {
+        return pollMin(k, null, out);
+    }
+
+    /**
+     * public HeapNode findMin()
+     * <p>
+     * Return the node of the heap whose key is minimal.
+     */
+    public HeapNode findMin() {
+        return min;
+    }
+
+    /**
+     * public void meld (FibonacciHeap heap2)
+     * <p>
+     * Meld the heap with heap2
+     */
+    public void meld(FibonacciHeap heap2) {
+        long start = instrumentation.start();
+        meldRoots(heap2);
+        instrumentation.meld(start);
+        trimToCapacity();
+    }
+
+    /**
+     * Move the trees of heap2 into this heap.
+     * @param heap2 heap to meld into this one
+     */
+    private void meldRoots(FibonacciHeap heap2) {
+        if (boundedLatency && heap2.deadCount > 0) {
+            heap2.compact();
+        }
+        if (empty()) {
+            this.min = heap2.min;
+            this.size = heap2.size;
+            this.markedCount = heap2.markedCount;
+            this.treesCount = heap2.treesCount;
+            this.deadCount = heap2.deadCount;
+            if (boundedLatency && min != null) {
+                addRoots(min, treesCount);
+            }
+            return;
+        }
+
+        if (!heap2.empty()) {
+            // Insert heap2's root list next to this heap's minimum
+            concatenate(this.min, heap2.min);
+
+            // Update minimum pointer if needed
+            if (heap2.min.key < this.min.key) {
+                min = heap2.min;
+            }
+
+            this.size += heap2.size;
+            this.markedCount += heap2.markedCount;
+            this.treesCount += heap2.treesCount;
+            this.deadCount += heap2.deadCount;
+            if (boundedLatency) {
+                addRoots(heap2.min, heap2.treesCount);
+            }
+        }
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * public int treesCount()
+     * <p>
+     * Return the number of trees in the heap.
+     */
+    public int treesCount() {
+        return treesCount;
+    }
+
+    /**
+     * public int markedCount()
+     * <p>
+     * Return the number of marked nodes in the heap.
+     */
+    public int markedCount() {
+        return markedCount;
+    }
+
+    /**
+     * public boolean contains(HeapNode x)
+     * <p>
+     * Return true if and only if x is a live node of this heap. Walks up to the root of x and then along the root
+     * list, so it takes O(log n + #trees) time; meant for checks at API boundaries and in tests, not for loops.
+     */
+    public boolean contains(HeapNode x) {
+        if (x == null || min == null || x.isDead()) {
+            return false;
+        }
+        HeapNode root = x;
+        while (root.parent != null) {
+            root = root.parent;
+        }
+        HeapNode iterator = min;
+        do {
+            if (iterator == root) {
+                return true;
+            }
+            iterator = iterator.next;
+        } while (iterator != min);
+        return false;
+    }
+
+    /**
+     * public int[] countersRep()
+     * <p>
+     * Return a counters array, where the value of the i-th entry is the number of trees of order i in the heap.
+     */
+    public int[] countersRep() {
+        if (empty()) {
+            return new int[0];
+        }
+
+        int[] arr = new int[maxRank(size + deadCount) + 1];
+        HeapNode iterator = min;
+        do {
+            arr[iterator.rank()]++;
+            iterator = iterator.next;
+        } while (iterator != min);
+        return arr;
+    }
+
+    /**
+     * public void delete(HeapNode x)
+     * <p>
+     * Deletes the node x from the heap. If the node pool is enabled, x may be reused by a later insert.
+     * In lazy delete mode, a node other than the minimum is only marked as deleted in O(1). It stays in its tree
+     * until it surfaces as a root during successive linking, or until compaction. Lazy delete mode has no effect
+     * in bounded latency mode.
+     */
+    public void delete(HeapNode x) {
+        if (boundedLatency) {
+            if (x.parent != null) {
+                cutAndCascade(x);
+                // x was cut first; link the others but leave x out of treeArr
+                cutRoots[0] = cutRoots[--cutRootsCount];
+                cutRoots[cutRootsCount] = null;
+                addCutRoots();
+            }
+            removeRoot(x);
+            release(x);
+            return;
+        }
+        if (lazyDelete && x != min) {
+            x.setDead(true);
+            deadCount++;
+            size--;
+            if (deadCount > compactionThreshold * size) {
+                compact();
+            }
+            return;
+        }
+        // Move x to the root list and treat it as the minimum, no matter what its key is
+        if (x.parent != null) {
+            cutAndCascade(x);
+        }
+        min = x;
+        removeMin();
+        release(x);
+    }
+
+    /**
+     * public void delete(HeapNode x, int generation)
+     * <p>
+     * Deletes the node x from the heap, as delete(x) does, if generation is still the generation of x.
+     * Throws IllegalArgumentException, and leaves the heap unchanged, if x was deleted since.
+     */
+    public void delete(HeapNode x, int generation) {
+        checkGeneration(x, generation);
+        delete(x);
+    }
+
+    /**
+     * public void setCapacity(int capacity, EvictionPolicy policy)
+     * <p>
+     * Bound the heap to capacity nodes: once it is full, an insert either evicts the minimum first or is
+     * rejected, as the policy says. A rejected insert costs one comparison with the minimum, and changes
+     * nothing. Nodes beyond the capacity are evicted at once, and after a meld. Pass Integer.MAX_VALUE to make
+     * the heap unbounded again, which it is by default. Throws IllegalArgumentException if capacity is not
+     * positive.
+     */
+    public void setCapacity(int capacity, EvictionPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.evictionPolicy = Objects.requireNonNull(policy);
+        this.capacity = capacity;
+        trimToCapacity();
+    }
+
+    /**
+     * public int capacity()
+     * <p>
+     * Return the capacity of the heap, or Integer.MAX_VALUE if it is unbounded.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * public long evictions()
+     * <p>
+     * Return the number of nodes evicted to respect the capacity of the heap.
+     */
+    public long evictions() {
+        return evictions;
+    }
+
+    /**
+     * public long rejections()
+     * <p>
+     * Return the number of inserts rejected because the heap was at its capacity.
+     */
+    public long rejections() {
+        return rejections;
+    }
+
+    /**
+     * public void setNodePoolCapacity(int capacity)
+     * <p>
+     * Keep up to capacity removed nodes of type HeapNode, and reuse them in insert(int key) and insertAll
+     * instead of allocating new ones. The pool is off (capacity 0) by default. Throws IllegalArgumentException
+     * if capacity is negative.
+     * <p>
+     * With the pool on, a node must not be used once it has been deleted, since it may already hold another
+     * key. Callers that may hold on to deleted nodes should remember x.generation() on insert and pass it to
+     * decreaseKey(x, generation, delta) and delete(x, generation), which reject stale nodes.
+     */
+    public void setNodePoolCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Pool capacity must not be negative: " + capacity);
+        }
+        poolCapacity = capacity;
+        while (poolSize > capacity) {
+            HeapNode node = pool;
+            pool = node.next;
+            node.next = node;
+            poolSize--;
+        }
+    }
+
+    /**
+     * public int pooledNodes()
+     * <p>
+     * Return the number of removed nodes waiting in the node pool to be reused.
+     */
+    public int pooledNodes() {
+        return poolSize;
+    }
+
+    /**
+     * public void setLazyDelete(boolean lazyDelete)
+     * <p>
+     * Turn lazy delete mode on or off. Nodes already marked as deleted are removed lazily either way.
+     */
+    public void setLazyDelete(boolean lazyDelete) {
+        this.lazyDelete = lazyDelete;
+    }
+
+    /**
+     * public void setBoundedLatency(boolean boundedLatency)
+     * <p>
+     * Turn bounded latency mode on or off. In bounded latency mode the heap never holds two trees of the same
+     * rank: every new root (inserted, cut, or a child of a deleted node) is linked with the tree of its rank right
+     * away, carrying on to the next rank as in binary addition. Each root costs at most O(log n) links, so
+     * deleteMin does O(log n) links per child and scans O(log n) roots, instead of a consolidation over all the
+     * roots left by earlier inserts. Amortized costs are a bit higher, and cascading cuts stay amortized.
+     * Turning the mode on consolidates the heap once.
+     */
+    public void setBoundedLatency(boolean boundedLatency) {
+        if (boundedLatency == this.boundedLatency) {
+            return;
+        }
+        if (boundedLatency) {
+            if (deadCount > 0) {
+                compact();
+            } else if (treesCount > 1) {
+                consolidate();
+            }
+            this.boundedLatency = true;
+            if (!empty()) {
+                HeapNode root = min;
+                do {
+                    treeArr = ensureRank(treeArr, root.rank());
+                    treeArr[root.rank()] = root;
+                    root = root.next;
+                } while (root != min);
+            }
+        } else {
+            this.boundedLatency = false;
+            Arrays.fill(treeArr, null);
+        }
+    }
+
+    /**
+     * public void setCompactionThreshold(double fraction)
+     * <p>
+     * Set the fraction of the live nodes the deleted nodes may reach before delete runs compact(). Default: 0.5.
+     */
+    public void setCompactionThreshold(double fraction) {
+        if (!(fraction >= 0)) {
+            throw new IllegalArgumentException("Compaction threshold must be non-negative: " + fraction);
+        }
+        this.compactionThreshold = fraction;
+    }
+
+    /**
+     * public int deadCount()
+     * <p>
+     * Return the number of deleted nodes that are still linked into the heap.
+     */
+    public int deadCount() {
+        return deadCount;
+    }
+
+    /**
+     * public void compact()
+     * <p>
+     * Physically remove all nodes marked as deleted: cut each of them from its parent and drop it during
+     * successive linking.
+     */
+    public void compact() {
+        if (deadCount == 0) {
+            return;
+        }
+
+        // Find the deleted nodes below the roots, using candidates as the traversal stack
+        HeapNode[] dead = new HeapNode[deadCount];
+        int deadFound = 0;
+        int stackSize = 0;
+        HeapNode root = min;
+        do {
+            if (root.child != null) {
+                stackSize = push(root.child, stackSize);
+            }
+            root = root.next;
+        } while (root != min);
+        while (stackSize > 0) {
+            HeapNode first = candidates[--stackSize];
+            candidates[stackSize] = null;
+            HeapNode iterator = first;
+            do {
+                if (iterator.isDead()) {
+                    dead[deadFound++] = iterator;
+                }
+                if (iterator.child != null) {
+                    stackSize = push(iterator.child, stackSize);
+                }
+                iterator = iterator.next;
+            } while (iterator != first);
+        }
+
+        // Cutting turns them into roots, which successive linking removes
+        for (int i = 0; i < deadFound; i++) {
+            if (dead[i].parent != null) {
+                cutAndCascade(dead[i]);
+            }
+        }
+        consolidate();
+    }
+
+    /**
+     * public void decreaseKey(HeapNode x, int delta)
+     * <p>
+     * The function decreases the key of the node x by delta. The structure of the heap should be updated
+     * to reflect this chage (for example, the cascading cuts procedure should be applied if needed).
+     */
+    public void decreaseKey(HeapNode x, int delta) {
+        long start = instrumentation.start();
+        x.key -= delta;
+        if (x.parent != null && x.key < x.parent.key) {
+            cutAndCascade(x);
+            if (boundedLatency) {
+                addCutRoots();
+            }
+        }
+        if (x.key < min.key) {
+            min = x;
+        }
+        instrumentation.decreaseKey(start);
+    }
+
+    /**
+     * public void decreaseKey(HeapNode x, int generation, int delta)
+     * <p>
+     * Decreases the key of the node x by delta, as decreaseKey(x, delta) does, if generation is still the
+     * generation of x. Throws IllegalArgumentException, and leaves the heap unchanged, if x was deleted since.
+     */
+    public void decreaseKey(HeapNode x, int generation, int delta) {
+        checkGeneration(x, generation);
+        decreaseKey(x, delta);
+    }
+
+    /**
+     * public void setInstrumentation(HeapInstrumentation instrumentation)
+     * <p>
+     * Set the hooks called around insert, deleteMin, decreaseKey, meld, consolidation and cascading cuts,
+     * e.g. a RecordingInstrumentation. HeapInstrumentation.NONE, the default, turns instrumentation off.
+     */
+    public void setInstrumentation(HeapInstrumentation instrumentation) {
+        this.instrumentation = Objects.requireNonNull(instrumentation);
+    }
+
+    /**
+     * public int potential()
+     * <p>
+     * This function returns the current potential of the heap, which is:
+     * Potential = #trees + 2*#marked
+     * The potential equals to the number of trees in the heap plus twice the number of marked nodes in the heap.
+     */
+    public int potential() {
+        return treesCount + 2*markedCount;
+    }
+
+    /**
+     * public HeapCounters counters()
+     * <p>
+     * Return a snapshot of the operation counters of this heap.
+     */
+    public HeapCounters counters() {
+        return new HeapCounters(links, cuts, cascadingCuts, maxCascadeDepth, consolidations, rootsScanned,
+                marksSet);
+    }
+
+    /**
+     * public static long totalLinks()
+     * <p>
+     * This static function returns the total number of link operations made by all heaps during the run-time of
+     * the program.
+     * A link operation is the operation which gets as input two trees of the same rank, and generates a tree of
+     * rank bigger by one, by hanging the tree which has larger value in its root on the tree which has smaller value
+     * in its root.
+     */
+    public static long totalLinks() {
+        return TOTAL_LINKS.sum();
+    }
+
+    /**
+     * public static long totalCuts()
+     * <p>
+     * This static function returns the total number of cut operations made by all heaps during the run-time of
+     * the program.
+     * A cut operation is the operation which diconnects a subtree from its parent (during decreaseKey/delete methods).
+     */
+    public static long totalCuts() {
+        return TOTAL_CUTS.sum();
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Insert new nodes as roots with a single splice into the root list, as insertAll does.
+     * @param nodes new nodes, each a lone node not yet in any heap
+     * @param length number of nodes to insert from the start of the array
+     */
+    void insertNodes(HeapNode[] nodes, int length) {
+        if (length == 0) {
+            return;
+        }
+
+        // Chain the new nodes into a list of their own
+        HeapNode first = nodes[0];
+        HeapNode listMin = first;
+        HeapNode last = first;
+        for (int i = 1; i < length; i++) {
+            HeapNode node = nodes[i];
+            node.prev = last;
+            last.next = node;
+            if (node.key < listMin.key) {
+                listMin = node;
+            }
+            last = node;
+        }
+        last.next = first;
+        first.prev = last;
+
+        if (empty()) {
+            min = listMin;
+        } else {
+            concatenate(min, first);
+            if (listMin.key < min.key) {
+                min = listMin;
+            }
+        }
+        size += length;
+        treesCount += length;
+        if (boundedLatency) {
+            addRoots(first, length);
+        }
+    }
+
+    /**
+     * Copy the live nodes of the heap into an array, roots first and then level by level, without changing
+     * the heap. The array doubles as the queue of the walk, so nothing is allocated.
+     * @param out array of length at least size() + deadCount()
+     * @return number of live nodes copied, i.e. size()
+     */
+    int collectNodes(HeapNode[] out) {
+        int count = collectTrees(out);
+        int live = 0;
+        for (int i = 0; i < count; i++) {
+            HeapNode node = out[i];
+            out[i] = null;
+            if (!node.isDead()) {
+                out[live++] = node;
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Copy all the nodes of the heap into an array, deleted ones included, in the order of collectNodes: the
+     * roots from the minimum on, then the children of each copied node from its child pointer on. The rank of
+     * each node is its number of children, so the order and the ranks alone determine the shape of the trees.
+     * @param out array of length at least size() + deadCount()
+     * @return number of nodes copied, i.e. size() + deadCount()
+     */
+    int collectTrees(HeapNode[] out) {
+        if (empty()) {
+            return 0;
+        }
+        int count = 0;
+        HeapNode root = min;
+        do {
+            out[count++] = root;
+            root = root.next;
+        } while (root != min);
+        for (int i = 0; i < count; i++) {
+            HeapNode first = out[i].child;
+            if (first != null) {
+                HeapNode child = first;
+                do {
+                    out[count++] = child;
+                    child = child.next;
+                } while (child != first);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Rebuild the trees of an empty heap from nodes in the order of collectTrees, whose ranks and flags are
+     * already set, and take over the given counters. A count of 0 with 0 trees only restores the counters.
+     * Throws IllegalArgumentException, and leaves the heap empty, if the ranks do not describe a forest of count
+     * nodes with a live root.
+     * @param nodes lone nodes in the order of collectTrees
+     * @param count number of nodes
+     * @param roots number of trees
+     * @param counters operation counters of the heap the nodes come from
+     */
+    void restoreTrees(HeapNode[] nodes, int count, int roots, HeapCounters counters) {
+        if (!empty() || deadCount != 0) {
+            throw new IllegalStateException("Trees can only be restored into an empty heap");
+        }
+        if (count == 0 && roots == 0) {
+            restoreCounters(counters);
+            return;
+        }
+        if (roots < 1 || roots > count) {
+            throw new IllegalArgumentException(roots + " trees for " + count + " nodes");
+        }
+        int next = roots;
+        int dead = 0;
+        int marked = 0;
+        for (int i = 0; i < count; i++) {
+            HeapNode node = nodes[i];
+            int rank = node.rank();
+            if (rank > count - next) {
+                throw new IllegalArgumentException("Node " + i + " of rank " + rank + " has too few children");
+            }
+            if (rank > 0) {
+                node.child = nodes[next];
+                linkSiblings(nodes, next, rank, node);
+                next += rank;
+            }
+            if (node.isDead()) {
+                dead++;
+            }
+            if (node.isMarked()) {
+                marked++;
+            }
+        }
+        if (next != count) {
+            throw new IllegalArgumentException((count - next) + " nodes belong to no tree");
+        }
+        linkSiblings(nodes, 0, roots, null);
+
+        HeapNode first = null;
+        for (int i = 0; i < roots; i++) {
+            if (!nodes[i].isDead() && (first == null || nodes[i].key < first.key)) {
+                first = nodes[i];
+            }
+        }
+        if (first == null) {
+            throw new IllegalArgumentException("Every root is deleted");
+        }
+        min = first;
+        size = count - dead;
+        deadCount = dead;
+        treesCount = roots;
+        markedCount = marked;
+        restoreCounters(counters);
+    }
+
+    /**
+     * Take over the operation counters of another heap.
+     * @param counters operation counters to copy
+     */
+    private void restoreCounters(HeapCounters counters) {
+        links = counters.links();
+        cuts = counters.cuts();
+        cascadingCuts = counters.cascadingCuts();
+        maxCascadeDepth = counters.maxCascadeDepth();
+        consolidations = counters.consolidations();
+        rootsScanned = counters.rootsScanned();
+        marksSet = counters.marksSet();
+    }
+
+    /**
+     * Chain consecutive nodes of an array into a circular list of siblings with the given parent.
+     * @param nodes array of nodes
+     * @param from index of the first sibling
+     * @param length number of siblings
+     * @param parent parent of the siblings, or null for roots
+     */
+    private static void linkSiblings(HeapNode[] nodes, int from, int length, HeapNode parent) {
+        HeapNode last = nodes[from + length - 1];
+        for (int i = from; i < from + length; i++) {
+            HeapNode node = nodes[i];
+            node.parent = parent;
+            node.prev = last;
+            last.next = node;
+            last = node;
+        }
+    }
+
+    /**
+     * Insert a new node into the root list next to the current minimum.
+     * @param node node to insert
+     * @return the inserted node
+     */
+    <N extends HeapNode> N insertNode(N node) {
+        long start = instrumentation.start();
+        if (empty()) {
+            min = node;
+        } else {
+            insertNodeToList(node, min);
+
+            // Update minimum pointer if needed
+            if (node.key < min.key) {
+                min = node;
+            }
+        }
+        size++;
+        treesCount++;
+        if (boundedLatency) {
+            addRoot(node);
+        }
+        instrumentation.insert(start);
+        return node;
+    }
+
+    /**
+     * Delete the nodes with the smallest keys, writing them (or their keys) to the given array.
+     * <p>
+     * The smallest nodes of a heap-ordered forest are found best-first: starting from the roots, repeatedly take
+     * the smallest candidate and add its children as candidates. The taken nodes are closed under parent, so the
+     * candidates left over at the end are exactly the trees that remain, and become the new root list.
+     * @param k maximal number of nodes to delete
+     * @param keysOut array receiving the keys, or null
+     * @param nodesOut array receiving the nodes if keysOut is null
+     * @return number of deleted nodes
+     */
+    private int pollMin(int k, int[] keysOut, HeapNode[] nodesOut) {
+        int count = Math.min(Math.max(k, 0), size);
+        Objects.checkFromIndexSize(0, count, keysOut != null ? keysOut.length : nodesOut.length);
+        if (count == 0) {
+            return 0;
+        }
+        if (boundedLatency) {
+            // Keep every operation bounded, rather than rebuilding treeArr from the remaining candidates
+            for (int i = 0; i < count; i++) {
+                HeapNode node = removeMin();
+                if (keysOut != null) {
+                    keysOut[i] = node.key;
+                } else {
+                    nodesOut[i] = node;
+                }
+                release(node);
+            }
+            return count;
+        }
+
+        // Fewer roots to seed the candidates with, none of them deleted
+        if (treesCount > 1 || deadCount > 0) {
+            consolidate();
+        }
+
+        int candidatesCount = 0;
+        HeapNode root = min;
+        do {
+            candidatesCount = pushCandidate(root, candidatesCount);
+            root = root.next;
+        } while (root != min);
+
+        for (int i = 0; i < count; ) {
+            HeapNode node = candidates[0];
+            candidatesCount = popCandidate(candidatesCount);
+            if (node.child != null) {
+                HeapNode iterator = node.child;
+                do {
+                    HeapNode next = iterator.next;
+                    candidatesCount = pushCandidate(iterator, candidatesCount);
+                    iterator = next;
+                } while (iterator != node.child);
+            }
+
+            // Detach the deleted node from the heap
+            if (node.isMarked()) {
+                node.setMarked(false);
+                markedCount--;
+            }
+            node.parent = null;
+            node.child = null;
+            node.setRank(0);
+            node.next = node;
+            node.prev = node;
+            if (node.isDead()) {
+                deadCount--;
+                release(node);
+                continue;
+            }
+            if (keysOut != null) {
+                keysOut[i] = node.key;
+            } else {
+                nodesOut[i] = node;
+            }
+            release(node);
+            i++;
+        }
+
+        // The remaining candidates are the new roots
+        size -= count;
+        treesCount = candidatesCount;
+        min = null;
+        for (int i = 0; i < candidatesCount; i++) {
+            HeapNode node = candidates[i];
+            candidates[i] = null;
+            node.parent = null;
+            if (min == null) {
+                min = node;
+                node.next = node;
+                node.prev = node;
+            } else {
+                insertNodeToList(node, min);
+            }
+        }
+        if (treesCount > 0) {
+            consolidate();
+        }
+        return count;
+    }
+
+    /**
+     * Push a node onto candidates used as a plain stack.
+     * @return new stack size
+     */
+    private int push(HeapNode node, int count) {
+        if (count == candidates.length) {
+            candidates = Arrays.copyOf(candidates, Math.max(16, count * 2));
+        }
+        candidates[count] = node;
+        return count + 1;
+    }
+
+    /**
+     * Add a node to the binary heap of candidates.
+     * @return new number of candidates
+     */
+    private int pushCandidate(HeapNode node, int count) {
+        if (count == candidates.length) {
+            candidates = Arrays.copyOf(candidates, Math.max(16, count * 2));
+        }
+        int i = count;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (candidates[parent].key <= node.key) {
+                break;
+            }
+            candidates[i] = candidates[parent];
+            i = parent;
+        }
+        candidates[i] = node;
+        return count + 1;
+    }
+
+    /**
+     * Remove the smallest node from the binary heap of candidates.
+     * @return new number of candidates
+     */
+    private int popCandidate(int count) {
+        count--;
+        HeapNode last = candidates[count];
+        candidates[count] = null;
+        if (count == 0) {
+            return 0;
+        }
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= count) {
+                break;
+            }
+            if (child + 1 < count && candidates[child + 1].key < candidates[child].key) {
+                child++;
+            }
+            if (last.key <= candidates[child].key) {
+                break;
+            }
+            candidates[i] = candidates[child];
+            i = child;
+        }
+        candidates[i] = last;
+        return count;
+    }
+
+    /**
+     * Cut a non-root node from its parent and apply cascading cuts above it.
+     * @param node root of the sub-tree
+     */
+    private void cutAndCascade(HeapNode node) {
+        HeapNode parent = node.parent;
+        cut(node);
+        int depth = cascadingCut(parent);
+        instrumentation.cascade(depth);
+        cascadingCuts += depth;
+        if (depth > maxCascadeDepth) {
+            maxCascadeDepth = depth;
+        }
+        TOTAL_CUTS.add(1 + depth);
+    }
+
+    /**
+     * Recursively cut sub-trees from the tree until we reach the root of the whole tree or an unmarked node.
+     * @param node root of the sub-tree
+     * @return number of cuts made
+     */
+    private int cascadingCut(HeapNode node) {
+        HeapNode parent = node.parent;
+        if (parent != null) {
+            if (!node.isMarked()) {
+                node.setMarked(true);
+                markedCount++;
+                marksSet++;
+            } else {
+                cut(node);
+                return 1 + cascadingCut(parent);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Cuts sub-tree starting at the given node from its parent and adds it to root list.
+     * @param node root of the sub-tree
+     */
+    private void cut(HeapNode node) {
+        HeapNode parent = node.parent;
+        // In bounded latency mode a root's bucket is its rank, so a root losing a child must move
+        boolean rootMoves = boundedLatency && parent.parent == null && treeArr[parent.rank()] == parent;
+        if (rootMoves) {
+            treeArr[parent.rank()] = null;
+        }
+        node.parent.setRank(node.parent.rank() - 1);
+        if (node.parent.child == node) {
+            if (node.next == node) {
+                node.parent.child = null;
+            } else {
+                node.parent.child = node.next;
+            }
+        }
+        removeNodeFromList(node);
+        insertNodeToList(node, min);
+        treesCount++;
+        if (node.isMarked()) {
+            markedCount--;
+        }
+        node.parent = null;
+        node.setMarked(false);
+        if (boundedLatency) {
+            pushCutRoot(node);
+            if (rootMoves) {
+                pushCutRoot(parent);
+            }
+        }
+
+        cuts++;
+    }
+
+    /**
+     * Insert a node to the root list next to another node.
+     * @param node1 node to be inserted
+     * @param node2 node1 will be inserted next to this node
+     */
+    private void insertNodeToList(HeapNode node1, HeapNode node2) {
+        node1.next = node2.next;
+        node1.prev = node2;
+        node2.next.prev = node1;
+        node2.next = node1;
+    }
+
+    /**
+     * Removes a node from the linked list it's a member of.
+     * Removed node's next and prev pointers are set to itself.
+     * @param node node to be removed
+     */
+    private void removeNodeFromList(HeapNode node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.next = node;
+        node.prev = node;
+    }
+
+    /**
+     * Successively links trees in the heap.
+     * Pre-condition: the heap is not empty
+     * Post-condition: the heap contains one tree of each rank at most.
+     * Post-condition: minimum pointer is updated to the correct node.
+     */
+    private void consolidate() {
+        long start = instrumentation.start();
+        if (deadCount > 0) {
+            removeDeadRoots();
+            if (min == null) {
+                return;
+            }
+        }
+        if (size + deadCount >= treeArrThreshold) {
+            int maxTreeRank = maxRank(size + deadCount);
+            treeArr = new HeapNode[maxTreeRank + 1];
+            treeArrThreshold = growThreshold(treeArr.length);
+        }
+        HeapNode[] treeArr = this.treeArr;
+        long linksBefore = links;
+
+        // Consolidate heap trees according to the algorithm shown in class
+        int range = treesCount;
+        consolidations++;
+        rootsScanned += range;
+        HeapNode iterator = min;
+        for(int i = 0; i < range; i++) {
+            HeapNode root1 = iterator;
+            iterator = iterator.next;
+            int rank = root1.rank();
+            while (treeArr[rank] != null) {
+                HeapNode root2 = treeArr[rank]; // we found another tree with the same rank
+
+                // Make sure root1 has the smaller key between the roots
+                if (root2.key < root1.key) {
+                    HeapNode temp = root2;
+                    root2 = root1;
+                    root1 = temp;
+                }
+
+                link(root1, root2);
+                treeArr[rank] = null;
+                rank++;
+            }
+            treeArr[rank] = root1;
+        }
+
+        // Recreate root list with the consolidated trees, leaving the buckets empty for the next call
+        min = null;
+        for (int i = 0; i < treeArr.length; i++) {
+            HeapNode root = treeArr[i];
+            if (root != null) {
+                treeArr[i] = null;
+                if (min == null) {
+                    min = root;
+                    root.next = root;
+                    root.prev = root;
+                } else {
+                    insertNodeToList(root, min);
+                    if (root.key < min.key) {
+                        min = root;
+                    }
+                }
+            }
+        }
+        TOTAL_LINKS.add(links - linksBefore);
+        instrumentation.consolidate(range, start);
+    }
+
+    /**
+     * Bounded latency mode: link a root, already in the root list, with the tree of the same rank in treeArr,
+     * then the result with the tree of the next rank, and so on, until a rank is free.
+     * @param root root not in treeArr
+     */
+    private void addRoot(HeapNode root) {
+        long linksBefore = links;
+        int rank = root.rank();
+        while (true) {
+            treeArr = ensureRank(treeArr, rank);
+            HeapNode other = treeArr[rank];
+            if (other == null) {
+                break;
+            }
+            treeArr[rank] = null;
+            if (other.key < root.key) {
+                HeapNode temp = other;
+                other = root;
+                root = temp;
+            }
+            link(root, other);
+            rank++;
+        }
+        treeArr[rank] = root;
+
+        // The old minimum may have been linked below root, which has a key no larger than it then
+        if (root.key <= min.key) {
+            min = root;
+        }
+        TOTAL_LINKS.add(links - linksBefore);
+    }
+
+    /**
+     * Bounded latency mode: addRoot each of count consecutive roots of the root list.
+     * @param first first of the roots
+     * @param count number of roots
+     */
+    private void addRoots(HeapNode first, int count) {
+        HeapNode root = first;
+        for (int i = 0; i < count; i++) {
+            HeapNode next = root.next; // linking only moves root and trees from treeArr
+            addRoot(root);
+            root = next;
+        }
+    }
+
+    /**
+     * Bounded latency mode: remember a root that is not in treeArr, for addCutRoots.
+     * @param root root to remember
+     */
+    private void pushCutRoot(HeapNode root) {
+        if (cutRootsCount == cutRoots.length) {
+            cutRoots = Arrays.copyOf(cutRoots, Math.max(8, cutRootsCount * 2));
+        }
+        cutRoots[cutRootsCount++] = root;
+    }
+
+    /**
+     * Bounded latency mode: addRoot the roots made by the last cuts.
+     */
+    private void addCutRoots() {
+        for (int i = 0; i < cutRootsCount; i++) {
+            HeapNode root = cutRoots[i];
+            cutRoots[i] = null;
+            addRoot(root);
+        }
+        cutRootsCount = 0;
+    }
+
+    /**
+     * Bounded latency mode: remove a root from the heap, link its children into treeArr and find the new
+     * minimum among the O(log n) roots of treeArr.
+     * @param x root to remove
+     */
+    private void removeRoot(HeapNode x) {
+        if (treeArr[x.rank()] == x) {
+            treeArr[x.rank()] = null;
+        }
+        if (x.isMarked()) {
+            x.setMarked(false);
+            markedCount--;
+        }
+        HeapNode anchor = x.next != x ? x.next : null;
+        removeNodeFromList(x);
+        treesCount--;
+        size--;
+
+        HeapNode child = x.child;
+        int childCount = x.rank();
+        x.child = null;
+        x.setRank(0);
+        min = anchor; // some root to link the children next to
+        if (child != null) {
+            HeapNode iterator = child;
+            do {
+                iterator.parent = null;
+                iterator = iterator.next;
+            } while (iterator != child);
+            if (anchor == null) {
+                min = child;
+            } else {
+                concatenate(anchor, child);
+            }
+            treesCount += childCount;
+            addRoots(child, childCount);
+        }
+
+        min = null;
+        for (HeapNode root : treeArr) {
+            if (root != null && (min == null || root.key < min.key)) {
+                min = root;
+            }
+        }
+    }
+
+    /**
+     * Return the given buckets, or a longer copy of them if they have no bucket for the given rank.
+     * @param buckets consolidation buckets
+     * @param rank rank that needs a bucket
+     */
+    private static HeapNode[] ensureRank(HeapNode[] buckets, int rank) {
+        if (rank < buckets.length) {
+            return buckets;
+        }
+        return Arrays.copyOf(buckets, Math.max(rank + 1, buckets.length + 4));
+    }
+
+    /**
+     * Remove the deleted nodes from the root list, moving their children up to the root list until no root
+     * is deleted. Sets min to null if no root remains.
+     * Post-condition: min is a root, but not necessarily the minimal one.
+     */
+    private void removeDeadRoots() {
+        int remaining = treesCount;
+        HeapNode iterator = min;
+        while (remaining > 0) {
+            HeapNode root = iterator;
+            remaining--;
+            if (!root.isDead()) {
+                iterator = root.next;
+                continue;
+            }
+
+            if (root.child != null) {
+                // Children become roots right after the deleted node, so they are visited next
+                HeapNode child = root.child;
+                do {
+                    child.parent = null;
+                    child = child.next;
+                } while (child != root.child);
+                concatenate(root, root.child);
+                remaining += root.rank();
+                treesCount += root.rank();
+            }
+            iterator = root.next;
+            if (iterator == root) {
+                // It was the last root
+                iterator = null;
+            }
+            removeNodeFromList(root);
+            if (root.isMarked()) {
+                root.setMarked(false);
+                markedCount--;
+            }
+            root.child = null;
+            root.setRank(0);
+            treesCount--;
+            deadCount--;
+            if (min == root) {
+                min = iterator;
+            }
+            release(root);
+        }
+    }
+
+    /**
+     * Make room for a key in a heap at its capacity: evict the minimum if the eviction policy lets the key
+     * replace it, or count a rejection. Most keys of a long stream are rejected by the first comparison.
+     * @param key key about to be inserted
+     * @return true if the key may be inserted
+     */
+    private boolean makeRoom(int key) {
+        int threshold = min.key;
+        if (key < threshold || evictionPolicy == EvictionPolicy.REJECT
+                || (key == threshold && evictionPolicy == EvictionPolicy.EVICT_MIN)) {
+            rejections++;
+            return false;
+        }
+        deleteMin();
+        evictions++;
+        return true;
+    }
+
+    /**
+     * Evict minima until the heap holds no more nodes than its capacity.
+     */
+    private void trimToCapacity() {
+        while (size > capacity) {
+            deleteMin();
+            evictions++;
+        }
+    }
+
+    /**
+     * Return a node holding the given key, taken from the node pool if it is not empty.
+     * @param key key of the node
+     */
+    private HeapNode newNode(int key) {
+        HeapNode node = pool;
+        if (node == null) {
+            return new HeapNode(key);
+        }
+        pool = node.next;
+        poolSize--;
+        node.key = key;
+        node.next = node;
+        return node;
+    }
+
+    /**
+     * Retire a node that has just left the heap: bump its generation, so that checked operations reject it from
+     * now on, and keep it in the node pool if there is room and it carries nothing besides its key.
+     * @param node node removed from the heap, with no parent and no children
+     */
+    private void release(HeapNode node) {
+        node.generation++;
+        if (poolSize < poolCapacity && node.getClass() == HeapNode.class) {
+            node.clearState();
+            node.parent = null;
+            node.child = null;
+            node.prev = node;
+            node.next = pool;
+            pool = node;
+            poolSize++;
+        }
+    }
+
+    /**
+     * Throw IllegalArgumentException if a node has been deleted since the given generation of it was read.
+     * @param x node of the heap
+     * @param generation generation read from x while it was in the heap
+     */
+    private static void checkGeneration(HeapNode x, int generation) {
+        if (x.generation != generation || x.isDead()) {
+            throw new IllegalArgumentException("Stale node: generation " + generation + " was deleted, node is at "
+                    + "generation " + x.generation);
+        }
+    }
+
+    /**
+     * Return the largest rank a tree can have in a heap of the given size.
+     * @param size number of nodes in the heap
+     */
+    static int maxRank(int size) {
+        int rank = 0;
+        while (rank + 1 < MIN_TREE_SIZE.length && MIN_TREE_SIZE[rank + 1] <= size) {
+            rank++;
+        }
+        return rank;
+    }
+
+    /**
+     * Return the heap size from which consolidation buckets of the given length are no longer enough.
+     * @param length number of buckets
+     */
+    static int growThreshold(int length) {
+        return length < MIN_TREE_SIZE.length ? MIN_TREE_SIZE[length] : Integer.MAX_VALUE;
+    }
+
+    private static int[] minTreeSizes() {
+        int[] sizes = new int[64];
+        long previous = 1;
+        long current = 1; // F(2)
+        int rank = 0;
+        while (current <= Integer.MAX_VALUE) {
+            sizes[rank++] = (int)current;
+            long next = previous + current;
+            previous = current;
+            current = next;
+        }
+        return Arrays.copyOf(sizes, rank);
+    }
+
+    /**
+     * Link two trees. Tree whose root's key is bigger will be a child of the other tree.
+     * @param root1 first root
+     * @param root2 second root
+     */
+    private void link(HeapNode root1, HeapNode root2) {
+        removeNodeFromList(root2);
+        if (root1.child != null) {
+            insertNodeToList(root2, root1.child);
+        } else {
+            root1.child = root2;
+        }
+        root1.setRank(root1.rank() + 1);
+        root2.parent = root1;
+        if (root2.isMarked()) {
+            root2.setMarked(false);
+            markedCount--;
+        }
+
+        treesCount--;
+        links++;
+    }
+
+    /**
+     * Insert node2's root list into node1's root list.
+     * @param node1 root from the list that is being melded into
+     * @param node2 root from the list being melded into node1's list
+     */
+    private void concatenate(HeapNode node1, HeapNode node2) {
+        node2.prev.next = node1.next;
+        node1.next.prev = node2.prev;
+        node2.prev = node1;
+        node1.next = node2;
+    }
+
+    /**
+     * public static class HeapNode
+     * <p>
+     * If you wish to implement classes other than FibonacciHeap
+     * (for example HeapNode), do it in this file, not in
+     * another file
+     * <p>
+     * A node does not point back to its heap; use FibonacciHeap.contains to check which heap holds it. Its rank
+     * and its flags share one byte: a tree of rank r holds at least F(r+2) nodes, so no rank of a heap of at
+     * most Integer.MAX_VALUE nodes needs more than the low 6 bits. Its generation counts how many times it left
+     * a heap, which tells a live node from one that was deleted and possibly reused.
+     */
+    public static class HeapNode implements AddressableHeap.Handle {
+        private static final int RANK_MASK = 0x3F;
+        private static final int MARKED = 0x40;
+        private static final int DEAD = 0x80; // deleted in lazy delete mode, not yet removed
+
+        public int key;
+        private byte state; // rank, MARKED and DEAD
+        int generation;
+        HeapNode child;
+        HeapNode next;
+        HeapNode prev;
+        HeapNode parent;
+
+        public HeapNode(int key) {
+            this.key = key;
+            this.next = this;
+            this.prev = this;
+        }
+
+        @Override
+        public int getKey() {
+            return key;
+        }
+
+        /**
+         * public int generation()
+         * <p>
+         * Return the number of times the node has been deleted from a heap.
+         */
+        public int generation() {
+            return generation;
+        }
+
+        int rank() {
+            return state & RANK_MASK;
+        }
+
+        void setRank(int rank) {
+            state = (byte)((state & ~RANK_MASK) | rank);
+        }
+
+        boolean isMarked() {
+            return (state & MARKED) != 0;
+        }
+
+        void setMarked(boolean marked) {
+            state = (byte)(marked ? state | MARKED : state & ~MARKED);
+        }
+
+        boolean isDead() {
+            return (state & DEAD) != 0;
+        }
+
+        void setDead(boolean dead) {
+            state = (byte)(dead ? state | DEAD : state & ~DEAD);
+        }
+
+        void clearState() {
+            state = 0;
+        }
+    }
+
+    /**
+     * public static class IntEntry
+     * <p>
+     * A node carrying an int value along with its key.
+     */
+    public static class IntEntry extends HeapNode {
+        public int value;
+
+        public IntEntry(int key, int value) {
+            super(key);
+            this.value = value;
+        }
+
+        public int getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * public static class LongEntry
+     * <p>
+     * A node carrying a long value along with its key.
+     */
+    public static class LongEntry extends HeapNode {
+        public long value;
+
+        public LongEntry(int key, long value) {
+            super(key);
+            this.value = value;
+        }
+
+        public long getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * public static class Entry&lt;V&gt;
+     * <p>
+     * A node carrying an object along with its key.
+     */
+    public static class Entry<V> extends HeapNode {
+        public V value;
+
+        public Entry(int key, V value) {
+            super(key);
+            this.value = value;
+        }
+
+        public V getValue() {
+            return value;
+        }
+    }
+}
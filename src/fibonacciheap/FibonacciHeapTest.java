@@ -0,0 +1,3149 @@
+/*
+ * Binomial Heap test program for Data Structures course.
+ * To be compiled with FibonacciHeap.java (Student file).
+ *
+ *
+ */
+
+package fibonacciheap;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FibonacciHeapTest {
+    private static int[] createValues(int n) {
+        int[] values = new int[n];
+        int maxValue = n * 10;
+        Random randomGenerator = new Random();
+
+        for (int i = 0; i < n; ++i){
+            while (true) {
+                int j, randInt = randomGenerator.nextInt(maxValue);
+
+                for (j = 0; j < i && randInt != values[j]; ++j);
+                if (j < i) {
+                    continue;
+                }
+                values[i] = randInt;
+                break;
+            }
+        }
+
+        return values;
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Run code and return the number of bytes the current thread allocated meanwhile, less what reading the
+     * counter allocates.
+     */
+    private static long allocatedBytes(Runnable code) {
+        long thread = Thread.currentThread().getId();
+        long overhead = -THREADS.getThreadAllocatedBytes(thread) + THREADS.getThreadAllocatedBytes(thread);
+        long before = THREADS.getThreadAllocatedBytes(thread);
+        code.run();
+        return THREADS.getThreadAllocatedBytes(thread) - before - overhead;
+    }
+
+    private static String vals2str(int[] values) {
+        int min = values[0];
+        for (int val : values) {
+            min = val < min ? val : min;
+        }
+        String s = "size=" + values.length + " min=" + min;
+
+
+        if (values.length <= 20) {
+            for (int val : values) {
+                s += " " + val;
+            }
+        } else {
+            for (int j = 0; j < 5; ++j) {
+                s += " " + values[j];
+            }
+            s += " ...";
+            for (int j = 0; j < 5; ++j) {
+                s += " " + values[values.length - 6 + j];
+            }
+        }
+
+        return s;
+    }
+
+    private static abstract class Test implements Runnable {
+        public final String name;
+        private boolean failed;
+        private String error;
+        private String eMessage;
+        private String eTrace;
+
+        public Test(String name) {
+            this.name = name;
+            this.failed = false;
+            this.error = "";
+            this.eMessage = "";
+            this.eTrace = "";
+//            System.out.println("Adding test: " + name);
+        }
+
+        @Override
+        public void run() {
+            try {
+                test();
+            } catch (Exception e) {
+                setFailed(e);
+            }
+        }
+
+        protected abstract void test();
+
+        public void setFailed(String error) {
+            failed = true;
+            this.error = error;
+//            System.out.println("Failed. error: " + error);
+        }
+
+        public void setFailed(Exception e) {
+            setFailed("Java Exception");
+            this.eMessage = e.getMessage();
+            this.eTrace = "\n";
+            for (StackTraceElement el : e.getStackTrace()) {
+                if (!el.getClassName().contains("FibonacciHeap")) {
+                    continue;
+                }
+                this.eTrace += "\t" + el + "\n";
+            }
+//            System.out.println("Exception message: " + eMessage);
+//            System.out.println("Stack trace:\n" + eTrace);
+        }
+
+        public boolean failed() {
+            return failed;
+        }
+
+        public String toString() {
+            return String.format("%s, Faild: %s, Error: %s, "+
+                    "Exception: %s, Call stack: %s", name, 
+                    failed ? "Y" : "N", error, eMessage, eTrace);
+        }
+    }
+
+    static private class TestMeld1 extends Test {
+        public TestMeld1() {
+            super("Meld two empty heaps");
+        }
+
+        protected void test() {
+            FibonacciHeap heap1 = new FibonacciHeap();
+            FibonacciHeap heap2 = new FibonacciHeap();
+            heap1.meld(heap2);
+            if (!heap1.empty()) {
+                setFailed("result not empty!");
+            }
+        }
+    }
+
+    static private class TestMeld2 extends Test {
+        public TestMeld2() {
+            super("Meld other empty heap");
+        }
+
+        protected void test() {
+            FibonacciHeap heap1 = new FibonacciHeap();
+            FibonacciHeap heap2 = new FibonacciHeap();
+            FibonacciHeap.HeapNode min = heap1.insert(3);
+            int size1 = heap1.size();
+            heap1.meld(heap2);
+            if (heap1.empty()) {
+                setFailed("result empty!");
+            }
+            if (heap1.size() != size1 + heap2.size()) {
+                setFailed("melded heap size ("+heap1.size()+
+                        "!= heap1 ("+size1+") + heap2 ("+heap2.size()+")");
+            }
+            if (heap1.findMin() != min) {
+                setFailed("findMin after meld failed");
+            }
+        }
+    }
+
+    static private class TestMeld3 extends Test {
+        public TestMeld3() {
+            super("Meld this empty heap with other nonempty");
+        }
+
+        protected void test() {
+            FibonacciHeap heap1 = new FibonacciHeap();
+            FibonacciHeap heap2 = new FibonacciHeap();
+            FibonacciHeap.HeapNode min = heap2.insert(3);
+            int size1 = heap1.size();
+            heap1.meld(heap2);
+            if (heap1.empty()) {
+                setFailed("result empty!");
+            }
+            if (heap2.size() != size1 + heap2.size()) {
+                setFailed("melded heap size ("+heap1.size()+
+                        ") != heap1 ("+size1+") + heap2 ("+heap2.size()+
+                        ")");
+            }
+            if (heap1.findMin() != min) {
+                setFailed("findMin after meld failed");
+            }
+        }
+    }
+
+    static private class TestMeld4 extends Test {
+        public TestMeld4() {
+            super("Meld nonempty heap with other nonempty");
+        }
+
+        protected void test() {
+            FibonacciHeap heap1 = new FibonacciHeap(); 
+            FibonacciHeap heap2 = new FibonacciHeap();
+            heap1.insert(5);
+            heap1.insert(17);
+            int size1 = heap1.size();
+            FibonacciHeap.HeapNode min = heap2.insert(3);
+            int size2 = heap2.size();
+
+            heap1.meld(heap2);
+            if (heap1.empty()) {
+                setFailed("result empty!");
+            }
+            if (heap1.size() != size1 + size2) {
+                setFailed("melded heap size ("+heap1.size()+
+                        ") != heap1 ("+size1+") + heap2 ("+size2+")");
+            }
+            if (heap1.findMin() != min) {
+                setFailed("findMin after meld failed");
+            }
+        }
+    }
+
+    static private class TestMeld5 extends Test {
+        public TestMeld5() {
+            super("Meld large heaps");
+        }
+
+        protected void test() {
+            FibonacciHeap heap1 = new FibonacciHeap();
+            FibonacciHeap heap2 = new FibonacciHeap();
+            int[] vals1 = createValues(500);
+            int[] vals2 = createValues(500);
+            int min = vals1[0];
+            FibonacciHeap.HeapNode minNode = null;
+            for (int v : vals1) {
+                if (v < min) {
+                    min = v;
+                    minNode = heap1.insert(v);
+                } else {
+                    heap1.insert(v);
+                }
+            }
+            for (int v : vals2) {
+                if (v < min) {
+                    min = v;
+                    minNode = heap1.insert(v);
+                } else {
+                    heap2.insert(v);
+                }
+            }
+            int size1 = heap1.size();
+            int size2 = heap2.size();
+
+            heap1.meld(heap2);
+            if (heap1.empty()) {
+                setFailed("result empty!");
+            }
+            if (heap1.size() != size1 + size2) {
+                setFailed("melded heap size ("+heap1.size()+
+                        ") != heap1 ("+size1+") + heap2 ("+size2+")");
+            }
+            if (heap1.findMin() != minNode) {
+                setFailed("findMin after meld failed");
+            }
+        }
+    }
+
+    static private class TestInsert extends Test {
+        public TestInsert() {
+            super("Check size each insert");
+        }
+
+        protected void test() {
+            int[] vals = createValues(100);
+
+            FibonacciHeap heap1 = new FibonacciHeap();
+            for (int i = 0; i < vals.length; ++i) {
+                if (heap1.size() != i) {
+                    setFailed("size is "+i+" but size() says "+
+                            heap1.size());
+                    break;
+                }
+                heap1.insert(vals[i]);
+            }
+        }
+    }
+
+    static private class TestFindMin1 extends Test {
+        public TestFindMin1() {
+            super("Check findMin each unsorted insert");
+        }
+
+        protected void test() {
+
+            int[] vals = createValues(100);
+            int min = vals[0];
+            FibonacciHeap.HeapNode minNode = null;
+            FibonacciHeap heap1 = new FibonacciHeap();
+
+            for (int i = 0; i < vals.length; ++i) {
+                if (vals[i] < min) {
+                    min = vals[i];
+                    minNode = heap1.insert(vals[i]);
+                } else {
+                    if (minNode == null) {
+                        minNode = heap1.insert(vals[i]);
+                    } else {
+                        heap1.insert(vals[i]);
+                    }
+                }
+                if (heap1.findMin() != minNode) {
+                    setFailed("min is "+min+
+                            "but findMin() says "+
+                            heap1.findMin());
+                    break;
+                }
+            }
+        }
+    }
+
+    static private class TestFindMin2 extends Test {
+        public TestFindMin2() {
+            super("Check findMin each sorted insert");
+        }
+
+        protected void test() {
+            int[] vals = createValues(100);
+            Arrays.sort(vals);
+            FibonacciHeap heap1 = new FibonacciHeap();
+            for (int i = vals.length - 1; i >= 0 ; --i) {
+                FibonacciHeap.HeapNode min = heap1.insert(vals[i]);
+                if (heap1.findMin() != min) {
+                    setFailed("min is "+vals[i]+
+                            "but findMin() says "+
+                            heap1.findMin());
+                    break;
+                }
+            }
+        }
+    }
+
+    static private class TestDeleteMin extends Test {
+        public TestDeleteMin() {
+            super("Check findMin after each deleteMin");
+        }
+
+        protected void test() {
+
+            int[] vals = createValues(100);
+            FibonacciHeap heap1 = new FibonacciHeap();
+
+            for (int i = 0; i < vals.length; i++) {
+                heap1.insert(vals[i]);
+            }
+
+            Arrays.sort(vals);
+            for (int i = 0; i < vals.length; i++) {
+                if (heap1.findMin().key != vals[i]) {
+                    setFailed("min is "+vals[i]+" but findMin() says "+
+                            heap1.findMin());
+                    break;
+                }
+                heap1.deleteMin();
+            }
+        }
+    }
+
+    static private class TestDelete extends Test {
+        public TestDelete() {
+            super("Test delete");
+        }
+
+        @Override
+        protected void test() {
+            int[] vals = createValues(100);
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[vals.length];
+            FibonacciHeap heap1 = new FibonacciHeap();
+
+            for (int i = 0; i < vals.length; i++) {
+                nodes[i] = heap1.insert(vals[i]);
+            }
+
+            for (int i = 0; i < nodes.length; i++) {
+                FibonacciHeap.HeapNode node = nodes[i];
+                heap1.delete(node);
+            }
+
+            if (!heap1.empty()) {
+                setFailed("Heap is not empty after deleting all nodes");
+            }
+        }
+    }
+
+    static private class TestDecreaseKey extends Test {
+        public TestDecreaseKey() {
+            super("Test decreaseKey");
+        }
+
+        @Override
+        protected void test() {
+            int[] vals = createValues(1000);
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[vals.length];
+            FibonacciHeap heap1 = new FibonacciHeap();
+
+            for (int i = 0; i < vals.length; i++) {
+                nodes[i] = heap1.insert(vals[i]);
+            }
+
+            for (int i = 0; i < nodes.length; i++) {
+                FibonacciHeap.HeapNode node = nodes[i];
+                long totalCutsBefore = heap1.counters().cuts();
+                int parentKey = -100;
+                int nodeKey = -99;
+                if (node.parent != null) {
+                    parentKey = node.parent.key;
+                    nodeKey = node.key;
+                    heap1.decreaseKey(node, nodeKey - parentKey);
+                    if (node.key != parentKey) {
+                        setFailed("Node's key should be: " + parentKey + ", instead of: " + node.key);
+                    }
+                } else if (node.key > 0) {
+                    nodeKey = node.key;
+                    heap1.decreaseKey(node, 1);
+                    if (node.key != nodeKey - 1) {
+                        setFailed("Node's key should be: " + (nodeKey - 1) + ", instead of: " + node.key);
+                    }
+                } else {
+                    heap1.delete(node);
+                    continue;
+                }
+
+                // Check how many cuts are supposed to happen
+                int expectedCuts = 0;
+                if (node.parent != null) {
+                    expectedCuts++;
+                    FibonacciHeap.HeapNode iterator = node.parent;
+                    while (iterator.parent != null && iterator.isMarked()) {
+                        expectedCuts++;
+                        iterator = iterator.parent;
+                    }
+                }
+                if (node.key > 0) {
+                    heap1.decreaseKey(node, 1);
+                } else {
+                    heap1.delete(node);
+                    continue;
+                }
+                long totalCutsAfter = heap1.counters().cuts();
+                long expectedTotalCutsAfter = totalCutsBefore + expectedCuts;
+                if (totalCutsAfter != expectedTotalCutsAfter) {
+                    setFailed("Number of total cuts is not as expected. Total found: " + totalCutsAfter
+                            + " , total expected: " + expectedTotalCutsAfter
+                            + " , expected cuts for this node: " + expectedCuts);
+                    return;
+                }
+                heap1.delete(node);
+            }
+
+            if (!heap1.empty()) {
+                setFailed("Heap is not empty after deleting all nodes");
+            }
+        }
+    }
+
+    static private class TestPotential extends Test {
+        public TestPotential() {
+            super("Test potential by recursively counting marked nodes and then number of trees");
+        }
+
+        @Override
+        protected void test() {
+            int[] vals = createValues(1000);
+            FibonacciHeap heap1 = new FibonacciHeap();
+
+            for (int val : vals) {
+                heap1.insert(val);
+            }
+
+            int markedCount = countMarkedNodes(heap1.findMin());
+            int treesCount = countRootNodes(heap1.findMin());
+
+            if (heap1.potential() != treesCount + 2 * markedCount) {
+                setFailed("Wrong potential. Number of marked nodes: " + markedCount + ", number of trees: " + treesCount);
+            }
+        }
+
+        private int countRootNodes(FibonacciHeap.HeapNode min) {
+            int rootCount = 0;
+
+            FibonacciHeap.HeapNode iterator = min;
+            do {
+                rootCount++;
+                iterator = iterator.next;
+            } while (iterator != min);
+
+            return rootCount;
+        }
+
+        private int countMarkedNodes(FibonacciHeap.HeapNode node) {
+            if (node == null) {
+                return 0;
+            }
+            int markedCount = 0;
+            FibonacciHeap.HeapNode iterator = node;
+            do {
+                if (iterator.isMarked()) {
+                    markedCount++;
+                }
+                markedCount += countMarkedNodes(node.child);
+                iterator = iterator.next;
+            } while (iterator != node);
+            return markedCount;
+        }
+    }
+
+    static private class TestEmpty extends Test {
+        public TestEmpty() {
+            super("Check empty/size after insert and deleteMin");
+        }
+
+        protected void test() {
+
+            FibonacciHeap heap1 = new FibonacciHeap();
+            int size = 0;
+
+            for (int i = 10; i < 30; ++i) {
+                if (!heap1.empty()) {
+                    setFailed("empty but empty() returns false");
+                    break;
+                }
+                if (heap1.size() != size) {
+                    setFailed("size is "+size+
+                            " but size() returns "+
+                            heap1.size());
+                    break;
+                }
+                for (int j = 0; j < i; ++j) {
+                    heap1.insert(i);
+                    ++size;
+                    if (heap1.empty()) {
+                        setFailed(
+                                "not empty but empty() returns true");
+                        break;
+                    }
+                    if (heap1.size() != size) {
+                        setFailed("size is "+size+
+                                " but size() returns "+
+                                heap1.size());
+                        break;
+                    }
+                }
+                for (int j = 0; j < i; ++j) {
+                    if (heap1.empty()) {
+                        setFailed(
+                                "not empty but empty() returns true");
+                        break;
+                    }
+                    heap1.deleteMin();
+                    --size;
+                    if (heap1.size() != size) {
+                        setFailed("size is "+size+
+                                " but size() returns "+
+                                heap1.size());
+                        break;
+                    }
+                }
+                if (!heap1.empty()) {
+                    setFailed("empty but empty() returns false");
+                    break;
+                }
+            }
+        }
+    }
+
+    static private class TestCountersRep extends Test {
+        public TestCountersRep() {
+            super("Test countersRep");
+        }
+
+        @Override
+        protected void test() {
+            int[] vals = createValues(100);
+            FibonacciHeap heap = new FibonacciHeap();
+
+            for (int i = 0; i < vals.length; i++) {
+                heap.insert(vals[i]);
+            }
+
+            for (int i = 0; i < vals.length; i++) {
+                heap.deleteMin();
+                int[] countersRep = heap.countersRep();
+                for (int counter : countersRep) {
+                    if (counter > 1) {
+                        setFailed("More than one tree of some rank after deleteMin");
+                    }
+                }
+            }
+
+            if (!heap.empty()) {
+                setFailed("Heap is not empty after deleting all nodes");
+            }
+        }
+    }
+
+    static private class TestIntHeapDeleteMin extends Test {
+        public TestIntHeapDeleteMin() {
+            super("Array engine: check findMin after each deleteMin");
+        }
+
+        protected void test() {
+            int[] vals = createValues(1000);
+            IntFibonacciHeap heap = new IntFibonacciHeap();
+
+            for (int i = 0; i < vals.length; i++) {
+                heap.insert(vals[i]);
+            }
+
+            Arrays.sort(vals);
+            for (int i = 0; i < vals.length; i++) {
+                if (heap.key(heap.findMin()) != vals[i]) {
+                    setFailed("min is "+vals[i]+" but findMin() says "+
+                            heap.key(heap.findMin()));
+                    break;
+                }
+                heap.deleteMin();
+                if (heap.size() != vals.length - i - 1) {
+                    setFailed("size is "+(vals.length - i - 1)+" but size() says "+heap.size());
+                    break;
+                }
+            }
+            if (!heap.empty() || heap.findMin() != IntFibonacciHeap.NONE) {
+                setFailed("Heap is not empty after deleting all nodes");
+            }
+        }
+    }
+
+    static private class TestIntHeapDecreaseKeyAndDelete extends Test {
+        public TestIntHeapDecreaseKeyAndDelete() {
+            super("Array engine: decreaseKey and delete against sorted reference");
+        }
+
+        protected void test() {
+            int[] vals = createValues(1000);
+            int[] handles = new int[vals.length];
+            IntFibonacciHeap heap = new IntFibonacciHeap(4);
+
+            for (int i = 0; i < vals.length; i++) {
+                handles[i] = heap.insert(vals[i] + vals.length);
+            }
+            heap.deleteMin(); // consolidate into trees
+            int removed = 0;
+            for (int i = 1; i < vals.length; i++) {
+                if (vals[i] < vals[removed]) {
+                    removed = i;
+                }
+            }
+
+            // Decrease every other key back to its value and delete every third node
+            int[] expected = new int[vals.length];
+            int count = 0;
+            for (int i = 0; i < vals.length; i++) {
+                if (i == removed) {
+                    continue;
+                }
+                if (i % 3 == 0) {
+                    heap.delete(handles[i]);
+                    continue;
+                }
+                if (i % 2 == 0) {
+                    heap.decreaseKey(handles[i], vals.length);
+                    expected[count++] = vals[i];
+                } else {
+                    expected[count++] = vals[i] + vals.length;
+                }
+            }
+
+            if (heap.size() != count) {
+                setFailed("size is "+count+" but size() says "+heap.size());
+                return;
+            }
+            expected = Arrays.copyOf(expected, count);
+            Arrays.sort(expected);
+            for (int i = 0; i < count; i++) {
+                if (heap.key(heap.findMin()) != expected[i]) {
+                    setFailed("min is "+expected[i]+" but findMin() says "+heap.key(heap.findMin()));
+                    return;
+                }
+                heap.deleteMin();
+            }
+
+            // Marked nodes that end up as roots are unmarked when deleted, so a drained heap has no potential
+            Random random = new Random(1);
+            List<Integer> live = new ArrayList<>();
+            for (int i = 0; i < 20000; i++) {
+                int op = random.nextInt(4);
+                if (op == 0 || live.isEmpty()) {
+                    live.add(heap.insert(random.nextInt(1000) + 1000));
+                } else if (op == 1) {
+                    live.remove((Integer)heap.deleteMin());
+                } else if (op == 2) {
+                    int node = live.get(random.nextInt(live.size()));
+                    heap.decreaseKey(node, random.nextInt(100));
+                } else {
+                    heap.delete(live.remove(random.nextInt(live.size())));
+                }
+            }
+            while (!heap.empty()) {
+                heap.deleteMin();
+            }
+            if (heap.potential() != 0) {
+                setFailed("Drained heap has potential " + heap.potential());
+            }
+        }
+    }
+
+    static private class TestIntHeapMeld extends Test {
+        public TestIntHeapMeld() {
+            super("Array engine: meld keeps handles of both heaps");
+        }
+
+        protected void test() {
+            int[] vals = createValues(600);
+            IntFibonacciHeap heap1 = new IntFibonacciHeap();
+            IntFibonacciHeap heap2 = new IntFibonacciHeap();
+            int[] handles = new int[vals.length];
+            for (int i = 0; i < vals.length; i++) {
+                handles[i] = (i % 2 == 0 ? heap1 : heap2).insert(vals[i]);
+            }
+            heap1.deleteMin();
+            heap2.deleteMin();
+            int size1 = heap1.size();
+            int size2 = heap2.size();
+
+            int offset = heap1.meld(heap2);
+            if (heap1.size() != size1 + size2 || !heap2.empty()) {
+                setFailed("melded heap size ("+heap1.size()+
+                        ") != heap1 ("+size1+") + heap2 ("+size2+")");
+                return;
+            }
+            int heap2Min = Integer.MAX_VALUE;
+            for (int i = 1; i < vals.length; i += 2) {
+                heap2Min = Math.min(heap2Min, vals[i]);
+            }
+            for (int i = 1; i < vals.length; i += 2) {
+                int handle = handles[i] + offset;
+                if (vals[i] != heap2Min && heap1.key(handle) != vals[i]) {
+                    setFailed("handle of heap2 points to key "+heap1.key(handle)+" instead of "+vals[i]);
+                    return;
+                }
+            }
+            int previous = Integer.MIN_VALUE;
+            while (!heap1.empty()) {
+                int key = heap1.key(heap1.findMin());
+                if (key < previous) {
+                    setFailed("keys extracted out of order after meld");
+                    return;
+                }
+                previous = key;
+                heap1.deleteMin();
+            }
+        }
+    }
+
+    static private class TestDeleteMinAllocation extends Test {
+        public TestDeleteMinAllocation() {
+            super("Check deleteMin allocates nothing after warm-up");
+        }
+
+        @Override
+        protected void test() {
+            int n = 200000;
+            int[] vals = new int[n];
+            Random random = new Random();
+            for (int i = 0; i < n; i++) {
+                vals[i] = random.nextInt(n * 10);
+            }
+
+            FibonacciHeap heap = new FibonacciHeap();
+            IntFibonacciHeap intHeap = new IntFibonacciHeap(n);
+            for (int val : vals) {
+                heap.insert(val);
+                intHeap.insert(val);
+            }
+
+            // Warm-up: size the consolidation buckets and let the JIT settle
+            for (int i = 0; i < 50000; i++) {
+                heap.deleteMin();
+                intHeap.deleteMin();
+            }
+
+            long object = allocatedBytes(() -> {
+                for (int i = 0; i < n / 2; i++) {
+                    heap.deleteMin();
+                }
+            });
+            long array = allocatedBytes(() -> {
+                for (int i = 0; i < n / 2; i++) {
+                    intHeap.deleteMin();
+                }
+            });
+            if (object != 0 || array != 0) {
+                setFailed("deleteMin allocated " + object + " bytes (object engine) and " + array
+                        + " bytes (array engine) after warm-up");
+            }
+        }
+    }
+
+    static private class TestCounters extends Test {
+        public TestCounters() {
+            super("Check per-heap counters and their static totals");
+        }
+
+        @Override
+        protected void test() {
+            long linksBefore = FibonacciHeap.totalLinks();
+            long cutsBefore = FibonacciHeap.totalCuts();
+
+            FibonacciHeap heap1 = new FibonacciHeap();
+            IntFibonacciHeap heap2 = new IntFibonacciHeap();
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[1000];
+            int[] handles = new int[nodes.length];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = heap1.insert(i + nodes.length);
+                handles[i] = heap2.insert(i + nodes.length);
+            }
+            heap1.deleteMin();
+            heap2.deleteMin();
+            for (int i = nodes.length - 1; i > 0; i -= 3) {
+                heap1.decreaseKey(nodes[i], nodes.length);
+                heap2.decreaseKey(handles[i], nodes.length);
+            }
+
+            HeapCounters counters1 = heap1.counters();
+            HeapCounters counters2 = heap2.counters();
+            // n roots consolidate into one tree per set bit of n
+            int expectedLinks = (nodes.length - 1) - Integer.bitCount(nodes.length - 1);
+            if (counters1.links() != expectedLinks || counters2.links() != expectedLinks) {
+                setFailed("Expected " + expectedLinks + " links in each heap: " + counters1 + " / " + counters2);
+                return;
+            }
+            if (counters1.cuts() == 0 || counters1.cuts() != counters2.cuts()
+                    || counters1.marksSet() != counters2.marksSet()
+                    || counters1.cascadingCuts() != counters2.cascadingCuts()) {
+                setFailed("Engines disagree on cuts: " + counters1 + " / " + counters2);
+                return;
+            }
+            if (counters1.consolidations() != 1 || counters1.rootsScanned() != nodes.length - 1) {
+                setFailed("Expected one consolidation over " + (nodes.length - 1) + " roots: " + counters1);
+                return;
+            }
+            if (FibonacciHeap.totalLinks() - linksBefore != counters1.links() + counters2.links()
+                    || FibonacciHeap.totalCuts() - cutsBefore != counters1.cuts() + counters2.cuts()) {
+                setFailed("Static totals are not the sum of the heaps' counters");
+            }
+        }
+    }
+
+    static private class TestInsertAll extends Test {
+        public TestInsertAll() {
+            super("Check insertAll with offset, length and handles on both engines");
+        }
+
+        @Override
+        protected void test() {
+            int[] vals = createValues(1000);
+            int offset = 100;
+            int length = 700;
+
+            FibonacciHeap heap = new FibonacciHeap();
+            IntFibonacciHeap intHeap = new IntFibonacciHeap();
+            heap.insert(vals[0]);
+            intHeap.insert(vals[0]);
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[length];
+            int[] handles = new int[length];
+            heap.insertAll(vals, offset, length, nodes);
+            intHeap.insertAll(vals, offset, length, handles);
+
+            for (int i = 0; i < length; i++) {
+                if (nodes[i].getKey() != vals[offset + i] || intHeap.key(handles[i]) != vals[offset + i]) {
+                    setFailed("handle " + i + " does not hold key " + vals[offset + i]);
+                    return;
+                }
+            }
+            if (heap.size() != length + 1 || intHeap.size() != length + 1 || heap.potential() != length + 1) {
+                setFailed("size is " + (length + 1) + " but size() says " + heap.size() + " / " + intHeap.size());
+                return;
+            }
+
+            int[] expected = Arrays.copyOfRange(vals, offset - 1, offset + length);
+            expected[0] = vals[0];
+            Arrays.sort(expected);
+            for (int key : expected) {
+                if (heap.findMin().getKey() != key || intHeap.key(intHeap.findMin()) != key) {
+                    setFailed("min is " + key + " but findMin() says " + heap.findMin().getKey() + " / "
+                            + intHeap.key(intHeap.findMin()));
+                    return;
+                }
+                heap.deleteMin();
+                intHeap.deleteMin();
+            }
+            if (!heap.empty() || !intHeap.empty()) {
+                setFailed("Heap is not empty after deleting all nodes");
+            }
+        }
+    }
+
+    static private class TestPollMin extends Test {
+        public TestPollMin() {
+            super("Check pollMin drains keys in order in batches");
+        }
+
+        @Override
+        protected void test() {
+            int[] vals = createValues(2000);
+            FibonacciHeap heap = new FibonacciHeap();
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[vals.length];
+            for (int i = 0; i < vals.length; i++) {
+                nodes[i] = heap.insert(vals[i] + vals.length * 10);
+            }
+            heap.deleteMin();
+
+            // Decrease some keys so that the trees have cuts and marks
+            int[] expected = new int[vals.length - 1];
+            int count = 0;
+            int removed = 0; // index of the key removed by deleteMin
+            for (int i = 1; i < vals.length; i++) {
+                if (vals[i] < vals[removed]) {
+                    removed = i;
+                }
+            }
+            for (int i = 0; i < vals.length; i++) {
+                if (i == removed) {
+                    continue;
+                }
+                if (i % 3 == 0) {
+                    heap.decreaseKey(nodes[i], vals.length * 10);
+                    expected[count++] = vals[i];
+                } else {
+                    expected[count++] = vals[i] + vals.length * 10;
+                }
+            }
+            Arrays.sort(expected);
+
+            int[] out = new int[100];
+            int polled = 0;
+            int k = 1;
+            while (!heap.empty()) {
+                int n = heap.pollMin(k, out);
+                if (n != Math.min(k, expected.length - polled)) {
+                    setFailed("pollMin(" + k + ") returned " + n + " with " + heap.size() + " nodes left");
+                    return;
+                }
+                for (int i = 0; i < n; i++) {
+                    if (out[i] != expected[polled + i]) {
+                        setFailed("pollMin returned " + out[i] + " instead of " + expected[polled + i]);
+                        return;
+                    }
+                }
+                polled += n;
+                if (heap.size() != expected.length - polled) {
+                    setFailed("size is " + (expected.length - polled) + " but size() says " + heap.size());
+                    return;
+                }
+                if (!heap.empty() && heap.findMin().getKey() != expected[polled]) {
+                    setFailed("min is " + expected[polled] + " but findMin() says " + heap.findMin().getKey());
+                    return;
+                }
+                for (int counter : heap.countersRep()) {
+                    if (counter > 1) {
+                        setFailed("More than one tree of some rank after pollMin");
+                        return;
+                    }
+                }
+                k = k * 3 % 101;
+            }
+            if (polled != expected.length || heap.pollMin(5, out) != 0) {
+                setFailed("polled " + polled + " keys instead of " + expected.length);
+            }
+        }
+    }
+
+    static private class TestLazyDelete extends Test {
+        public TestLazyDelete() {
+            super("Check lazy delete keeps size and findMin exact");
+        }
+
+        @Override
+        protected void test() {
+            int[] vals = createValues(3000);
+            FibonacciHeap heap = new FibonacciHeap();
+            heap.setLazyDelete(true);
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[vals.length];
+            heap.insertAll(vals, 0, vals.length, nodes);
+            heap.insert(-1);
+            heap.deleteMin(); // consolidate into trees
+
+            // Delete about 70% of the nodes, in random order
+            Random random = new Random();
+            boolean[] deleted = new boolean[vals.length];
+            int live = vals.length;
+            for (int i = 0; i < vals.length * 7 / 10; i++) {
+                int j = random.nextInt(vals.length);
+                if (deleted[j]) {
+                    continue;
+                }
+                heap.delete(nodes[j]);
+                deleted[j] = true;
+                live--;
+                if (heap.size() != live) {
+                    setFailed("size is " + live + " but size() says " + heap.size());
+                    return;
+                }
+                if (heap.deadCount() > heap.size() / 2) {
+                    setFailed("compaction did not run: " + heap.deadCount() + " deleted, " + heap.size() + " live");
+                    return;
+                }
+            }
+
+            // Decrease a few live keys, some of them below deleted parents
+            int[] expected = new int[live];
+            int count = 0;
+            for (int i = 0; i < vals.length; i++) {
+                if (deleted[i]) {
+                    continue;
+                }
+                if (i % 5 == 0) {
+                    heap.decreaseKey(nodes[i], 1);
+                    vals[i]--;
+                }
+                expected[count++] = vals[i];
+            }
+            Arrays.sort(expected);
+
+            int[] out = new int[10];
+            int i = 0;
+            while (i < expected.length) {
+                if (heap.findMin().getKey() != expected[i]) {
+                    setFailed("min is " + expected[i] + " but findMin() says " + heap.findMin().getKey());
+                    return;
+                }
+                if (i % 2 == 0) {
+                    heap.deleteMin();
+                    i++;
+                } else {
+                    int n = heap.pollMin(out.length, out);
+                    for (int j = 0; j < n; j++) {
+                        if (out[j] != expected[i + j]) {
+                            setFailed("pollMin returned " + out[j] + " instead of " + expected[i + j]);
+                            return;
+                        }
+                    }
+                    i += n;
+                }
+                if (heap.size() != expected.length - i) {
+                    setFailed("size is " + (expected.length - i) + " but size() says " + heap.size());
+                    return;
+                }
+            }
+            if (!heap.empty() || heap.findMin() != null || heap.deadCount() != 0) {
+                setFailed("Heap is not empty after deleting all nodes");
+            }
+        }
+    }
+
+    static private class TestNegativeKeys extends Test {
+        public TestNegativeKeys() {
+            super("Check delete and decreaseKey with negative keys");
+        }
+
+        @Override
+        protected void test() {
+            int[] vals = createValues(1000);
+            FibonacciHeap heap = new FibonacciHeap();
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[vals.length];
+            for (int i = 0; i < vals.length; i++) {
+                vals[i] -= vals.length * 5; // about half of the keys are negative
+                nodes[i] = heap.insert(vals[i]);
+            }
+            heap.insert(Integer.MIN_VALUE);
+            heap.deleteMin(); // consolidate into trees
+
+            // Delete every third node and decrease every fifth key
+            int[] expected = new int[vals.length];
+            int count = 0;
+            for (int i = 0; i < vals.length; i++) {
+                if (i % 3 == 0) {
+                    heap.delete(nodes[i]);
+                    continue;
+                }
+                if (i % 5 == 0) {
+                    heap.decreaseKey(nodes[i], vals.length);
+                    vals[i] -= vals.length;
+                }
+                expected[count++] = vals[i];
+            }
+
+            if (heap.size() != count) {
+                setFailed("size is " + count + " but size() says " + heap.size());
+                return;
+            }
+            expected = Arrays.copyOf(expected, count);
+            Arrays.sort(expected);
+            for (int i = 0; i < count; i++) {
+                if (heap.findMin().getKey() != expected[i]) {
+                    setFailed("min is " + expected[i] + " but findMin() says " + heap.findMin().getKey());
+                    return;
+                }
+                heap.deleteMin();
+            }
+        }
+    }
+
+    static private class TestLongHeap extends Test {
+        public TestLongHeap() {
+            super("Long keys: insert, decreaseKey, delete, meld and pollMin beyond the int range");
+        }
+
+        @Override
+        protected void test() {
+            int[] vals = createValues(1000);
+            LongFibonacciHeap heap1 = new LongFibonacciHeap();
+            LongFibonacciHeap heap2 = new LongFibonacciHeap();
+            LongFibonacciHeap.HeapNode[] nodes = new LongFibonacciHeap.HeapNode[vals.length];
+            long[] keys = new long[vals.length];
+            for (int i = 0; i < vals.length; i++) {
+                keys[i] = (vals[i] - vals.length * 5L) << 33; // distinct, and the low 32 bits are all zero
+                nodes[i] = (i % 2 == 0 ? heap1 : heap2).insert(keys[i]);
+            }
+            heap1.insert(Long.MIN_VALUE);
+            heap1.deleteMin();
+            heap2.deleteMin();
+            heap1.meld(heap2);
+            int removed = vals.length; // heap2's minimum
+            for (int i = 1; i < vals.length; i += 2) {
+                if (removed == vals.length || keys[i] < keys[removed]) {
+                    removed = i;
+                }
+            }
+
+            long[] expected = new long[vals.length];
+            int count = 0;
+            for (int i = 0; i < vals.length; i++) {
+                if (i == removed) {
+                    continue;
+                }
+                if (i % 3 == 0) {
+                    heap1.delete(nodes[i]);
+                    continue;
+                }
+                if (i % 4 == 0) {
+                    heap1.decreaseKey(nodes[i], 1L << 40);
+                    keys[i] -= 1L << 40;
+                }
+                expected[count++] = keys[i];
+            }
+            expected = Arrays.copyOf(expected, count);
+            Arrays.sort(expected);
+
+            long[] out = new long[7];
+            int i = 0;
+            while (i < count) {
+                if (heap1.findMin().getKey() != expected[i]) {
+                    setFailed("min is " + expected[i] + " but findMin() says " + heap1.findMin().getKey());
+                    return;
+                }
+                int n = heap1.pollMin(out.length, out);
+                for (int j = 0; j < n; j++) {
+                    if (out[j] != expected[i + j]) {
+                        setFailed("pollMin returned " + out[j] + " instead of " + expected[i + j]);
+                        return;
+                    }
+                }
+                i += n;
+            }
+            if (!heap1.empty()) {
+                setFailed("Heap is not empty after deleting all nodes");
+            }
+        }
+    }
+
+    static private class TestDoubleHeap extends Test {
+        public TestDoubleHeap() {
+            super("Double keys: fractional and infinite keys, NaN is rejected");
+        }
+
+        @Override
+        protected void test() {
+            int[] vals = createValues(1000);
+            double[] keys = new double[vals.length + 2];
+            for (int i = 0; i < vals.length; i++) {
+                keys[i] = (vals[i] - vals.length * 5) / 7.0;
+            }
+            keys[vals.length] = Double.NEGATIVE_INFINITY;
+            keys[vals.length + 1] = Double.POSITIVE_INFINITY;
+            DoubleFibonacciHeap heap = new DoubleFibonacciHeap();
+            DoubleFibonacciHeap.HeapNode[] nodes = new DoubleFibonacciHeap.HeapNode[keys.length];
+            heap.insertAll(keys, 0, keys.length, nodes);
+            heap.deleteMin(); // removes negative infinity
+
+            try {
+                heap.insertAll(new double[] {1.5, Double.NaN});
+                setFailed("insertAll accepted NaN");
+                return;
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                heap.decreaseKey(nodes[vals.length + 1], Double.POSITIVE_INFINITY);
+                setFailed("decreaseKey accepted a NaN result");
+                return;
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            if (heap.size() != vals.length + 1 || nodes[vals.length + 1].getKey() != Double.POSITIVE_INFINITY) {
+                setFailed("Rejected NaN changed the heap");
+                return;
+            }
+
+            double[] expected = new double[keys.length];
+            int count = 0;
+            for (int i = 0; i < vals.length; i++) {
+                if (i % 3 == 0) {
+                    heap.delete(nodes[i]);
+                    continue;
+                }
+                if (i % 4 == 0) {
+                    heap.decreaseKey(nodes[i], 0.25);
+                    keys[i] -= 0.25;
+                }
+                expected[count++] = keys[i];
+            }
+            expected[count++] = Double.POSITIVE_INFINITY;
+            expected = Arrays.copyOf(expected, count);
+            Arrays.sort(expected);
+            for (int i = 0; i < count; i++) {
+                if (heap.findMin().getKey() != expected[i]) {
+                    setFailed("min is " + expected[i] + " but findMin() says " + heap.findMin().getKey());
+                    return;
+                }
+                heap.deleteMin();
+            }
+        }
+    }
+
+    static private class TestIndexedHeap extends Test {
+        public TestIndexedHeap() {
+            super("Indexed mode: ids, decreaseKeyTo and deleteMin against a reference array");
+        }
+
+        @Override
+        protected void test() {
+            int n = 2000;
+            IndexedFibonacciHeap heap = new IndexedFibonacciHeap(n);
+            Random random = new Random();
+            int[] keys = new int[n];
+            boolean[] present = new boolean[n];
+
+            // Random inserts, decreases and deletes of ids, compared with a plain array of keys
+            for (int step = 0; step < 20 * n; step++) {
+                int id = random.nextInt(n);
+                if (heap.contains(id) != present[id]) {
+                    setFailed("contains(" + id + ") says " + heap.contains(id));
+                    return;
+                }
+                int op = random.nextInt(8);
+                if (!present[id]) {
+                    keys[id] = random.nextInt(10 * n) - 5 * n;
+                    heap.insert(id, keys[id]);
+                    present[id] = true;
+                } else if (op < 4) {
+                    keys[id] -= random.nextInt(n);
+                    heap.decreaseKeyTo(id, keys[id]);
+                } else if (op == 4) {
+                    heap.delete(id);
+                    present[id] = false;
+                } else if (op == 5) {
+                    int min = heap.deleteMin();
+                    if (!present[min]) {
+                        setFailed("deleteMin returned id " + min + " which is not in the heap");
+                        return;
+                    }
+                    for (int i = 0; i < n; i++) {
+                        if (present[i] && keys[i] < keys[min]) {
+                            setFailed("deleteMin returned key " + keys[min] + " but key " + keys[i] + " is smaller");
+                            return;
+                        }
+                    }
+                    present[min] = false;
+                }
+                if (present[id] && heap.keyOf(id) != keys[id]) {
+                    setFailed("key of " + id + " is " + keys[id] + " but keyOf() says " + heap.keyOf(id));
+                    return;
+                }
+            }
+
+            // Invalid operations are rejected without changing the heap
+            int size = heap.size();
+            int id = heap.findMin();
+            try {
+                heap.insert(id, 0);
+                setFailed("insert accepted an id already in the heap");
+                return;
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                heap.decreaseKeyTo(id, keys[id] + 1);
+                setFailed("decreaseKeyTo accepted a larger key");
+                return;
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                heap.contains(n);
+                setFailed("contains accepted an id out of range");
+                return;
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+            if (heap.size() != size || heap.keyOf(id) != keys[id]) {
+                setFailed("Rejected operation changed the heap");
+                return;
+            }
+
+            int count = 0;
+            int previous = Integer.MIN_VALUE;
+            while (!heap.empty()) {
+                int min = heap.deleteMin();
+                if (!present[min] || keys[min] < previous) {
+                    setFailed("deleteMin returned id " + min + " out of order");
+                    return;
+                }
+                present[min] = false;
+                previous = keys[min];
+                count++;
+            }
+            if (count != size || heap.deleteMin() != IntFibonacciHeap.NONE) {
+                setFailed("Heap did not return every id exactly once");
+            }
+        }
+    }
+
+    static private class TestPayload extends Test {
+        public TestPayload() {
+            super("Check values carried by nodes come back from deleteMin");
+        }
+
+        @Override
+        protected void test() {
+            int[] vals = createValues(1000);
+
+            // Object engine, entries with int, long and object values in one heap
+            FibonacciHeap heap = new FibonacciHeap();
+            for (int i = 0; i < vals.length; i++) {
+                if (i % 3 == 0) {
+                    heap.insert(vals[i], -vals[i]);
+                } else if (i % 3 == 1) {
+                    heap.insert(vals[i], (long) vals[i] << 32);
+                } else {
+                    heap.insert(vals[i], "value " + vals[i]);
+                }
+            }
+            int previous = -1;
+            while (!heap.empty()) {
+                FibonacciHeap.HeapNode node = heap.deleteMin();
+                int key = node.getKey();
+                boolean match;
+                if (node instanceof FibonacciHeap.IntEntry) {
+                    match = ((FibonacciHeap.IntEntry) node).getValue() == -key;
+                } else if (node instanceof FibonacciHeap.LongEntry) {
+                    match = ((FibonacciHeap.LongEntry) node).getValue() == (long) key << 32;
+                } else {
+                    match = ((FibonacciHeap.Entry<?>) node).getValue().equals("value " + key);
+                }
+                if (!match || key <= previous) {
+                    setFailed("deleteMin returned key " + key + " with a wrong value or out of order");
+                    return;
+                }
+                previous = key;
+            }
+            if (heap.deleteMin() != null) {
+                setFailed("deleteMin on an empty heap did not return null");
+                return;
+            }
+
+            // Long keys with object values, as in a scheduler keyed by deadline
+            LongFibonacciHeap deadlines = new LongFibonacciHeap();
+            List<LongFibonacciHeap.Entry<Runnable>> jobs = new ArrayList<>();
+            for (int i = 0; i < vals.length; i++) {
+                jobs.add(deadlines.insert(vals[i] * 1_000_000_000L, () -> { }));
+            }
+            LongFibonacciHeap.Entry<Runnable> last = jobs.get(vals.length - 1);
+            deadlines.decreaseKey(last, Long.MAX_VALUE / 2);
+            if (deadlines.findMin() != last || deadlines.deleteMin() != last) {
+                setFailed("Long heap did not return the entry with the earliest deadline");
+                return;
+            }
+
+            // Array engine, values survive growing and melding
+            IntFibonacciHeap heap1 = new IntFibonacciHeap(2);
+            IntFibonacciHeap heap2 = new IntFibonacciHeap(2);
+            for (int i = 0; i < vals.length; i++) {
+                if (i % 2 == 0) {
+                    heap1.insert(vals[i], -(long) vals[i] * 3);
+                } else {
+                    heap2.insert(vals[i], -(long) vals[i] * 3);
+                }
+            }
+            heap1.insert(-1); // no value
+            heap1.meld(heap2);
+            if (heap1.value(heap1.deleteMin()) != 0) {
+                setFailed("Node inserted without a value has a value");
+                return;
+            }
+            previous = -1;
+            while (!heap1.empty()) {
+                int node = heap1.deleteMin();
+                int key = heap1.key(node);
+                if (heap1.value(node) != -(long) key * 3 || key <= previous) {
+                    setFailed("Array engine returned key " + key + " with value " + heap1.value(node));
+                    return;
+                }
+                previous = key;
+            }
+        }
+    }
+
+    static private class TestConcurrentHeap extends Test {
+        public TestConcurrentHeap() {
+            super("Concurrent heap: threads insert, decrease, delete and deleteMin without losing keys");
+        }
+
+        @Override
+        protected void test() {
+            int threads = 4;
+            int perThread = 5000;
+            ConcurrentFibonacciHeap heap = new ConcurrentFibonacciHeap();
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            int[][] removed = new int[threads][threads * perThread];
+            int[] removedCount = new int[threads];
+            boolean[] ordered = new boolean[threads];
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                workers[t] = new Thread(() -> {
+                    // Thread t owns the keys congruent to t modulo threads; every fourth one is decreased
+                    // by 2 * threads * perThread, every fifth one is deleted
+                    FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        nodes[i] = heap.insert(i * threads + id);
+                    }
+                    for (int i = 0; i < perThread; i++) {
+                        if (i % 5 == 0) {
+                            heap.delete(nodes[i]);
+                        } else if (i % 4 == 0) {
+                            heap.decreaseKey(nodes[i], 2 * threads * perThread);
+                        }
+                    }
+                    try {
+                        barrier.await();
+                    } catch (Exception e) {
+                        return;
+                    }
+
+                    // No more inserts, so the keys each thread takes must come in increasing order
+                    ordered[id] = true;
+                    int previous = Integer.MIN_VALUE;
+                    FibonacciHeap.HeapNode node;
+                    while ((node = heap.deleteMin()) != null) {
+                        ordered[id] &= node.getKey() > previous;
+                        previous = node.getKey();
+                        removed[id][removedCount[id]++] = node.getKey();
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    setFailed("Interrupted");
+                    return;
+                }
+            }
+
+            int[] expected = new int[threads * perThread];
+            int count = 0;
+            for (int key = 0; key < threads * perThread; key++) {
+                int i = key / threads;
+                if (i % 5 != 0) {
+                    expected[count++] = i % 4 == 0 ? key - 2 * threads * perThread : key;
+                }
+            }
+            int[] actual = new int[threads * perThread];
+            int actualCount = 0;
+            for (int t = 0; t < threads; t++) {
+                if (!ordered[t]) {
+                    setFailed("Thread " + t + " got keys out of order from deleteMin");
+                    return;
+                }
+                System.arraycopy(removed[t], 0, actual, actualCount, removedCount[t]);
+                actualCount += removedCount[t];
+            }
+            expected = Arrays.copyOf(expected, count);
+            actual = Arrays.copyOf(actual, actualCount);
+            Arrays.sort(expected);
+            Arrays.sort(actual);
+            if (!Arrays.equals(expected, actual) || !heap.empty()) {
+                setFailed("deleteMin returned " + actualCount + " keys, expected " + count);
+                return;
+            }
+
+            // A failing operation throws in its own thread and leaves the heap usable
+            try {
+                heap.decreaseKey(null, 1);
+                setFailed("decreaseKey of a null node did not throw");
+                return;
+            } catch (NullPointerException e) {
+                // expected
+            }
+            heap.insert(7);
+            if (heap.deleteMin().getKey() != 7 || !heap.empty()) {
+                setFailed("Heap is unusable after a failed operation");
+                return;
+            }
+
+            // Records of threads that stopped using the heap are dropped, and come back when used again
+            Thread[] idle = new Thread[50];
+            for (int t = 0; t < idle.length; t++) {
+                idle[t] = new Thread(() -> heap.insert(1));
+                idle[t].start();
+            }
+            try {
+                for (Thread thread : idle) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                setFailed(e);
+                return;
+            }
+            int registered = heap.recordCount();
+            for (int i = 0; i < 3000; i++) {
+                heap.deleteMin();
+            }
+            if (registered < idle.length || heap.recordCount() > threads + 2) {
+                setFailed(heap.recordCount() + " of " + registered + " records kept after the threads stopped");
+                return;
+            }
+            heap.insert(3);
+            if (heap.deleteMin().getKey() != 3 || !heap.empty()) {
+                setFailed("Heap is unusable after dropping idle records");
+            }
+        }
+    }
+
+    static private class TestMultiQueue extends Test {
+        public TestMultiQueue() {
+            super("MultiQueue: no key lost across shards, decreaseKey routed to the owning shard");
+        }
+
+        @Override
+        protected void test() {
+            int threads = 4;
+            int perThread = 5000;
+            MultiQueue queue = new MultiQueue(2 * threads);
+            int[][] removed = new int[threads][threads * perThread];
+            int[] removedCount = new int[threads];
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                workers[t] = new Thread(() -> {
+                    // Same key scheme as TestConcurrentHeap
+                    MultiQueue.Node[] nodes = new MultiQueue.Node[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        nodes[i] = queue.insert(i * threads + id);
+                    }
+                    for (int i = 0; i < perThread; i++) {
+                        if (i % 5 == 0) {
+                            queue.delete(nodes[i]);
+                        } else if (i % 4 == 0) {
+                            queue.decreaseKey(nodes[i], 2 * threads * perThread);
+                        }
+                    }
+                    try {
+                        barrier.await();
+                    } catch (Exception e) {
+                        return;
+                    }
+                    MultiQueue.Node node;
+                    while ((node = queue.deleteMin()) != null) {
+                        removed[id][removedCount[id]++] = node.getKey();
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    setFailed("Interrupted");
+                    return;
+                }
+            }
+
+            int[] expected = new int[threads * perThread];
+            int count = 0;
+            for (int key = 0; key < threads * perThread; key++) {
+                int i = key / threads;
+                if (i % 5 != 0) {
+                    expected[count++] = i % 4 == 0 ? key - 2 * threads * perThread : key;
+                }
+            }
+            int[] actual = new int[threads * perThread];
+            int actualCount = 0;
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(removed[t], 0, actual, actualCount, removedCount[t]);
+                actualCount += removedCount[t];
+            }
+            expected = Arrays.copyOf(expected, count);
+            actual = Arrays.copyOf(actual, actualCount);
+            Arrays.sort(expected);
+            Arrays.sort(actual);
+            if (!Arrays.equals(expected, actual) || !queue.empty() || queue.size() != 0) {
+                setFailed("deleteMin returned " + actualCount + " keys, expected " + count);
+                return;
+            }
+
+            // Single-threaded, the relaxed order stays close to the exact one: drain keys 0..n-1,
+            // where the rank error of a key is the number of smaller keys still in the queue
+            int n = 20000;
+            for (int key = 0; key < n; key++) {
+                queue.insert(key);
+            }
+            boolean[] taken = new boolean[n];
+            int smallest = 0;
+            long totalError = 0;
+            for (int i = 0; i < n; i++) {
+                int key = queue.deleteMin().getKey();
+                taken[key] = true;
+                for (int k = smallest; k < key; k++) {
+                    totalError += taken[k] ? 0 : 1;
+                }
+                while (smallest < n && taken[smallest]) {
+                    smallest++;
+                }
+            }
+            if (totalError > (long) n * queue.shards() * 4) {
+                setFailed("Mean rank error " + (double) totalError / n + " is too large for " + queue.shards() + " shards");
+            }
+        }
+    }
+
+    static private class TestBoundedLatency extends Test {
+        public TestBoundedLatency() {
+            super("Bounded latency mode: at most one tree per rank and a correct findMin after every operation");
+        }
+
+        @Override
+        protected void test() {
+            int n = 3000;
+            FibonacciHeap heap = new FibonacciHeap();
+            Random random = new Random();
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[n];
+            int[] keys = new int[n];
+            boolean[] present = new boolean[n];
+            for (int i = 0; i < n / 2; i++) {
+                keys[i] = random.nextInt(10 * n);
+                nodes[i] = heap.insert(keys[i]);
+                present[i] = true;
+            }
+            heap.setBoundedLatency(true); // many roots of rank 0 until now
+
+            for (int step = 0; step < 10 * n; step++) {
+                int id = random.nextInt(n);
+                int op = random.nextInt(10);
+                if (!present[id]) {
+                    keys[id] = random.nextInt(10 * n);
+                    nodes[id] = heap.insert(keys[id]);
+                    present[id] = true;
+                } else if (op < 4) {
+                    int delta = random.nextInt(n);
+                    heap.decreaseKey(nodes[id], delta);
+                    keys[id] -= delta;
+                } else if (op < 6) {
+                    heap.delete(nodes[id]);
+                    present[id] = false;
+                } else if (op < 8) {
+                    FibonacciHeap.HeapNode min = heap.deleteMin();
+                    for (int i = 0; i < n; i++) {
+                        if (nodes[i] == min) {
+                            present[i] = false;
+                        }
+                    }
+                } else if (op == 8) {
+                    // A second heap of fresh nodes, melded in
+                    FibonacciHeap other = new FibonacciHeap();
+                    for (int i = 0; i < 20; i++) {
+                        int j = random.nextInt(n);
+                        if (!present[j]) {
+                            keys[j] = random.nextInt(10 * n);
+                            nodes[j] = other.insert(keys[j]);
+                            present[j] = true;
+                        }
+                    }
+                    heap.meld(other);
+                } else {
+                    FibonacciHeap.HeapNode[] out = new FibonacciHeap.HeapNode[3];
+                    int got = heap.pollMin(out.length, out);
+                    for (int i = 0; i < n; i++) {
+                        for (int j = 0; j < got; j++) {
+                            if (nodes[i] == out[j]) {
+                                present[i] = false;
+                            }
+                        }
+                    }
+                }
+
+                int count = 0;
+                int minKey = Integer.MAX_VALUE;
+                for (int i = 0; i < n; i++) {
+                    if (present[i]) {
+                        count++;
+                        minKey = Math.min(minKey, keys[i]);
+                    }
+                }
+                if (heap.size() != count || (count > 0 && heap.findMin().getKey() != minKey)) {
+                    setFailed("size " + count + " and min " + minKey + " but the heap says " + heap.size());
+                    return;
+                }
+                for (int trees : heap.countersRep()) {
+                    if (trees > 1) {
+                        setFailed("Two trees of the same rank in bounded latency mode: " + Arrays.toString(heap.countersRep()));
+                        return;
+                    }
+                }
+            }
+
+            // Back to the default mode, the heap still drains in order
+            heap.setBoundedLatency(false);
+            int previous = Integer.MIN_VALUE;
+            while (!heap.empty()) {
+                int key = heap.deleteMin().getKey();
+                if (key < previous) {
+                    setFailed("deleteMin returned " + key + " after " + previous);
+                    return;
+                }
+                previous = key;
+            }
+        }
+    }
+
+    static private class TestInstrumentation extends Test {
+        public TestInstrumentation() {
+            super("Instrumentation records every operation and emits slow consolidation events");
+        }
+
+        @Override
+        protected void test() {
+            Histogram histogram = new Histogram();
+            for (int v = 1; v <= 100000; v++) {
+                histogram.record(v);
+            }
+            if (Math.abs(histogram.percentile(50) - 50000) > 50000 / 16 || histogram.percentile(100) != 100000
+                    || histogram.mean() != 50000.5) {
+                setFailed("Histogram of 1..100000 is off: " + histogram);
+                return;
+            }
+
+            int[] vals = createValues(1000);
+            FibonacciHeap heap = new FibonacciHeap();
+            RecordingInstrumentation recording = new RecordingInstrumentation(0); // every consolidation is slow
+            heap.setInstrumentation(recording);
+            try (Recording jfr = new Recording()) {
+                jfr.enable("fibonacciheap.SlowConsolidation");
+                jfr.start();
+
+                FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[vals.length];
+                for (int i = 0; i < vals.length; i++) {
+                    nodes[i] = heap.insert(vals[i] + vals.length);
+                }
+                heap.insert(-1);
+                heap.deleteMin(); // consolidate into trees
+                for (int i = 0; i < vals.length; i += 2) {
+                    heap.decreaseKey(nodes[i], vals.length);
+                }
+                FibonacciHeap other = new FibonacciHeap();
+                other.insert(0);
+                heap.meld(other);
+                for (int i = 0; i < 10; i++) {
+                    heap.deleteMin();
+                }
+                jfr.stop();
+
+                HeapCounters counters = heap.counters();
+                if (recording.insertLatency().count() != vals.length + 1
+                        || recording.deleteMinLatency().count() != 11
+                        || recording.decreaseKeyLatency().count() != vals.length / 2
+                        || recording.meldLatency().count() != 1
+                        || recording.consolidateLatency().count() != counters.consolidations()
+                        || recording.consolidateRoots().max() < vals.length
+                        || recording.cascadeDepth().count() != counters.cuts() - counters.cascadingCuts()) {
+                    setFailed("Histogram counts do not match the operations:\n" + recording);
+                    return;
+                }
+
+                Path file = Files.createTempFile("heap", ".jfr");
+                try {
+                    jfr.dump(file);
+                    long events = RecordingFile.readAllEvents(file).stream()
+                            .filter(e -> e.getEventType().getName().equals("fibonacciheap.SlowConsolidation"))
+                            .count();
+                    if (events != counters.consolidations()) {
+                        setFailed(events + " slow consolidation events for " + counters.consolidations() + " consolidations");
+                    }
+                } finally {
+                    Files.delete(file);
+                }
+            } catch (IOException e) {
+                setFailed("Could not read the flight recording: " + e.getMessage());
+            }
+        }
+    }
+
+    static private class TestHeapMonitor extends Test {
+        public TestHeapMonitor() {
+            super("Heap monitor exposes the last published snapshot over JMX");
+        }
+
+        @Override
+        protected void test() {
+            int[] vals = createValues(1000);
+            FibonacciHeap heap = new FibonacciHeap();
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = HeapMonitor.objectName("test heap");
+            try (HeapMonitor monitor = new HeapMonitor("test heap", heap, 0)) {
+                try {
+                    new HeapMonitor("test heap", heap).close();
+                    setFailed("Registering a second heap with the same name did not fail");
+                    return;
+                } catch (IllegalArgumentException expected) {
+                }
+
+                FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[vals.length];
+                for (int i = 0; i < vals.length; i++) {
+                    nodes[i] = heap.insert(vals[i] + vals.length);
+                }
+                heap.insert(-1);
+                heap.deleteMin();
+                for (int i = 0; i < vals.length; i += 3) {
+                    heap.decreaseKey(nodes[i], vals.length);
+                }
+                if ((int) server.getAttribute(name, "Size") != 0) {
+                    setFailed("Monitor shows the heap before the snapshot was published");
+                    return;
+                }
+
+                if (!monitor.publishIfDue()) {
+                    setFailed("publishIfDue did not publish with a zero interval");
+                    return;
+                }
+                if ((int) server.getAttribute(name, "Size") != heap.size()
+                        || (int) server.getAttribute(name, "TreesCount") != heap.treesCount()
+                        || (int) server.getAttribute(name, "MarkedCount") != heap.markedCount()
+                        || (int) server.getAttribute(name, "Potential") != heap.potential()
+                        || !Arrays.equals((int[]) server.getAttribute(name, "RankHistogram"), heap.countersRep())
+                        || (double) server.getAttribute(name, "LinksPerSecond") <= 0
+                        || (double) server.getAttribute(name, "CutsPerSecond") <= 0) {
+                    setFailed("Monitor attributes do not match the heap");
+                    return;
+                }
+            } catch (JMException e) {
+                setFailed("Could not read the monitor: " + e);
+                return;
+            }
+            if (server.isRegistered(name)) {
+                setFailed("Monitor is still registered after close");
+            }
+        }
+    }
+
+    static private class TestAddressableHeaps extends Test {
+        public TestAddressableHeaps() {
+            super("Fibonacci and pairing heaps agree through the AddressableHeap interface");
+        }
+
+        @Override
+        protected void test() {
+            String error = check(new FibonacciHeap(), new FibonacciHeap());
+            if (error == null) {
+                error = check(new PairingHeap(), new PairingHeap());
+            }
+            if (error != null) {
+                setFailed(error);
+                return;
+            }
+
+            // Links and cuts of a pairing heap reach the totals once the operations after the inserts ran
+            long linksBefore = FibonacciHeap.totalLinks();
+            long cutsBefore = FibonacciHeap.totalCuts();
+            PairingHeap heap = new PairingHeap();
+            PairingHeap other = new PairingHeap();
+            List<PairingHeap.HeapNode> nodes = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                nodes.add((i % 2 == 0 ? heap : other).insert(i * 7 % 1000));
+            }
+            heap.meld(other);
+            heap.deleteMin();
+            heap.decreaseKey(nodes.get(500), 2000);
+            heap.delete(nodes.get(501));
+            HeapCounters counters = heap.counters();
+            if (FibonacciHeap.totalLinks() - linksBefore != counters.links() + other.counters().links()
+                    || FibonacciHeap.totalCuts() - cutsBefore != counters.cuts()) {
+                setFailed("Pairing heap totals do not match its counters");
+            }
+        }
+
+        /**
+         * Run the same operations on heap and return a description of the first wrong result, or null.
+         */
+        private <H extends AddressableHeap.Handle, Q extends AddressableHeap<H, Q>> String check(Q heap, Q other) {
+            String name = heap.getClass().getSimpleName();
+            int[] vals = createValues(2000);
+            Random random = new Random(7);
+            List<H> handles = new ArrayList<>();
+            for (int i = 0; i < vals.length / 2; i++) {
+                handles.add(heap.insert(vals[i] + vals.length * 10));
+            }
+            for (int i = vals.length / 2; i < vals.length; i++) {
+                handles.add(other.insert(vals[i] + vals.length * 10));
+            }
+            heap.insert(-1);
+            heap.deleteMin();
+            heap.meld(other);
+            if (heap.size() != vals.length) {
+                return name + ": size " + heap.size() + " after meld, expected " + vals.length;
+            }
+
+            List<H> live = new ArrayList<>();
+            for (H handle : handles) {
+                int r = random.nextInt(4);
+                if (r == 0) {
+                    heap.decreaseKey(handle, random.nextInt(vals.length * 20));
+                } else if (r == 1) {
+                    heap.delete(handle);
+                    continue;
+                }
+                live.add(handle);
+            }
+            int[] expected = new int[live.size()];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = live.get(i).getKey();
+            }
+            Arrays.sort(expected);
+
+            for (int key : expected) {
+                if (heap.empty() || heap.findMin().getKey() != key) {
+                    return name + ": findMin is not " + key;
+                }
+                H removed = heap.deleteMin();
+                if (removed.getKey() != key) {
+                    return name + ": deleteMin returned " + removed.getKey() + ", expected " + key;
+                }
+            }
+            if (!heap.empty() || heap.size() != 0 || heap.deleteMin() != null) {
+                return name + ": not empty after all keys were removed";
+            }
+            return null;
+        }
+    }
+
+    static private class TestRadixHeap extends Test {
+        public TestRadixHeap() {
+            super("Radix heaps follow a monotone event simulation and reject keys below the last minimum");
+        }
+
+        @Override
+        protected void test() {
+            long offset = 1L << 40;
+            Random random = new Random(11);
+            PairingHeap reference = new PairingHeap();
+            RadixHeap heap = new RadixHeap();
+            LongRadixHeap longHeap = new LongRadixHeap();
+            List<PairingHeap.HeapNode> refNodes = new ArrayList<>();
+            List<RadixHeap.HeapNode> nodes = new ArrayList<>();
+            List<LongRadixHeap.HeapNode> longNodes = new ArrayList<>();
+            int now = 0;
+            for (int step = 0; step < 100000; step++) {
+                int r = random.nextInt(10);
+                if (r < 5 || reference.empty()) {
+                    int key = now + random.nextInt(1 << random.nextInt(20));
+                    refNodes.add(reference.insert(key));
+                    nodes.add(heap.insert(key));
+                    longNodes.add(longHeap.insert(key + offset));
+                } else if (r < 7 && !nodes.isEmpty()) {
+                    int i = random.nextInt(nodes.size());
+                    int delta = random.nextInt(nodes.get(i).getKey() - now + 1);
+                    reference.decreaseKey(refNodes.get(i), delta);
+                    heap.decreaseKey(nodes.get(i), delta);
+                    longHeap.decreaseKey(longNodes.get(i), delta);
+                } else if (r < 8 && !nodes.isEmpty()) {
+                    int i = random.nextInt(nodes.size());
+                    reference.delete(refNodes.get(i));
+                    heap.delete(nodes.get(i));
+                    longHeap.delete(longNodes.get(i));
+                    removeAt(refNodes, i);
+                    removeAt(nodes, i);
+                    removeAt(longNodes, i);
+                } else {
+                    PairingHeap.HeapNode refRemoved = reference.deleteMin();
+                    int key = refRemoved.getKey();
+                    RadixHeap.HeapNode min = heap.findMin();
+                    RadixHeap.HeapNode removed = heap.deleteMin();
+                    LongRadixHeap.HeapNode longRemoved = longHeap.deleteMin();
+                    if (min != removed || removed.getKey() != key || longRemoved.getKey() != key + offset) {
+                        setFailed("deleteMin returned " + removed.getKey() + " and " + longRemoved.getKey()
+                                + ", expected " + key);
+                        return;
+                    }
+                    int i = refNodes.indexOf(refRemoved);
+                    removeAt(refNodes, i);
+                    removeAt(nodes, i, removed);
+                    removeAt(longNodes, i, longRemoved);
+                    now = key;
+                }
+                if (heap.size() != reference.size() || longHeap.size() != reference.size()) {
+                    setFailed("Size is " + heap.size() + " and " + longHeap.size() + ", expected " + reference.size());
+                    return;
+                }
+            }
+
+            if (!heap.empty()) {
+                RadixHeap.HeapNode node = heap.findMin();
+                heap.deleteMin();
+                try {
+                    heap.insert(node.getKey() - 1);
+                    setFailed("Inserting a key below the last minimum was not rejected");
+                    return;
+                } catch (IllegalArgumentException expected) {
+                }
+            }
+            try {
+                new LongRadixHeap().insert(-1);
+                setFailed("Inserting a negative key was not rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+
+        /**
+         * Remove a node whose key equals the key of the node at index i. Nodes with equal keys are
+         * interchangeable, so the node is first swapped to index i.
+         */
+        private static <T> void removeAt(List<T> list, int i, T node) {
+            int j = list.indexOf(node);
+            list.set(j, list.get(i));
+            list.set(i, node);
+            removeAt(list, i);
+        }
+
+        /**
+         * Remove the element at index i in constant time by moving the last element there.
+         */
+        private static <T> void removeAt(List<T> list, int i) {
+            list.set(i, list.get(list.size() - 1));
+            list.remove(list.size() - 1);
+        }
+    }
+
+    static private class TestDaryHeap extends Test {
+        public TestDaryHeap() {
+            super("D-ary heaps of several arities agree with the array fibonacci heap through IntAddressableHeap");
+        }
+
+        @Override
+        protected void test() {
+            String error = check(new IntFibonacciHeap(), new IntFibonacciHeap());
+            for (int arity = 2; error == null && arity <= 16; arity *= 2) {
+                error = check(new DaryHeap(arity, 1), new DaryHeap(arity, 1));
+            }
+            try {
+                new DaryHeap(1, 16);
+                error = "Arity 1 was not rejected";
+            } catch (IllegalArgumentException expected) {
+            }
+            if (error == null) {
+                error = checkInsertAll();
+            }
+            if (error == null) {
+                error = checkAllocation();
+            }
+            if (error != null) {
+                setFailed(error);
+            }
+        }
+
+        /**
+         * Bulk insert into a non-empty heap, and return a description of the first wrong result, or null.
+         */
+        private String checkInsertAll() {
+            int[] vals = createValues(5000);
+            DaryHeap heap = new DaryHeap(8, 1);
+            for (int i = 0; i < 100; i++) {
+                heap.insert(vals[i]);
+            }
+            int[] handles = new int[vals.length];
+            heap.insertAll(vals, 100, vals.length - 100, handles);
+            for (int i = 100; i < vals.length; i++) {
+                if (heap.key(handles[i - 100]) != vals[i]) {
+                    return "insertAll handle " + handles[i - 100] + " has key " + heap.key(handles[i - 100])
+                            + ", expected " + vals[i];
+                }
+            }
+            int[] sorted = vals.clone();
+            Arrays.sort(sorted);
+            for (int key : sorted) {
+                int node = heap.deleteMin();
+                if (heap.key(node) != key) {
+                    return "deleteMin after insertAll returned " + heap.key(node) + ", expected " + key;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Return a description of the bytes allocated by insert, decreaseKey and deleteMin on a warm heap, or
+         * null if there were none.
+         */
+        private String checkAllocation() {
+            int n = 100000;
+            DaryHeap heap = new DaryHeap(8, n);
+            Random random = new Random(17);
+            for (int i = 0; i < n; i++) {
+                heap.insert(random.nextInt(n * 10));
+            }
+            long bytes = 0;
+            for (int round = 0; round < 3; round++) { // the first rounds warm up the JIT
+                bytes = allocatedBytes(() -> {
+                    for (int i = 0; i < n / 2; i++) {
+                        int node = heap.deleteMin();
+                        node = heap.insert(heap.key(node) + 1 + random.nextInt(n));
+                        heap.decreaseKey(node, 1);
+                    }
+                });
+            }
+            return bytes == 0 ? null : "Sifting allocated " + bytes + " bytes after warm-up";
+        }
+
+        /**
+         * Run random operations on heap against a map from handles to keys, and return a description of the
+         * first wrong result, or null.
+         */
+        static <Q extends IntAddressableHeap<Q>> String check(Q heap, Q other) {
+            String name = heap.getClass().getSimpleName();
+            Random random = new Random(13);
+            HashMap<Integer, Integer> keys = new HashMap<>();
+            HashMap<Integer, Integer> otherKeys = new HashMap<>();
+            for (int i = 0; i < 1000; i++) {
+                int key = random.nextInt(100000);
+                keys.put(heap.insert(key), key);
+            }
+            for (int i = 0; i < 500; i++) {
+                int key = random.nextInt(100000);
+                otherKeys.put(other.insert(key), key);
+            }
+            for (int i = 0; i < 100; i++) {
+                otherKeys.remove(other.deleteMin());
+            }
+            int offset = heap.meld(other);
+            for (Map.Entry<Integer, Integer> entry : otherKeys.entrySet()) {
+                keys.put(entry.getKey() + offset, entry.getValue());
+            }
+            if (!other.empty() || heap.size() != keys.size()) {
+                return name + ": size " + heap.size() + " after meld, expected " + keys.size();
+            }
+
+            List<Integer> handles = new ArrayList<>(keys.keySet());
+            for (int step = 0; step < 20000; step++) {
+                int r = random.nextInt(8);
+                if (r < 3 || handles.isEmpty()) {
+                    int key = random.nextInt(100000);
+                    int node = heap.insert(key);
+                    if (keys.put(node, key) != null) {
+                        return name + ": insert returned the live handle " + node;
+                    }
+                    handles.add(node);
+                } else if (r < 5) {
+                    int i = random.nextInt(handles.size());
+                    int node = handles.get(i);
+                    int key = keys.get(node) - random.nextInt(1000);
+                    heap.decreaseKeyTo(node, key);
+                    keys.put(node, key);
+                } else if (r < 6) {
+                    int i = random.nextInt(handles.size());
+                    heap.delete(handles.get(i));
+                    keys.remove(handles.get(i));
+                    handles.set(i, handles.get(handles.size() - 1));
+                    handles.remove(handles.size() - 1);
+                } else {
+                    int min = Collections.min(keys.values());
+                    int node = heap.deleteMin();
+                    Integer key = keys.remove(node);
+                    if (key == null || key != min || heap.key(node) != min) {
+                        return name + ": deleteMin returned key " + key + ", expected " + min;
+                    }
+                    handles.remove(Integer.valueOf(node));
+                }
+                if (heap.size() != keys.size()) {
+                    return name + ": size is " + heap.size() + ", expected " + keys.size();
+                }
+            }
+            return null;
+        }
+    }
+
+    static private class TestAdaptiveHeap extends Test {
+        public TestAdaptiveHeap() {
+            super("Adaptive heap migrates with the workload and keeps its ids valid");
+        }
+
+        @Override
+        protected void test() {
+            // Random operations with a tiny window, so that the heap migrates while they run
+            String error = TestDaryHeap.check(new AdaptiveHeap(AdaptiveHeap.Engine.FIBONACCI, 16),
+                    new AdaptiveHeap(AdaptiveHeap.Engine.DARY, 16));
+            if (error != null) {
+                setFailed(error);
+                return;
+            }
+
+            int n = 20000;
+            Random random = new Random(19);
+            AdaptiveHeap heap = new AdaptiveHeap();
+            int[] ids = new int[n];
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = 100000000 + random.nextInt(1000000);
+                ids[i] = heap.insert(keys[i]);
+                heap.insert(random.nextInt(1000000)); // events, never tracked
+            }
+
+            // deleteMin-heavy phase on the events: the d-ary heap wins
+            for (int i = 0; i < 20000; i++) {
+                int id = heap.deleteMin();
+                heap.insert(heap.key(id) + random.nextInt(1000));
+            }
+            if (heap.engine() != AdaptiveHeap.Engine.DARY || heap.migrations() != 1) {
+                setFailed("deleteMin-heavy phase ended on " + heap.engine() + " after " + heap.migrations()
+                        + " migrations");
+                return;
+            }
+
+            // decreaseKey-heavy phase on the tracked entries, each becoming the new minimum: every decreaseKey
+            // sifts all the way up the d-ary heap, while it is O(1) in the fibonacci heap
+            int low = 0;
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < n; i++) {
+                    heap.decreaseKeyTo(ids[i], --low);
+                    keys[i] = low;
+                }
+            }
+            if (heap.engine() != AdaptiveHeap.Engine.FIBONACCI || heap.migrations() != 2) {
+                setFailed("decreaseKey-heavy phase ended on " + heap.engine() + " after " + heap.migrations()
+                        + " migrations");
+                return;
+            }
+            for (int i = 0; i < n; i++) {
+                if (heap.key(ids[i]) != keys[i]) {
+                    setFailed("Id " + ids[i] + " has key " + heap.key(ids[i]) + " after migrations, expected "
+                            + keys[i]);
+                    return;
+                }
+            }
+        }
+    }
+
+    static private class TestNodeFootprint extends Test {
+        public TestNodeFootprint() {
+            super("Compact nodes are smaller than the old layout and can still be checked for ownership");
+        }
+
+        @Override
+        protected void test() {
+            long legacy = ClassLayout.parseClass(LegacyNode.class).instanceSize();
+            long compact = ClassLayout.parseClass(FibonacciHeap.HeapNode.class).instanceSize();
+            if (compact >= legacy) {
+                setFailed("HeapNode takes " + compact + " bytes, the old layout " + legacy);
+                return;
+            }
+
+            // Payload nodes of the long and double engines hold no pointer to their heap
+            long longEntry = ClassLayout.parseClass(LongFibonacciHeap.IntEntry.class).instanceSize();
+            long doubleEntry = ClassLayout.parseClass(DoubleFibonacciHeap.IntEntry.class).instanceSize();
+            if (longEntry > ClassLayout.parseClass(StaticLongIntEntry.class).instanceSize()
+                    || doubleEntry > ClassLayout.parseClass(StaticDoubleIntEntry.class).instanceSize()) {
+                setFailed("IntEntry takes " + longEntry + " bytes in LongFibonacciHeap and " + doubleEntry
+                        + " in DoubleFibonacciHeap, more than a static class with the same fields");
+                return;
+            }
+            for (Class<?> type : new Class<?>[] {LongFibonacciHeap.IntEntry.class, LongFibonacciHeap.LongEntry.class,
+                    LongFibonacciHeap.Entry.class, DoubleFibonacciHeap.IntEntry.class,
+                    DoubleFibonacciHeap.LongEntry.class, DoubleFibonacciHeap.Entry.class}) {
+                if (!java.lang.reflect.Modifier.isStatic(type.getModifiers())) {
+                    setFailed(type.getName() + " is an inner class");
+                    return;
+                }
+            }
+
+            // Bytes per entry of a whole heap, trees, buckets and all, after a consolidation
+            int n = 100000;
+            FibonacciHeap heap = new FibonacciHeap();
+            FibonacciHeap other = new FibonacciHeap();
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[n];
+            for (int i = 0; i < n; i++) {
+                nodes[i] = heap.insert(i + 1);
+            }
+            heap.insert(0);
+            heap.deleteMin();
+            double perEntry = (double)GraphLayout.parseInstance(heap).totalSize() / n;
+            System.out.println("Bytes per node: " + legacy + " before, " + compact + " after; bytes per entry: "
+                    + perEntry);
+            if (perEntry >= legacy) {
+                setFailed("A heap of " + n + " nodes takes " + perEntry + " bytes per entry");
+                return;
+            }
+
+            // Ownership is found through the trees instead of a pointer to the heap
+            FibonacciHeap.HeapNode stranger = other.insert(1);
+            if (!other.contains(stranger) || heap.contains(stranger) || !heap.contains(nodes[n - 1])) {
+                setFailed("contains does not tell the heaps apart");
+                return;
+            }
+            heap.decreaseKey(nodes[n - 1], n);
+            heap.delete(nodes[n / 2]);
+            if (!heap.contains(nodes[n - 1]) || heap.contains(nodes[n / 2]) || other.contains(nodes[0])) {
+                setFailed("contains is wrong after decreaseKey and delete");
+                return;
+            }
+            heap.setLazyDelete(true);
+            heap.delete(nodes[1]);
+            if (heap.contains(nodes[1])) {
+                setFailed("contains finds a lazily deleted node");
+            }
+        }
+
+        /**
+         * The node layout before it was made compact: an inner class with separate rank and flag fields.
+         */
+        @SuppressWarnings("unused")
+        private class LegacyNode {
+            int key;
+            int rank;
+            boolean isMarked;
+            boolean isDead;
+            LegacyNode child;
+            LegacyNode next;
+            LegacyNode prev;
+            LegacyNode parent;
+        }
+
+        /**
+         * The fields of LongFibonacciHeap.IntEntry in a static nested class.
+         */
+        @SuppressWarnings("unused")
+        private static class StaticLongIntEntry extends LongFibonacciHeap.HeapNode {
+            int value;
+
+            StaticLongIntEntry() {
+                super(0);
+            }
+        }
+
+        /**
+         * The fields of DoubleFibonacciHeap.IntEntry in a static nested class.
+         */
+        @SuppressWarnings("unused")
+        private static class StaticDoubleIntEntry extends DoubleFibonacciHeap.HeapNode {
+            int value;
+
+            StaticDoubleIntEntry() {
+                super(0);
+            }
+        }
+    }
+
+    static private class TestNodePool extends Test {
+        public TestNodePool() {
+            super("Node pool reuses deleted nodes and rejects stale ones");
+        }
+
+        @Override
+        protected void test() {
+            FibonacciHeap heap = new FibonacciHeap();
+            heap.setNodePoolCapacity(4);
+            FibonacciHeap.HeapNode x = heap.insert(5);
+            int generation = x.generation();
+            heap.deleteMin();
+            FibonacciHeap.HeapNode y = heap.insert(7);
+            if (y != x || y.getKey() != 7 || y.generation() != generation + 1 || heap.pooledNodes() != 0) {
+                setFailed("insert did not reuse the deleted node");
+                return;
+            }
+            try {
+                heap.delete(y, generation);
+                setFailed("delete accepted a stale node");
+                return;
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            if (heap.size() != 1 || heap.findMin() != y) {
+                setFailed("A rejected delete changed the heap");
+                return;
+            }
+
+            for (int mode = 0; mode < 3; mode++) {
+                String error = check(mode);
+                if (error != null) {
+                    setFailed(error);
+                    return;
+                }
+            }
+
+            // Churn on a warm heap allocates nothing once the pool is filled
+            FibonacciHeap warm = new FibonacciHeap();
+            warm.setNodePoolCapacity(1024);
+            Random random = new Random(21);
+            for (int i = 0; i < 10000; i++) {
+                warm.insert(random.nextInt(1000000));
+            }
+            for (int i = 0; i < 50000; i++) {
+                warm.insert(warm.deleteMin().getKey() + random.nextInt(1000));
+            }
+            long allocated = allocatedBytes(() -> {
+                for (int i = 0; i < 50000; i++) {
+                    warm.insert(warm.deleteMin().getKey() + (i & 1023));
+                }
+            });
+            if (allocated != 0) {
+                setFailed("insert and deleteMin allocated " + allocated + " bytes with the pool on");
+            }
+        }
+
+        /**
+         * Random operations with a small pool, against a list of the live nodes and the generations read at
+         * insert. Mode 0 is plain, 1 lazy delete and 2 bounded latency.
+         */
+        private static String check(int mode) {
+            FibonacciHeap heap = new FibonacciHeap();
+            heap.setNodePoolCapacity(16);
+            heap.setLazyDelete(mode == 1);
+            heap.setBoundedLatency(mode == 2);
+            List<FibonacciHeap.HeapNode> live = new ArrayList<>();
+            List<Integer> generations = new ArrayList<>();
+            FibonacciHeap.HeapNode stale = null;
+            int staleGeneration = 0;
+            Random random = new Random(mode);
+            for (int op = 0; op < 20000; op++) {
+                int choice = random.nextInt(10);
+                if (live.isEmpty() || choice < 4) {
+                    FibonacciHeap.HeapNode node = heap.insert(random.nextInt(100000));
+                    live.add(node);
+                    generations.add(node.generation());
+                } else if (choice < 6) {
+                    int expected = Integer.MAX_VALUE;
+                    for (FibonacciHeap.HeapNode node : live) {
+                        expected = Math.min(expected, node.getKey());
+                    }
+                    FibonacciHeap.HeapNode node = heap.deleteMin();
+                    if (node.getKey() != expected) {
+                        return "mode " + mode + ": deleteMin returned " + node.getKey() + ", expected " + expected;
+                    }
+                    int i = live.indexOf(node);
+                    stale = node;
+                    staleGeneration = generations.get(i);
+                    live.remove(i);
+                    generations.remove(i);
+                } else if (choice < 8) {
+                    int i = random.nextInt(live.size());
+                    heap.decreaseKey(live.get(i), generations.get(i), random.nextInt(1000));
+                } else if (choice < 9) {
+                    int i = random.nextInt(live.size());
+                    stale = live.remove(i);
+                    staleGeneration = generations.remove(i);
+                    heap.delete(stale, staleGeneration);
+                } else if (stale != null) {
+                    int size = heap.size();
+                    try {
+                        heap.decreaseKey(stale, staleGeneration, 1);
+                        return "mode " + mode + ": decreaseKey accepted a stale node";
+                    } catch (IllegalArgumentException e) {
+                        // expected
+                    }
+                    if (heap.size() != size) {
+                        return "mode " + mode + ": a rejected decreaseKey changed the heap";
+                    }
+                }
+                if (heap.size() != live.size() || heap.pooledNodes() > 16) {
+                    return "mode " + mode + ": size is " + heap.size() + ", expected " + live.size() + ", with "
+                            + heap.pooledNodes() + " pooled nodes";
+                }
+            }
+            return null;
+        }
+    }
+
+    static private class TestHeapSnapshot extends Test {
+        public TestHeapSnapshot() {
+            super("Snapshot restores the same trees, marks, deleted nodes and counters");
+        }
+
+        @Override
+        protected void test() {
+            try {
+                Path file = Files.createTempFile("heap", ".snapshot");
+                try {
+                    test(file);
+                } finally {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                setFailed(e);
+            }
+        }
+
+        private void test(Path file) throws IOException {
+            // Marks, cuts and lazily deleted nodes below the roots
+            int n = 5000;
+            Random random = new Random(22);
+            FibonacciHeap heap = new FibonacciHeap();
+            heap.setLazyDelete(true);
+            FibonacciHeap.IntEntry[] entries = new FibonacciHeap.IntEntry[n];
+            for (int i = 0; i < n; i++) {
+                entries[i] = heap.insert(random.nextInt(10 * n), i);
+            }
+            heap.insert(-1, -1);
+            heap.deleteMin();
+            for (int i = 0; i < n; i += 3) {
+                heap.decreaseKey(entries[i], random.nextInt(100));
+            }
+            for (int i = 1; i < n; i += 7) {
+                if (entries[i] != heap.findMin()) {
+                    heap.delete(entries[i]);
+                }
+            }
+
+            HeapSnapshot.write(heap, file);
+            FibonacciHeap restored = HeapSnapshot.read(file);
+            if (restored.size() != heap.size() || restored.deadCount() != heap.deadCount()
+                    || restored.treesCount() != heap.treesCount() || restored.markedCount() != heap.markedCount()
+                    || restored.potential() != heap.potential()
+                    || !restored.counters().toString().equals(heap.counters().toString())) {
+                setFailed("Restored heap differs: size " + restored.size() + ", potential " + restored.potential()
+                        + ", expected " + heap.size() + " and " + heap.potential());
+                return;
+            }
+            int count = heap.size() + heap.deadCount();
+            FibonacciHeap.HeapNode[] expected = new FibonacciHeap.HeapNode[count];
+            FibonacciHeap.HeapNode[] actual = new FibonacciHeap.HeapNode[count];
+            heap.collectTrees(expected);
+            restored.collectTrees(actual);
+            for (int i = 0; i < count; i++) {
+                FibonacciHeap.IntEntry a = (FibonacciHeap.IntEntry) actual[i];
+                FibonacciHeap.IntEntry e = (FibonacciHeap.IntEntry) expected[i];
+                if (a.key != e.key || a.value != e.value || a.rank() != e.rank() || a.isMarked() != e.isMarked()
+                        || a.isDead() != e.isDead() || (a.parent == null) != (e.parent == null)) {
+                    setFailed("Node " + i + " differs after restore");
+                    return;
+                }
+            }
+            while (!heap.empty()) {
+                int key = heap.deleteMin().getKey();
+                FibonacciHeap.HeapNode node = restored.deleteMin();
+                if (node.getKey() != key) {
+                    setFailed("Restored heap returned " + node.getKey() + ", expected " + key);
+                    return;
+                }
+            }
+
+            // Plain nodes and the empty heap, which keeps its counters
+            HeapSnapshot.write(heap, file);
+            FibonacciHeap drained = HeapSnapshot.read(file);
+            if (!drained.empty() || !drained.counters().toString().equals(heap.counters().toString())
+                    || drained.counters().links() == 0) {
+                setFailed("Restored empty heap is not empty or lost its counters");
+                return;
+            }
+            heap = new FibonacciHeap();
+            heap.insertAll(createValues(100));
+            HeapSnapshot.write(heap, file);
+            if (HeapSnapshot.read(file).findMin().getClass() != FibonacciHeap.HeapNode.class) {
+                setFailed("Restored plain heap has other nodes");
+                return;
+            }
+
+            // Newer versions and truncated files are rejected
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[4] = (byte)(HeapSnapshot.VERSION + 1);
+            Files.write(file, bytes);
+            if (!rejected(file)) {
+                setFailed("A snapshot of a newer version was accepted");
+                return;
+            }
+            bytes[4] = (byte)HeapSnapshot.VERSION;
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+            if (!rejected(file)) {
+                setFailed("A truncated snapshot was accepted");
+            }
+        }
+
+        private static boolean rejected(Path file) {
+            try {
+                HeapSnapshot.read(file);
+                return false;
+            } catch (IOException e) {
+                return true;
+            }
+        }
+    }
+
+    static private class TestDurableHeap extends Test {
+        public TestDurableHeap() {
+            super("Durable heap recovers synced operations from its snapshot and log");
+        }
+
+        @Override
+        protected void test() {
+            Path directory = null;
+            try {
+                directory = Files.createTempDirectory("heap");
+                test(directory);
+            } catch (IOException e) {
+                setFailed(e);
+            } finally {
+                if (directory != null) {
+                    try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+                        for (Path file : (Iterable<Path>) files::iterator) {
+                            Files.delete(file);
+                        }
+                        Files.delete(directory);
+                    } catch (IOException e) {
+                        // left for the system to clean up
+                    }
+                }
+            }
+        }
+
+        private void test(Path directory) throws IOException {
+            Random random = new Random(23);
+            Map<Integer, Integer> keys = new HashMap<>();
+
+            // Every operation forced, then a restart without closing
+            DurableHeap heap = new DurableHeap(directory, 0, 1 << 16);
+            randomOps(heap, keys, random, 3000);
+            if (heap.commits() != heap.records()) {
+                setFailed(heap.commits() + " commits for " + heap.records() + " records with a window of 0");
+                return;
+            }
+            heap = new DurableHeap(directory, 0, 1 << 16);
+            String error = compare(heap, keys);
+            if (error != null) {
+                setFailed("After replay: " + error);
+                return;
+            }
+
+            // Checkpoint, then operations in one large window, of which only the synced ones survive
+            heap.checkpoint();
+            heap.close();
+            heap = new DurableHeap(directory, 60000000, 1 << 20);
+            randomOps(heap, keys, random, 2000);
+            heap.sync();
+            Map<Integer, Integer> synced = new HashMap<>(keys);
+            randomOps(heap, keys, random, 500);
+            if (heap.commits() != 1) {
+                setFailed(heap.commits() + " commits in one window");
+                return;
+            }
+            heap = new DurableHeap(directory, 60000000, 1 << 20);
+            error = compare(heap, synced);
+            if (error != null) {
+                setFailed("After snapshot and replay: " + error);
+                return;
+            }
+
+            // A batch torn by a crash is dropped
+            heap.close();
+            try (java.nio.channels.FileChannel log = java.nio.channels.FileChannel.open(directory.resolve("heap-1.wal"),
+                    java.nio.file.StandardOpenOption.WRITE, java.nio.file.StandardOpenOption.APPEND)) {
+                log.write(java.nio.ByteBuffer.wrap(new byte[] {100, 0, 0, 0, 1, 2, 3, 4, 1, 0}));
+            }
+            heap = new DurableHeap(directory, 0, 1 << 16);
+            randomOps(heap, synced, random, 100);
+            heap.close();
+            heap = new DurableHeap(directory, 0, 1 << 16);
+            error = compare(heap, synced);
+            if (error != null) {
+                setFailed("After a torn batch: " + error);
+                return;
+            }
+
+            // An operation whose record cannot be forced fails without changing the heap
+            heap.close();
+            DurableHeap closed = heap;
+            int min = closed.findMin();
+            for (Runnable op : new Runnable[] {() -> closed.insert(-1), () -> closed.deleteMin()}) {
+                try {
+                    op.run();
+                    setFailed("An operation succeeded on a closed log");
+                    return;
+                } catch (java.io.UncheckedIOException e) {
+                    // expected
+                }
+                error = compare(closed, synced);
+                if (error != null || closed.findMin() != min) {
+                    setFailed("A failed operation changed the heap: " + error);
+                    return;
+                }
+            }
+            heap = new DurableHeap(directory, 0, 1 << 16);
+            error = compare(heap, synced);
+            if (error != null) {
+                setFailed("After failed operations: " + error);
+                return;
+            }
+
+            List<Integer> expected = new ArrayList<>(synced.values());
+            Collections.sort(expected);
+            for (int key : expected) {
+                int id = heap.deleteMin();
+                if (heap.key(id) != key) {
+                    setFailed("deleteMin returned key " + heap.key(id) + ", expected " + key);
+                    return;
+                }
+            }
+            heap.close();
+        }
+
+        /**
+         * Run random operations on the heap and on a map of the ids in it to their keys.
+         */
+        private static void randomOps(DurableHeap heap, Map<Integer, Integer> keys, Random random, int count) {
+            List<Integer> ids = new ArrayList<>(keys.keySet());
+            for (int op = 0; op < count; op++) {
+                int choice = random.nextInt(8);
+                if (ids.isEmpty() || choice < 3) {
+                    int key = random.nextInt(100000);
+                    int id = heap.insert(key);
+                    keys.put(id, key);
+                    ids.add(id);
+                } else if (choice < 5) {
+                    int id = ids.get(random.nextInt(ids.size()));
+                    int delta = random.nextInt(1000);
+                    heap.decreaseKey(id, delta);
+                    keys.put(id, keys.get(id) - delta);
+                } else if (choice < 6) {
+                    Integer id = ids.remove(random.nextInt(ids.size()));
+                    heap.delete(id);
+                    keys.remove(id);
+                } else {
+                    Integer id = heap.deleteMin();
+                    keys.remove(id);
+                    ids.remove(id);
+                }
+            }
+        }
+
+        /**
+         * Check the size, the minimum and the key of every id against the map.
+         */
+        private static String compare(DurableHeap heap, Map<Integer, Integer> keys) {
+            if (heap.size() != keys.size()) {
+                return "size is " + heap.size() + ", expected " + keys.size();
+            }
+            for (Map.Entry<Integer, Integer> entry : keys.entrySet()) {
+                if (heap.key(entry.getKey()) != entry.getValue()) {
+                    return "id " + entry.getKey() + " has key " + heap.key(entry.getKey()) + ", expected "
+                            + entry.getValue();
+                }
+            }
+            if (!keys.isEmpty() && heap.key(heap.findMin()) != Collections.min(keys.values())) {
+                return "minimum is " + heap.key(heap.findMin()) + ", expected " + Collections.min(keys.values());
+            }
+            return null;
+        }
+    }
+
+    static private class TestCapacity extends Test {
+        public TestCapacity() {
+            super("Capacity-bounded heap keeps the largest keys of a stream");
+        }
+
+        @Override
+        protected void test() {
+            int n = 100000;
+            int k = 100;
+            Random random = new Random(24);
+            int[] stream = new int[n];
+            FibonacciHeap heap = new FibonacciHeap();
+            heap.setCapacity(k, FibonacciHeap.EvictionPolicy.EVICT_MIN);
+            heap.setNodePoolCapacity(16);
+            for (int i = 0; i < n; i++) {
+                stream[i] = random.nextInt(10 * n);
+                heap.insert(stream[i]);
+                if (heap.size() > k) {
+                    setFailed("Heap grew to " + heap.size() + " nodes beyond its capacity " + k);
+                    return;
+                }
+            }
+            if (heap.evictions() + heap.rejections() + k != n) {
+                setFailed(heap.evictions() + " evictions and " + heap.rejections() + " rejections for " + n
+                        + " keys");
+                return;
+            }
+            Arrays.sort(stream);
+            for (int i = n - k; i < n; i++) {
+                if (heap.deleteMin().getKey() != stream[i]) {
+                    setFailed("Kept keys are not the " + k + " largest");
+                    return;
+                }
+            }
+
+            // Equal keys are rejected, or replace the minimum, depending on the policy
+            heap = new FibonacciHeap();
+            heap.setCapacity(2, FibonacciHeap.EvictionPolicy.EVICT_MIN);
+            heap.insert(5, "a");
+            heap.insert(5, "b");
+            if (heap.insert(5, "c") != null || heap.insert(4, "d") != null || heap.size() != 2) {
+                setFailed("EVICT_MIN accepted a key not larger than the minimum");
+                return;
+            }
+            heap.setCapacity(2, FibonacciHeap.EvictionPolicy.EVICT_MIN_OR_EQUAL);
+            FibonacciHeap.Entry<String> newest = heap.insert(5, "c");
+            if (newest == null || heap.insert(4, "d") != null || !heap.contains(newest) || heap.evictions() != 1) {
+                setFailed("EVICT_MIN_OR_EQUAL did not keep the newest of equal keys");
+                return;
+            }
+            heap.setCapacity(2, FibonacciHeap.EvictionPolicy.REJECT);
+            if (heap.insert(100) != null || heap.size() != 2) {
+                setFailed("REJECT accepted an insert into a full heap");
+                return;
+            }
+
+            // Shrinking the capacity and melding evict the smallest keys
+            heap = new FibonacciHeap();
+            heap.insertAll(new int[] {1, 2, 3, 4, 5, 6});
+            heap.setCapacity(4, FibonacciHeap.EvictionPolicy.EVICT_MIN);
+            FibonacciHeap other = new FibonacciHeap();
+            other.insertAll(new int[] {7, 8});
+            heap.meld(other);
+            if (heap.size() != 4 || heap.findMin().getKey() != 5 || heap.evictions() != 4) {
+                setFailed("Capacity not enforced after shrinking and melding: size " + heap.size() + ", min "
+                        + heap.findMin().getKey());
+            }
+        }
+    }
+
+    static private class TestKWayMerge extends Test {
+        public TestKWayMerge() {
+            super("K-way merge of sorted sources over replaceMin");
+        }
+
+        @Override
+        protected void test() {
+            // replaceMin against a sorted model, in every mode of the heap
+            for (int mode = 0; mode < 3; mode++) {
+                Random random = new Random(25 + mode);
+                FibonacciHeap heap = new FibonacciHeap();
+                heap.setBoundedLatency(mode == 1);
+                heap.setLazyDelete(mode == 2);
+                List<FibonacciHeap.HeapNode> nodes = new ArrayList<>();
+                PriorityQueue<Integer> model = new PriorityQueue<>();
+                for (int i = 0; i < 2000; i++) {
+                    int key = random.nextInt(1000);
+                    nodes.add(heap.insert(key));
+                    model.add(key);
+                }
+                for (int i = 0; i < 20000; i++) {
+                    int op = random.nextInt(10);
+                    if (op == 0) {
+                        FibonacciHeap.HeapNode node = nodes.remove(random.nextInt(nodes.size()));
+                        model.remove(node.getKey());
+                        heap.delete(node);
+                        int key = random.nextInt(1000);
+                        nodes.add(heap.insert(key));
+                        model.add(key);
+                    } else {
+                        FibonacciHeap.HeapNode min = heap.findMin();
+                        int key = model.poll() + random.nextInt(100) - 10;
+                        if (heap.replaceMin(key) != min || min.getKey() != key) {
+                            setFailed("replaceMin did not reuse the minimum node, mode " + mode);
+                            return;
+                        }
+                        model.add(key);
+                    }
+                    if (heap.findMin().getKey() != model.peek() || heap.size() != model.size()) {
+                        setFailed("replaceMin broke the heap order, mode " + mode + ", operation " + i);
+                        return;
+                    }
+                }
+                for (int i = 0; i < nodes.size(); i++) {
+                    if (heap.deleteMin().getKey() != model.poll()) {
+                        setFailed("Heap drained out of order after replaceMin, mode " + mode);
+                        return;
+                    }
+                }
+                if (heap.markedCount() != 0) {
+                    setFailed(heap.markedCount() + " marked nodes in an empty heap, mode " + mode);
+                    return;
+                }
+            }
+            if (new FibonacciHeap().replaceMin(1) != null || new LongFibonacciHeap().replaceMin(1) != null) {
+                setFailed("replaceMin on an empty heap did not return null");
+                return;
+            }
+
+            // Sorted int runs with duplicates and empty runs, merged with batches of one and of the default size
+            Random random = new Random(250);
+            int k = 300;
+            int[][] runs = new int[k][];
+            List<Integer> all = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                runs[i] = new int[i % 7 == 0 ? 0 : random.nextInt(200)];
+                for (int j = 0; j < runs[i].length; j++) {
+                    runs[i][j] = random.nextInt(5000) - 2500;
+                    all.add(runs[i][j]);
+                }
+                Arrays.sort(runs[i]);
+            }
+            Collections.sort(all);
+            for (int batch : new int[] {1, 3, KWayMerge.DEFAULT_BATCH}) {
+                List<PrimitiveIterator.OfInt> sources = new ArrayList<>();
+                for (int[] run : runs) {
+                    sources.add(Arrays.stream(run).iterator());
+                }
+                int[] merged = KWayMerge.merge(sources, batch).stream().toArray();
+                if (merged.length != all.size()) {
+                    setFailed("Merge with batch " + batch + " returned " + merged.length + " of " + all.size()
+                            + " elements");
+                    return;
+                }
+                for (int i = 0; i < merged.length; i++) {
+                    if (merged[i] != all.get(i)) {
+                        setFailed("Merge with batch " + batch + " is out of order at " + i);
+                        return;
+                    }
+                }
+            }
+            KWayMerge.Ints empty = KWayMerge.merge();
+            try {
+                empty.nextInt();
+                setFailed("An empty merge returned an element");
+                return;
+            } catch (NoSuchElementException e) {
+                // expected
+            }
+
+            // Long keys beyond the int range
+            long[] longs = KWayMerge.mergeLongs(LongStream.of(-1L << 40, 3, 1L << 40).iterator(),
+                    LongStream.empty().iterator(), LongStream.of(3, 1L << 41).iterator()).stream().toArray();
+            if (!Arrays.equals(longs, new long[] {-1L << 40, 3, 3, 1L << 40, 1L << 41})) {
+                setFailed("Long merge returned " + Arrays.toString(longs));
+                return;
+            }
+
+            // A source out of order is reported, and again on every later call
+            KWayMerge.Ints unsorted = KWayMerge.merge(IntStream.of(1, 5, 2).iterator(), IntStream.of(3).iterator());
+            if (unsorted.nextInt() != 1 || unsorted.nextInt() != 3) {
+                setFailed("Merge of an unsorted source went wrong before the unsorted element");
+                return;
+            }
+            for (int i = 0; i < 2; i++) {
+                try {
+                    unsorted.nextInt();
+                    setFailed("An unsorted source was merged");
+                    return;
+                } catch (IllegalStateException e) {
+                    // expected
+                }
+            }
+        }
+    }
+
+    static private class StatisticsTest extends Test {
+
+        public StatisticsTest() {
+            super("Perform needed set of instructions and print the statistics");
+        }
+
+        @Override
+        protected void test() {
+            System.out.println("Sequence 1:");
+            try {
+                sequence1();
+            } catch (Exception e) {
+                setFailed(e);
+            }
+            System.out.println("*********************************");
+            System.out.println("Sequence 2:");
+            try {
+                sequence2();
+            } catch (Exception e) {
+                setFailed(e);
+            }
+        }
+
+        private void sequence1() {
+            for (int i = 0; i < 3; i++) {
+                int m = (i + 1) * 1000;
+                System.out.println("m = " + m);
+                int[] vals = new int[m];
+                for (int j = 0; j < m; j++) {
+                    vals[j] = m-j;
+                }
+
+                FibonacciHeap heap = new FibonacciHeap();
+                for (int val : vals) {
+                    heap.insert(val);
+                }
+
+                System.out.println("totalLinks: " + heap.counters().links());
+                System.out.println("totalCuts: " + heap.counters().cuts());
+                System.out.println("Potential: " + heap.potential());
+            }
+        }
+
+        private void sequence2() {
+            for (int i = 0; i < 3; i++) {
+                int m = (i + 1) * 1000;
+                System.out.println("m = " + m);
+                int[] vals = new int[m];
+                for (int j = 0; j < m; j++) {
+                    vals[j] = m-j;
+                }
+
+                FibonacciHeap heap = new FibonacciHeap();
+                for (int val : vals) {
+                    heap.insert(val);
+                }
+                for (int j = 0; j < m / 2; j++) {
+                    heap.deleteMin();
+                }
+
+                System.out.println("totalLinks: " + heap.counters().links());
+                System.out.println("totalCuts: " + heap.counters().cuts());
+                System.out.println("Potential: " + heap.potential());
+            }
+        }
+    }
+
+    public static void main(String[] argv) {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Test[] tests = { 
+            new TestMeld1(),
+            new TestMeld2(),
+            new TestMeld3(),
+            new TestMeld4(),
+            new TestMeld5(),
+            new TestInsert(),
+            new TestFindMin1(),
+            new TestFindMin2(),
+            new TestDeleteMin(),
+            new TestDelete(),
+            new TestDecreaseKey(),
+            new TestPotential(),
+            new TestEmpty(),
+            new TestCountersRep(),
+            new TestIntHeapDeleteMin(),
+            new TestIntHeapDecreaseKeyAndDelete(),
+            new TestIntHeapMeld(),
+            new TestDeleteMinAllocation(),
+            new TestCounters(),
+            new TestInsertAll(),
+            new TestPollMin(),
+            new TestLazyDelete(),
+            new TestNegativeKeys(),
+            new TestLongHeap(),
+            new TestDoubleHeap(),
+            new TestIndexedHeap(),
+            new TestPayload(),
+            new TestConcurrentHeap(),
+            new TestMultiQueue(),
+            new TestBoundedLatency(),
+            new TestInstrumentation(),
+            new TestHeapMonitor(),
+            new TestAddressableHeaps(),
+            new TestRadixHeap(),
+            new TestDaryHeap(),
+            new TestAdaptiveHeap(),
+            new TestNodeFootprint(),
+            new TestNodePool(),
+            new TestHeapSnapshot(),
+            new TestDurableHeap(),
+            new TestCapacity(),
+            new TestKWayMerge(),
+            new StatisticsTest()
+        };
+
+        for (Test test : tests) {
+            try {
+                executor.submit(test).get(5, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                test.setFailed("Timed out. Infinite loop");
+            } catch (Exception e) {
+                System.out.println(e.getMessage());
+                System.exit(1);
+            }
+        }
+        executor.shutdown();
+
+        int failed = 0, i = 0;
+        for (Test test : tests) {
+            if (test.failed()) {
+                ++failed;
+            }
+            System.out.printf("Test %2d | " + test + "\n", ++i);
+        }
+        System.out.println("Failed "+failed+" Out of "+tests.length+" tests");
+        System.out.printf("Grade:\n%.0f\n", 
+                100 * (1 - (float)failed/tests.length));
+        System.exit(failed == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,84 @@
+package fibonacciheap;
+
+/**
+ * HeapCounters
+ * <p>
+ * A snapshot of the operation counters of a single heap, taken by counters().
+ */
+
+public final class HeapCounters {
+    private final long links;
+    private final long cuts;
+    private final long cascadingCuts;
+    private final int maxCascadeDepth;
+    private final long consolidations;
+    private final long rootsScanned;
+    private final long marksSet;
+
+    HeapCounters(long links, long cuts, long cascadingCuts, int maxCascadeDepth, long consolidations,
+                 long rootsScanned, long marksSet) {
+        this.links = links;
+        this.cuts = cuts;
+        this.cascadingCuts = cascadingCuts;
+        this.maxCascadeDepth = maxCascadeDepth;
+        this.consolidations = consolidations;
+        this.rootsScanned = rootsScanned;
+        this.marksSet = marksSet;
+    }
+
+    /**
+     * Number of link operations, each hanging one tree under the root of another tree of the same rank.
+     */
+    public long links() {
+        return links;
+    }
+
+    /**
+     * Number of cut operations, including the ones made by cascading cuts.
+     */
+    public long cuts() {
+        return cuts;
+    }
+
+    /**
+     * Number of cuts made by cascading cuts, i.e. the sum of the cascade depths of all decreaseKey calls.
+     */
+    public long cascadingCuts() {
+        return cascadingCuts;
+    }
+
+    /**
+     * Largest number of cascading cuts made by a single decreaseKey call.
+     */
+    public int maxCascadeDepth() {
+        return maxCascadeDepth;
+    }
+
+    /**
+     * Number of successive-linking passes.
+     */
+    public long consolidations() {
+        return consolidations;
+    }
+
+    /**
+     * Number of roots visited by all successive-linking passes.
+     */
+    public long rootsScanned() {
+        return rootsScanned;
+    }
+
+    /**
+     * Number of times a node was marked after losing a child.
+     */
+    public long marksSet() {
+        return marksSet;
+    }
+
+    @Override
+    public String toString() {
+        return "links=" + links + " cuts=" + cuts + " cascadingCuts=" + cascadingCuts
+                + " maxCascadeDepth=" + maxCascadeDepth + " consolidations=" + consolidations
+                + " rootsScanned=" + rootsScanned + " marksSet=" + marksSet;
+    }
+}
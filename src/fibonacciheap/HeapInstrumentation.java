@@ -0,0 +1,49 @@
+package fibonacciheap;
+
+/**
+ * HeapInstrumentation
+ * <p>
+ * Hooks a heap calls around its operations. Every hook has an empty default, and a heap without
+ * instrumentation calls NONE, whose calls the JIT inlines to nothing; start() returns 0 there, so no clock is read.
+ * <p>
+ * An operation calls start() before it begins and passes the returned value to its hook when it ends.
+ */
+
+public interface HeapInstrumentation {
+    /**
+     * Instrumentation that records nothing.
+     */
+    HeapInstrumentation NONE = new HeapInstrumentation() {
+    };
+
+    /**
+     * Return the start time of an operation, to be passed to its hook.
+     */
+    default long start() {
+        return 0;
+    }
+
+    default void insert(long start) {
+    }
+
+    default void deleteMin(long start) {
+    }
+
+    default void decreaseKey(long start) {
+    }
+
+    default void meld(long start) {
+    }
+
+    /**
+     * Called at the end of a consolidation that linked the given number of roots.
+     */
+    default void consolidate(int roots, long start) {
+    }
+
+    /**
+     * Called after a cut, with the number of cascading cuts it caused.
+     */
+    default void cascade(int depth) {
+    }
+}
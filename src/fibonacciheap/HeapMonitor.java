@@ -0,0 +1,205 @@
+package fibonacciheap;
+
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * HeapMonitor
+ * <p>
+ * Exposes the shape of a named FibonacciHeap as a platform MBean, under the object name
+ * fibonacciheap:type=FibonacciHeap,name=&lt;name&gt;, to be watched from JMX tooling.
+ * <p>
+ * Like the heap, the monitor belongs to the thread that owns the heap: that thread calls publish(), or the
+ * cheaper publishIfDue() from its own loop, to copy the shape into an immutable snapshot. Monitoring threads
+ * only read the last published snapshot through a volatile field, so they never touch the nodes of the heap and
+ * never race with its owner.
+ */
+
+public class HeapMonitor implements HeapMonitorMXBean, AutoCloseable {
+    private final String name;
+    private final FibonacciHeap heap;
+    private final ObjectName objectName;
+    private final long intervalNanos;
+    private volatile Snapshot snapshot;
+
+    /**
+     * Publish a first snapshot of the heap and register the monitor under the given name, with a publication
+     * interval of one second for publishIfDue().
+     * @param name name of the heap, unique among the registered heaps
+     * @param heap heap to monitor
+     */
+    public HeapMonitor(String name, FibonacciHeap heap) {
+        this(name, heap, 1000);
+    }
+
+    /**
+     * Publish a first snapshot of the heap and register the monitor under the given name.
+     * Throws IllegalArgumentException if a heap with that name is already registered.
+     * @param name name of the heap, unique among the registered heaps
+     * @param heap heap to monitor
+     * @param intervalMillis time between two snapshots published by publishIfDue()
+     */
+    public HeapMonitor(String name, FibonacciHeap heap, long intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("Interval must be non-negative: " + intervalMillis);
+        }
+        this.name = Objects.requireNonNull(name);
+        this.heap = Objects.requireNonNull(heap);
+        this.objectName = objectName(name);
+        this.intervalNanos = intervalMillis * 1_000_000;
+        publish();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(this, objectName);
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalArgumentException("A heap named " + name + " is already registered", e);
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * public static ObjectName objectName(String name)
+     * <p>
+     * Return the object name the monitor of the named heap is registered under.
+     */
+    public static ObjectName objectName(String name) {
+        try {
+            return new ObjectName("fibonacciheap:type=FibonacciHeap,name=" + ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * public void publish()
+     * <p>
+     * Copy the shape of the heap into a new snapshot for the monitoring threads. Must be called by the thread
+     * that owns the heap. Takes time linear in the number of trees.
+     */
+    public void publish() {
+        HeapCounters counters = heap.counters();
+        long now = System.nanoTime();
+        Snapshot previous = snapshot;
+        double linksPerSecond = 0;
+        double cutsPerSecond = 0;
+        if (previous != null && now > previous.nanoTime) {
+            double seconds = (now - previous.nanoTime) / 1e9;
+            linksPerSecond = (counters.links() - previous.links) / seconds;
+            cutsPerSecond = (counters.cuts() - previous.cuts) / seconds;
+        }
+        snapshot = new Snapshot(heap.size(), heap.treesCount(), heap.markedCount(), heap.potential(),
+                heap.countersRep(), counters.links(), counters.cuts(), linksPerSecond, cutsPerSecond, now,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * public boolean publishIfDue()
+     * <p>
+     * Publish a snapshot if the publication interval has passed since the last one, and return true if it did.
+     * Must be called by the thread that owns the heap; costs one clock read when no snapshot is due.
+     */
+    public boolean publishIfDue() {
+        if (System.nanoTime() - snapshot.nanoTime < intervalNanos) {
+            return false;
+        }
+        publish();
+        return true;
+    }
+
+    /**
+     * public void close()
+     * <p>
+     * Unregister the monitor. Does nothing if it is no longer registered.
+     */
+    @Override
+    public void close() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            // already unregistered
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getSize() {
+        return snapshot.size;
+    }
+
+    @Override
+    public int getTreesCount() {
+        return snapshot.treesCount;
+    }
+
+    @Override
+    public int getMarkedCount() {
+        return snapshot.markedCount;
+    }
+
+    @Override
+    public int getPotential() {
+        return snapshot.potential;
+    }
+
+    @Override
+    public int[] getRankHistogram() {
+        return snapshot.rankHistogram.clone();
+    }
+
+    @Override
+    public double getLinksPerSecond() {
+        return snapshot.linksPerSecond;
+    }
+
+    @Override
+    public double getCutsPerSecond() {
+        return snapshot.cutsPerSecond;
+    }
+
+    @Override
+    public long getPublishedAt() {
+        return snapshot.publishedAt;
+    }
+
+    /**
+     * Shape of the heap at one moment. Immutable, so publishing it through a volatile field is safe.
+     */
+    private static final class Snapshot {
+        final int size;
+        final int treesCount;
+        final int markedCount;
+        final int potential;
+        final int[] rankHistogram;
+        final long links;
+        final long cuts;
+        final double linksPerSecond;
+        final double cutsPerSecond;
+        final long nanoTime;
+        final long publishedAt;
+
+        Snapshot(int size, int treesCount, int markedCount, int potential, int[] rankHistogram, long links,
+                 long cuts, double linksPerSecond, double cutsPerSecond, long nanoTime, long publishedAt) {
+            this.size = size;
+            this.treesCount = treesCount;
+            this.markedCount = markedCount;
+            this.potential = potential;
+            this.rankHistogram = rankHistogram;
+            this.links = links;
+            this.cuts = cuts;
+            this.linksPerSecond = linksPerSecond;
+            this.cutsPerSecond = cutsPerSecond;
+            this.nanoTime = nanoTime;
+            this.publishedAt = publishedAt;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package fibonacciheap;
+
+/**
+ * HeapMonitorMXBean
+ * <p>
+ * Management interface of HeapMonitor. Every attribute is read from the last snapshot the owner of the heap
+ * published, which may be up to one publication interval old. Each getter reads the snapshot anew, so the
+ * attributes of one bulk read can come from two snapshots if the owner publishes in between; compare
+ * PublishedAt before and after the read to detect it.
+ */
+
+public interface HeapMonitorMXBean {
+    /**
+     * Name the heap was registered under.
+     */
+    String getName();
+
+    /**
+     * Number of elements in the heap.
+     */
+    int getSize();
+
+    /**
+     * Number of trees in the heap.
+     */
+    int getTreesCount();
+
+    /**
+     * Number of marked nodes in the heap.
+     */
+    int getMarkedCount();
+
+    /**
+     * Potential of the heap, #trees + 2*#marked.
+     */
+    int getPotential();
+
+    /**
+     * Rank histogram of the roots, as returned by countersRep().
+     */
+    int[] getRankHistogram();
+
+    /**
+     * Link operations per second between the last two snapshots.
+     */
+    double getLinksPerSecond();
+
+    /**
+     * Cut operations per second between the last two snapshots.
+     */
+    double getCutsPerSecond();
+
+    /**
+     * Wall-clock time of the snapshot, in milliseconds since the epoch.
+     */
+    long getPublishedAt();
+}
@@ -0,0 +1,290 @@
+package fibonacciheap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * HeapSnapshot
+ * <p>
+ * Writes a FibonacciHeap to a file and reads it back with the same trees, marks, deleted nodes and counters,
+ * so the restored heap has the same potential() and the same amortized state as the one saved. The file is
+ * written and read through memory mappings, one column at a time, so restoring a heap costs one allocation
+ * per node and no parsing: the nodes are rebuilt from bulk copies of their keys and states.
+ * <p>
+ * The nodes are stored in the order of a walk of the heap: its roots from the minimum on, then the children of
+ * each stored node from its child pointer on. Since the rank of a node is its number of children, the order and
+ * the ranks determine every parent, child and sibling link, and no link is stored. The file, little-endian, is
+ * <pre>
+ *  offset  size  field
+ *       0     4  magic, 0x46494248 ("FIBH")
+ *       4     4  version, 1
+ *       8     4  header size in bytes, 88; the node columns start there
+ *      12     4  node kind: 0 for HeapNode, 1 for IntEntry, 2 for LongEntry
+ *      16     4  node count n, including the nodes deleted in lazy delete mode
+ *      20     4  size()
+ *      24     4  number of trees
+ *      28     4  number of marked nodes
+ *      32     4  deadCount()
+ *      36     4  counters: maxCascadeDepth
+ *      40    48  counters: links, cuts, cascadingCuts, consolidations, rootsScanned, marksSet, 8 bytes each
+ *      88    4n  keys
+ *   88+4n     n  states: rank in bits 0-5, marked in bit 6, deleted in bit 7
+ *   88+5n  4n/8n values of IntEntry or LongEntry nodes, absent for HeapNode
+ * </pre>
+ * A later version may only append fields to the header, growing the header size, or append columns, so a
+ * reader finds the columns it knows at the same offsets after the header. Readers reject versions newer than
+ * their own. Delete modes, the node pool and the instrumentation are settings of the program, not of the heap,
+ * and are not saved.
+ */
+
+public final class HeapSnapshot {
+    /**
+     * First 4 bytes of every snapshot.
+     */
+    public static final int MAGIC = 0x46494248;
+
+    /**
+     * Version of the format written by this class.
+     */
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 88;
+    private static final int KIND_NODE = 0;
+    private static final int KIND_INT_ENTRY = 1;
+    private static final int KIND_LONG_ENTRY = 2;
+    private static final int RANK_MASK = 0x3F;
+    private static final int MARKED = 0x40;
+    private static final int DEAD = 0x80;
+    private static final int CHUNK = 1 << 22; // nodes per mapping, which keeps each mapping under 2 GB
+
+    private HeapSnapshot() {
+    }
+
+    /**
+     * public static void write(FibonacciHeap heap, Path file)
+     * <p>
+     * Write the heap to the file, which is replaced atomically: the snapshot is written next to it, forced to
+     * the disk and moved into place, and the directory is forced after the move, so a crash leaves either the
+     * old file or the new one. The heap is not changed.
+     * Throws IllegalArgumentException if the heap mixes node types, or holds Entry&lt;V&gt; nodes.
+     */
+    public static void write(FibonacciHeap heap, Path file) throws IOException {
+        int count = heap.size() + heap.deadCount();
+        FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[count];
+        heap.collectTrees(nodes);
+        int kind = count == 0 ? KIND_NODE : kindOf(nodes[0]);
+        for (int i = 1; i < count; i++) {
+            if (nodes[i].getClass() != nodes[0].getClass()) {
+                throw new IllegalArgumentException("Cannot save both " + nodes[0].getClass().getSimpleName()
+                        + " and " + nodes[i].getClass().getSimpleName() + " nodes");
+            }
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = map(channel, MapMode.READ_WRITE, 0, HEADER_SIZE);
+            HeapCounters counters = heap.counters();
+            header.putInt(MAGIC).putInt(VERSION).putInt(HEADER_SIZE).putInt(kind).putInt(count)
+                    .putInt(heap.size()).putInt(rootsOf(nodes, count)).putInt(heap.markedCount())
+                    .putInt(heap.deadCount()).putInt(counters.maxCascadeDepth())
+                    .putLong(counters.links()).putLong(counters.cuts()).putLong(counters.cascadingCuts())
+                    .putLong(counters.consolidations()).putLong(counters.rootsScanned())
+                    .putLong(counters.marksSet());
+            header.force();
+
+            long states = HEADER_SIZE + (long)count * Integer.BYTES;
+            long values = states + count;
+            int valueBytes = valueBytes(kind);
+            for (int from = 0; from < count; from += CHUNK) {
+                int length = Math.min(CHUNK, count - from);
+                MappedByteBuffer keyColumn = map(channel, MapMode.READ_WRITE,
+                        HEADER_SIZE + (long)from * Integer.BYTES, (long)length * Integer.BYTES);
+                MappedByteBuffer stateColumn = map(channel, MapMode.READ_WRITE, states + from, length);
+                MappedByteBuffer valueColumn = valueBytes == 0 ? null
+                        : map(channel, MapMode.READ_WRITE, values + (long)from * valueBytes, (long)length * valueBytes);
+                for (int i = from; i < from + length; i++) {
+                    FibonacciHeap.HeapNode node = nodes[i];
+                    keyColumn.putInt(node.key);
+                    stateColumn.put((byte)(node.rank() | (node.isMarked() ? MARKED : 0) | (node.isDead() ? DEAD : 0)));
+                    if (kind == KIND_INT_ENTRY) {
+                        valueColumn.putInt(((FibonacciHeap.IntEntry)node).value);
+                    } else if (kind == KIND_LONG_ENTRY) {
+                        valueColumn.putLong(((FibonacciHeap.LongEntry)node).value);
+                    }
+                }
+
+                // Writes through a mapping reach the disk by forcing the mapping, not the channel
+                keyColumn.force();
+                stateColumn.force();
+                if (valueColumn != null) {
+                    valueColumn.force();
+                }
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(file.toAbsolutePath().getParent());
+    }
+
+    /**
+     * public static FibonacciHeap read(Path file)
+     * <p>
+     * Read a heap written by write. Its nodes are of the type that was saved: HeapNode, IntEntry or LongEntry.
+     * Throws IOException if the file is not a snapshot, is of a newer version, or is truncated or inconsistent.
+     */
+    public static FibonacciHeap read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException(file + " is too short for a heap snapshot");
+            }
+            ByteBuffer header = map(channel, MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(file + " is not a heap snapshot");
+            }
+            int version = header.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException(file + " has version " + version + ", this reader supports up to " + VERSION);
+            }
+            int headerSize = header.getInt();
+            int kind = header.getInt();
+            int count = header.getInt();
+            int size = header.getInt();
+            int roots = header.getInt();
+            int marked = header.getInt();
+            int dead = header.getInt();
+            int maxCascadeDepth = header.getInt();
+            HeapCounters counters = new HeapCounters(header.getLong(), header.getLong(), header.getLong(),
+                    maxCascadeDepth, header.getLong(), header.getLong(), header.getLong());
+            if (headerSize < HEADER_SIZE || kind < KIND_NODE || kind > KIND_LONG_ENTRY || count < 0) {
+                throw new IOException(file + " has a corrupt header");
+            }
+            int valueBytes = valueBytes(kind);
+            long states = headerSize + (long)count * Integer.BYTES;
+            long values = states + count;
+            if (channel.size() < values + (long)count * valueBytes) {
+                throw new IOException(file + " is truncated");
+            }
+
+            FibonacciHeap heap = new FibonacciHeap();
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[count];
+            int[] keys = new int[Math.min(CHUNK, count)];
+            byte[] flags = new byte[keys.length];
+            int[] intValues = kind == KIND_INT_ENTRY ? new int[keys.length] : null;
+            long[] longValues = kind == KIND_LONG_ENTRY ? new long[keys.length] : null;
+            for (int from = 0; from < count; from += CHUNK) {
+                int length = Math.min(CHUNK, count - from);
+                map(channel, MapMode.READ_ONLY, headerSize + (long)from * Integer.BYTES, (long)length * Integer.BYTES)
+                        .asIntBuffer().get(keys, 0, length);
+                map(channel, MapMode.READ_ONLY, states + from, length).get(flags, 0, length);
+                if (intValues != null) {
+                    map(channel, MapMode.READ_ONLY, values + (long)from * valueBytes, (long)length * valueBytes)
+                            .asIntBuffer().get(intValues, 0, length);
+                } else if (longValues != null) {
+                    map(channel, MapMode.READ_ONLY, values + (long)from * valueBytes, (long)length * valueBytes)
+                            .asLongBuffer().get(longValues, 0, length);
+                }
+                for (int i = 0; i < length; i++) {
+                    FibonacciHeap.HeapNode node;
+                    if (intValues != null) {
+                        node = new FibonacciHeap.IntEntry(keys[i], intValues[i]);
+                    } else if (longValues != null) {
+                        node = new FibonacciHeap.LongEntry(keys[i], longValues[i]);
+                    } else {
+                        node = new FibonacciHeap.HeapNode(keys[i]);
+                    }
+                    int state = flags[i];
+                    node.setRank(state & RANK_MASK);
+                    node.setMarked((state & MARKED) != 0);
+                    node.setDead((state & DEAD) != 0);
+                    nodes[from + i] = node;
+                }
+            }
+
+            try {
+                heap.restoreTrees(nodes, count, roots, counters);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(file + " holds no valid heap: " + e.getMessage(), e);
+            }
+            if (heap.size() != size || heap.deadCount() != dead || heap.markedCount() != marked) {
+                throw new IOException(file + " holds " + heap.size() + " live, " + heap.deadCount() + " deleted and "
+                        + heap.markedCount() + " marked nodes, its header says " + size + ", " + dead + " and "
+                        + marked);
+            }
+            return heap;
+        }
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Force the entries of a directory to the disk, so that files created, renamed or deleted in it survive a
+     * crash. Windows cannot open a directory as a file and does not need it, so it is skipped there.
+     * @param directory directory whose entries changed
+     */
+    static void forceDirectory(Path directory) throws IOException {
+        if (System.getProperty("os.name").startsWith("Windows")) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Map a region of a file as a little-endian buffer.
+     */
+    private static MappedByteBuffer map(FileChannel channel, MapMode mode, long position, long size)
+            throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Return the node kind of a node, or throw IllegalArgumentException if it cannot be saved.
+     * @param node node of the heap
+     */
+    private static int kindOf(FibonacciHeap.HeapNode node) {
+        Class<?> type = node.getClass();
+        if (type == FibonacciHeap.HeapNode.class) {
+            return KIND_NODE;
+        }
+        if (type == FibonacciHeap.IntEntry.class) {
+            return KIND_INT_ENTRY;
+        }
+        if (type == FibonacciHeap.LongEntry.class) {
+            return KIND_LONG_ENTRY;
+        }
+        throw new IllegalArgumentException("Cannot save nodes of type " + type.getName());
+    }
+
+    /**
+     * Return the number of bytes of the value of a node kind.
+     * @param kind node kind
+     */
+    private static int valueBytes(int kind) {
+        return kind == KIND_INT_ENTRY ? Integer.BYTES : kind == KIND_LONG_ENTRY ? Long.BYTES : 0;
+    }
+
+    /**
+     * Return the number of roots among nodes in the order of collectTrees: all nodes but the children.
+     * @param nodes nodes of a heap
+     * @param count number of nodes
+     */
+    private static int rootsOf(FibonacciHeap.HeapNode[] nodes, int count) {
+        long children = 0;
+        for (int i = 0; i < count; i++) {
+            children += nodes[i].rank();
+        }
+        return (int)(count - children);
+    }
+}
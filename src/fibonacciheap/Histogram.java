@@ -0,0 +1,132 @@
+package fibonacciheap;
+
+import java.util.Arrays;
+
+/**
+ * Histogram
+ * <p>
+ * A histogram of non-negative long values with a relative error of at most 1/16. Values below 16 are counted
+ * exactly; larger values are counted in 16 buckets per power of two. Recording does not allocate.
+ * Not thread-safe.
+ */
+
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BUCKET_BITS) * SUB_BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * public void record(long value)
+     * <p>
+     * Count a value. Negative values are counted as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[bucket(value)]++;
+        count++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * public long count()
+     * <p>
+     * Return the number of recorded values.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * public long max()
+     * <p>
+     * Return the largest recorded value, or 0 if none was recorded.
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * public double mean()
+     * <p>
+     * Return the mean of the recorded values, or 0 if none was recorded.
+     */
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * public long percentile(double percentile)
+     * <p>
+     * Return a value that at least the given percentage of the recorded values do not exceed, up to the
+     * relative error of the buckets. Returns 0 if no value was recorded.
+     */
+    public long percentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * public void reset()
+     * <p>
+     * Forget all recorded values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1f p50=%d p99=%d p99.9=%d p99.99=%d max=%d", count, mean(),
+                percentile(50), percentile(99), percentile(99.9), percentile(99.99), max);
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Return the index of the bucket counting the given value.
+     * @param value non-negative value
+     */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // at least SUB_BUCKET_BITS
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Return the largest value counted by the bucket with the given index.
+     * @param index bucket index
+     */
+    private static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
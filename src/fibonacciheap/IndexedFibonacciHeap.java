@@ -0,0 +1,150 @@
+package fibonacciheap;
+
+import java.util.Objects;
+
+/**
+ * IndexedFibonacciHeap
+ * <p>
+ * A fibonacci heap over integers whose entries are addressed by a dense id in [0, capacity) chosen by the
+ * caller, e.g. a vertex number, instead of a handle returned by the heap.
+ * <p>
+ * Each id is the slot of its node in an IntFibonacciHeap, so finding the node of an id is a plain array access:
+ * no side map from ids to nodes is needed, and nothing is allocated after construction.
+ */
+
+public class IndexedFibonacciHeap {
+    private final IntFibonacciHeap heap;
+    private final int capacity;
+
+    /**
+     * Initialize an empty heap for the ids 0, ..., capacity - 1.
+     * @param capacity number of ids
+     */
+    public IndexedFibonacciHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must be non-negative: " + capacity);
+        }
+        this.heap = new IntFibonacciHeap(capacity);
+        this.capacity = capacity;
+    }
+
+    /**
+     * public boolean empty()
+     * <p>
+     * The method returns true if and only if the heap is empty.
+     */
+    public boolean empty() {
+        return heap.empty();
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of ids in the heap.
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * public int capacity()
+     * <p>
+     * Return the number of ids, i.e. one more than the largest id the heap accepts.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * public void insert(int id, int key)
+     * <p>
+     * Insert the id with the given key. Throws IllegalArgumentException if the id is already in the heap.
+     */
+    public void insert(int id, int key) {
+        if (contains(id)) {
+            throw new IllegalArgumentException("Id " + id + " is already in the heap");
+        }
+        heap.insertAt(id, key);
+    }
+
+    /**
+     * public boolean contains(int id)
+     * <p>
+     * Return true if the id is in the heap.
+     */
+    public boolean contains(int id) {
+        Objects.checkIndex(id, capacity);
+        return heap.inUse(id);
+    }
+
+    /**
+     * public int keyOf(int id)
+     * <p>
+     * Return the key of the id. Throws IllegalArgumentException if the id is not in the heap.
+     */
+    public int keyOf(int id) {
+        checkContains(id);
+        return heap.key(id);
+    }
+
+    /**
+     * public void decreaseKeyTo(int id, int newKey)
+     * <p>
+     * Set the key of the id to newKey. Throws IllegalArgumentException if the id is not in the heap or newKey
+     * is larger than its current key.
+     */
+    public void decreaseKeyTo(int id, int newKey) {
+        checkContains(id);
+        heap.decreaseKeyTo(id, newKey);
+    }
+
+    /**
+     * public int findMin()
+     * <p>
+     * Return the id whose key is minimal, or IntFibonacciHeap.NONE if the heap is empty.
+     */
+    public int findMin() {
+        return heap.findMin();
+    }
+
+    /**
+     * public int deleteMin()
+     * <p>
+     * Delete the id whose key is minimal and return it, or return IntFibonacciHeap.NONE if the heap is empty.
+     * The id may be inserted again afterwards.
+     */
+    public int deleteMin() {
+        return heap.deleteMin();
+    }
+
+    /**
+     * public void delete(int id)
+     * <p>
+     * Delete the id from the heap. Throws IllegalArgumentException if the id is not in the heap.
+     */
+    public void delete(int id) {
+        checkContains(id);
+        heap.delete(id);
+    }
+
+    /**
+     * public HeapCounters counters()
+     * <p>
+     * Return a snapshot of the operation counters of this heap.
+     */
+    public HeapCounters counters() {
+        return heap.counters();
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Throw IllegalArgumentException if the id is not in the heap.
+     * @param id id to check
+     */
+    private void checkContains(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Id " + id + " is not in the heap");
+        }
+    }
+}
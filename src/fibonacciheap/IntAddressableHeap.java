@@ -0,0 +1,87 @@
+package fibonacciheap;
+
+/**
+ * IntAddressableHeap
+ * <p>
+ * The AddressableHeap operations for engines that address their entries by int handles instead of handle
+ * objects, so that inserting does not allocate. A handle is a slot number, and the value -1 (NONE) means
+ * "no entry".
+ * <p>
+ * A handle must not be used after its entry has been deleted; the engine may hand it out again on insert.
+ *
+ * @param <Q> type of the heap, the implementing class itself
+ */
+
+public interface IntAddressableHeap<Q extends IntAddressableHeap<Q>> {
+    /**
+     * public boolean empty()
+     * <p>
+     * The method returns true if and only if the heap is empty.
+     */
+    boolean empty();
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap.
+     */
+    int size();
+
+    /**
+     * public int insert(int key)
+     * <p>
+     * Insert the key into the heap and return the handle of its entry.
+     */
+    int insert(int key);
+
+    /**
+     * public int findMin()
+     * <p>
+     * Return the handle of the entry whose key is minimal, or NONE if the heap is empty.
+     */
+    int findMin();
+
+    /**
+     * public int deleteMin()
+     * <p>
+     * Delete the entry whose key is minimal and return its handle, or return NONE if the heap is empty.
+     * The key of the deleted entry can be read until the next insert, which may reuse its handle.
+     */
+    int deleteMin();
+
+    /**
+     * public int key(int node)
+     * <p>
+     * Return the key of the entry with the given handle.
+     */
+    int key(int node);
+
+    /**
+     * public void decreaseKey(int node, int delta)
+     * <p>
+     * Decrease the key of the entry by delta.
+     */
+    void decreaseKey(int node, int delta);
+
+    /**
+     * public void decreaseKeyTo(int node, int newKey)
+     * <p>
+     * Set the key of the entry to newKey, which must not be larger than its current key.
+     */
+    void decreaseKeyTo(int node, int newKey);
+
+    /**
+     * public void delete(int node)
+     * <p>
+     * Delete the entry with the given handle from the heap.
+     */
+    void delete(int node);
+
+    /**
+     * public int meld(Q heap2)
+     * <p>
+     * Move the entries of heap2 into this heap, leaving heap2 empty. A handle h issued by heap2 refers to the
+     * entry h + offset of this heap, where offset is the returned value.
+     */
+    int meld(Q heap2);
+}
@@ -0,0 +1,758 @@
+package fibonacciheap;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * IntFibonacciHeap
+ * <p>
+ * An array-backed implementation of fibonacci heap over integers.
+ * <p>
+ * Instead of a graph of HeapNode objects, every node lives in a slot of parallel primitive arrays
+ * (key, rank, mark, parent, child, next, prev) and is addressed by an int handle. Inserting does not
+ * allocate once the arrays are large enough, and slots of removed nodes are recycled.
+ * <p>
+ * Memory: 4 bytes of key, 4 * 4 bytes of links and 2 bytes of rank/mark, i.e. 22 bytes per slot,
+ * compared to roughly 48 bytes per HeapNode (plus a reference to it) in FibonacciHeap. Heaps that
+ * carry values add 8 bytes per slot.
+ */
+
+public class IntFibonacciHeap implements IntAddressableHeap<IntFibonacciHeap> {
+    /**
+     * Handle value meaning "no node".
+     */
+    public static final int NONE = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] key;
+    private int[] parent;
+    private int[] child;
+    private int[] next;
+    private int[] prev;
+    private byte[] rank; // -1 for free slots
+    private boolean[] marked;
+    private long[] value; // payloads, null until the first insert with a value
+
+    private int top; // slots in [0, top) have been handed out at least once
+    private int freeList; // free slots, chained through next[]
+
+    private int min;
+    private int size;
+    private int markedCount;
+    private int treesCount;
+
+    private int[] treeArr; // consolidation buckets, all NONE between calls
+    private int treeArrThreshold; // size at which treeArr becomes too small
+
+    private long links;
+    private long cuts;
+    private long cascadingCuts;
+    private int maxCascadeDepth;
+    private long consolidations;
+    private long rootsScanned;
+    private long marksSet;
+
+    /**
+     * Default constructor to initialize an empty heap.
+     */
+    public IntFibonacciHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initialize an empty heap that can hold the given number of nodes before growing its arrays.
+     * @param capacity initial number of slots
+     */
+    public IntFibonacciHeap(int capacity) {
+        if (capacity < 1) {
+            capacity = 1;
+        }
+        this.key = new int[capacity];
+        this.parent = new int[capacity];
+        this.child = new int[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.rank = new byte[capacity];
+        this.marked = new boolean[capacity];
+        this.top = 0;
+        this.freeList = NONE;
+        this.min = NONE;
+        this.size = 0;
+        this.markedCount = 0;
+        this.treesCount = 0;
+        this.treeArr = new int[0];
+        this.treeArrThreshold = FibonacciHeap.growThreshold(0);
+    }
+
+    /**
+     * public boolean empty()
+     * <p>
+     * precondition: none
+     * <p>
+     * The method returns true if and only if the heap
+     * is empty.
+     */
+    public boolean empty() {
+        return size == 0;
+    }
+
+    /**
+     * public int insert(int key)
+     * <p>
+     * Creates a node which contains the given key, inserts it into the heap and returns its handle.
+     */
+    public int insert(int key) {
+        int node = allocateSlot();
+        this.key[node] = key;
+        if (empty()) {
+            min = node;
+        } else {
+            // Insert new node into root list next to current minimum
+            insertNodeToList(node, min);
+
+            // Update minimum pointer if needed
+            if (key < this.key[min]) {
+                min = node;
+            }
+        }
+        size++;
+        treesCount++;
+        return node;
+    }
+
+    /**
+     * public int insert(int key, long value)
+     * <p>
+     * Inserts a node which carries the given value along with its key, and returns its handle.
+     * An int value is stored widened and read back with (int) value(node).
+     */
+    public int insert(int key, long value) {
+        if (this.value == null) {
+            this.value = new long[this.key.length];
+        }
+        int node = insert(key);
+        this.value[node] = value;
+        return node;
+    }
+
+    /**
+     * public void insertAll(int[] keys)
+     * <p>
+     * Inserts all the given keys, as insertAll(keys, 0, keys.length, null) does.
+     */
+    public void insertAll(int[] keys) {
+        insertAll(keys, 0, keys.length, null);
+    }
+
+    /**
+     * public void insertAll(int[] keys, int offset, int length, int[] handles)
+     * <p>
+     * Inserts keys[offset], ..., keys[offset + length - 1] as new roots. The new nodes take consecutive fresh
+     * slots, are chained into one list and spliced into the root list at once, and the minimum is updated after
+     * a single scan. If handles is not null, handles[i] is set to the handle of keys[offset + i].
+     */
+    public void insertAll(int[] keys, int offset, int length, int[] handles) {
+        Objects.checkFromIndexSize(offset, length, keys.length);
+        if (handles != null) {
+            Objects.checkFromIndexSize(0, length, handles.length);
+        }
+        if (length == 0) {
+            return;
+        }
+
+        int first = top;
+        int last = first + length - 1;
+        ensureCapacity(first + length);
+        top += length;
+        System.arraycopy(keys, offset, key, first, length);
+        Arrays.fill(rank, first, first + length, (byte) 0);
+        Arrays.fill(marked, first, first + length, false);
+        Arrays.fill(parent, first, first + length, NONE);
+        Arrays.fill(child, first, first + length, NONE);
+        if (value != null) {
+            Arrays.fill(value, first, first + length, 0);
+        }
+
+        // Chain the new nodes into a list of their own
+        int listMin = first;
+        for (int node = first; node <= last; node++) {
+            next[node] = node + 1;
+            prev[node] = node - 1;
+            if (key[node] < key[listMin]) {
+                listMin = node;
+            }
+        }
+        next[last] = first;
+        prev[first] = last;
+        if (handles != null) {
+            for (int i = 0; i < length; i++) {
+                handles[i] = first + i;
+            }
+        }
+
+        if (empty()) {
+            min = listMin;
+        } else {
+            concatenate(min, first);
+            if (key[listMin] < key[min]) {
+                min = listMin;
+            }
+        }
+        size += length;
+        treesCount += length;
+    }
+
+    /**
+     * public int deleteMin()
+     * <p>
+     * Delete the node containing the minimum key and return its handle, or return NONE if the heap is empty.
+     * The key and value of the deleted node can be read until the next insert, which may reuse its handle.
+     */
+    public int deleteMin() {
+        if (empty()) {
+            return NONE;
+        }
+
+        int oldMin = min;
+        if (marked[oldMin]) {
+            // A child of a deleted node keeps its mark as a root
+            marked[oldMin] = false;
+            markedCount--;
+        }
+
+        int minChild = child[min];
+        if (minChild != NONE) {
+            // Set parent pointer of all children to NONE
+            int iterator = minChild;
+            do {
+                parent[iterator] = NONE;
+                iterator = next[iterator];
+            } while (iterator != minChild);
+
+            // Add list of children as new roots into the heap
+            concatenate(min, minChild);
+            treesCount += rank[min];
+        } else if (next[min] == min) {
+            // min is the only node in the heap
+            freeSlot(min);
+            min = NONE;
+            size = 0;
+            treesCount = 0;
+            return oldMin;
+        }
+
+        // Arbitrarily choose min's next as new min and fix it when consolidating
+        min = next[min];
+
+        // Remove current minimum from root list
+        removeNodeFromList(oldMin);
+        freeSlot(oldMin);
+        treesCount--;
+        size--;
+
+        // Start successive-linking
+        if (treesCount > 1) {
+            consolidate();
+        }
+        return oldMin;
+    }
+
+    /**
+     * public int findMin()
+     * <p>
+     * Return the handle of the node whose key is minimal, or NONE if the heap is empty.
+     */
+    public int findMin() {
+        return min;
+    }
+
+    /**
+     * public int key(int node)
+     * <p>
+     * Return the key of the node with the given handle.
+     */
+    public int key(int node) {
+        return key[node];
+    }
+
+    /**
+     * public long value(int node)
+     * <p>
+     * Return the value of the node with the given handle, or 0 if it was inserted without one.
+     */
+    public long value(int node) {
+        return value != null ? value[node] : 0;
+    }
+
+    /**
+     * public int meld (IntFibonacciHeap heap2)
+     * <p>
+     * Meld the heap with heap2. The nodes of heap2 are copied into this heap and heap2 is left empty.
+     * A handle h issued by heap2 refers to the node h + offset of this heap, where offset is the returned value.
+     */
+    public int meld(IntFibonacciHeap heap2) {
+        if (heap2 == this) {
+            return 0;
+        }
+        if (heap2.empty()) {
+            heap2.clear();
+            return top;
+        }
+        if (empty()) {
+            // Nothing worth keeping, start over so heap2's handles stay unchanged
+            top = 0;
+            freeList = NONE;
+        }
+
+        int offset = top;
+        int count = heap2.top;
+        ensureCapacity(offset + count);
+        System.arraycopy(heap2.key, 0, key, offset, count);
+        System.arraycopy(heap2.rank, 0, rank, offset, count);
+        System.arraycopy(heap2.marked, 0, marked, offset, count);
+        if (heap2.value != null) {
+            if (value == null) {
+                value = new long[key.length];
+            }
+            System.arraycopy(heap2.value, 0, value, offset, count);
+        } else if (value != null) {
+            Arrays.fill(value, offset, offset + count, 0);
+        }
+        copyLinks(heap2.parent, parent, offset, count);
+        copyLinks(heap2.child, child, offset, count);
+        copyLinks(heap2.next, next, offset, count);
+        copyLinks(heap2.prev, prev, offset, count);
+        top = offset + count;
+
+        // Free slots of heap2 were copied with its next[] chain, move them to our free list
+        int slot = heap2.freeList;
+        while (slot != NONE) {
+            int nextFree = heap2.next[slot];
+            next[slot + offset] = freeList;
+            freeList = slot + offset;
+            slot = nextFree;
+        }
+
+        int heap2Min = heap2.min + offset;
+        if (empty()) {
+            min = heap2Min;
+        } else {
+            // Insert heap2's root list next to this heap's minimum
+            concatenate(min, heap2Min);
+
+            // Update minimum pointer if needed
+            if (key[heap2Min] < key[min]) {
+                min = heap2Min;
+            }
+        }
+        this.size += heap2.size;
+        this.markedCount += heap2.markedCount;
+        this.treesCount += heap2.treesCount;
+
+        heap2.clear();
+        return offset;
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * public int[] countersRep()
+     * <p>
+     * Return a counters array, where the value of the i-th entry is the number of trees of order i in the heap.
+     */
+    public int[] countersRep() {
+        if (empty()) {
+            return new int[0];
+        }
+
+        int[] arr = new int[FibonacciHeap.maxRank(size) + 1];
+        int iterator = min;
+        do {
+            arr[rank[iterator]]++;
+            iterator = next[iterator];
+        } while (iterator != min);
+        return arr;
+    }
+
+    /**
+     * public void delete(int node)
+     * <p>
+     * Deletes the node with the given handle from the heap.
+     */
+    public void delete(int node) {
+        // Move the node to the root list and treat it as the minimum, no matter what its key is
+        if (parent[node] != NONE) {
+            cutAndCascade(node);
+        }
+        min = node;
+        deleteMin();
+    }
+
+    /**
+     * public void decreaseKey(int node, int delta)
+     * <p>
+     * The function decreases the key of the node by delta, applying cascading cuts if needed.
+     */
+    public void decreaseKey(int node, int delta) {
+        key[node] -= delta;
+        int nodeParent = parent[node];
+        if (nodeParent != NONE && key[node] < key[nodeParent]) {
+            cutAndCascade(node);
+        }
+        if (key[node] < key[min]) {
+            min = node;
+        }
+    }
+
+    /**
+     * public void decreaseKeyTo(int node, int newKey)
+     * <p>
+     * Set the key of the node to newKey, which must not be larger than its current key.
+     */
+    public void decreaseKeyTo(int node, int newKey) {
+        if (newKey > key[node]) {
+            throw new IllegalArgumentException("New key " + newKey + " is larger than the current key " + key[node]);
+        }
+        decreaseKey(node, key[node] - newKey);
+    }
+
+    /**
+     * public int potential()
+     * <p>
+     * This function returns the current potential of the heap, which is:
+     * Potential = #trees + 2*#marked
+     */
+    public int potential() {
+        return treesCount + 2*markedCount;
+    }
+
+    /**
+     * public HeapCounters counters()
+     * <p>
+     * Return a snapshot of the operation counters of this heap.
+     */
+    public HeapCounters counters() {
+        return new HeapCounters(links, cuts, cascadingCuts, maxCascadeDepth, consolidations, rootsScanned,
+                marksSet);
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Insert a node with the given key into the given slot instead of one chosen by the heap.
+     * Pre-condition: the slot is not in use, and insert(), insertAll() and meld() are never called on this heap,
+     * since slots skipped or freed here are not kept on the free list.
+     * @param node handle of the slot
+     * @param key key of the new node
+     */
+    void insertAt(int node, int key) {
+        if (node >= top) {
+            ensureCapacity(node + 1);
+            Arrays.fill(rank, top, node, (byte) -1);
+            top = node + 1;
+        }
+        rank[node] = 0;
+        marked[node] = false;
+        parent[node] = NONE;
+        child[node] = NONE;
+        next[node] = node;
+        prev[node] = node;
+        if (value != null) {
+            value[node] = 0;
+        }
+        this.key[node] = key;
+        if (empty()) {
+            min = node;
+        } else {
+            insertNodeToList(node, min);
+            if (key < this.key[min]) {
+                min = node;
+            }
+        }
+        size++;
+        treesCount++;
+    }
+
+    /**
+     * Return true if the slot holds a node of the heap.
+     * @param node handle of the slot
+     */
+    boolean inUse(int node) {
+        return node < top && rank[node] >= 0;
+    }
+
+    /**
+     * Make sure the arrays can hold the given number of slots.
+     * @param capacity required number of slots
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= key.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, key.length + (key.length >> 1));
+        key = Arrays.copyOf(key, newCapacity);
+        parent = Arrays.copyOf(parent, newCapacity);
+        child = Arrays.copyOf(child, newCapacity);
+        next = Arrays.copyOf(next, newCapacity);
+        prev = Arrays.copyOf(prev, newCapacity);
+        rank = Arrays.copyOf(rank, newCapacity);
+        marked = Arrays.copyOf(marked, newCapacity);
+        if (value != null) {
+            value = Arrays.copyOf(value, newCapacity);
+        }
+    }
+
+    /**
+     * Take a slot from the free list, or a fresh one if the free list is empty, and reset it to a lone node.
+     * @return handle of the slot
+     */
+    private int allocateSlot() {
+        int node;
+        if (freeList != NONE) {
+            node = freeList;
+            freeList = next[node];
+        } else {
+            ensureCapacity(top + 1);
+            node = top++;
+        }
+        rank[node] = 0;
+        marked[node] = false;
+        parent[node] = NONE;
+        child[node] = NONE;
+        next[node] = node;
+        prev[node] = node;
+        if (value != null) {
+            value[node] = 0;
+        }
+        return node;
+    }
+
+    /**
+     * Return a slot to the free list.
+     * @param node handle of the slot
+     */
+    private void freeSlot(int node) {
+        rank[node] = -1;
+        next[node] = freeList;
+        freeList = node;
+    }
+
+    /**
+     * Forget all nodes, keeping the arrays for reuse.
+     */
+    private void clear() {
+        top = 0;
+        freeList = NONE;
+        min = NONE;
+        size = 0;
+        markedCount = 0;
+        treesCount = 0;
+    }
+
+    /**
+     * Copy a link array shifting every handle by offset.
+     */
+    private static void copyLinks(int[] src, int[] dest, int offset, int count) {
+        for (int i = 0; i < count; i++) {
+            int link = src[i];
+            dest[offset + i] = link == NONE ? NONE : link + offset;
+        }
+    }
+
+    /**
+     * Cut a non-root node from its parent and apply cascading cuts above it.
+     * @param node root of the sub-tree
+     */
+    private void cutAndCascade(int node) {
+        int nodeParent = parent[node];
+        cut(node);
+        int depth = cascadingCut(nodeParent);
+        cascadingCuts += depth;
+        if (depth > maxCascadeDepth) {
+            maxCascadeDepth = depth;
+        }
+        FibonacciHeap.TOTAL_CUTS.add(1 + depth);
+    }
+
+    /**
+     * Cut sub-trees from the tree until we reach the root of the whole tree or an unmarked node.
+     * @param node root of the sub-tree
+     * @return number of cuts made
+     */
+    private int cascadingCut(int node) {
+        int depth = 0;
+        int nodeParent = parent[node];
+        while (nodeParent != NONE) {
+            if (!marked[node]) {
+                marked[node] = true;
+                markedCount++;
+                marksSet++;
+                break;
+            }
+            cut(node);
+            depth++;
+            node = nodeParent;
+            nodeParent = parent[node];
+        }
+        return depth;
+    }
+
+    /**
+     * Cuts sub-tree starting at the given node from its parent and adds it to root list.
+     * @param node root of the sub-tree
+     */
+    private void cut(int node) {
+        int nodeParent = parent[node];
+        rank[nodeParent]--;
+        if (child[nodeParent] == node) {
+            if (next[node] == node) {
+                child[nodeParent] = NONE;
+            } else {
+                child[nodeParent] = next[node];
+            }
+        }
+        removeNodeFromList(node);
+        insertNodeToList(node, min);
+        treesCount++;
+        if (marked[node]) {
+            markedCount--;
+        }
+        parent[node] = NONE;
+        marked[node] = false;
+
+        cuts++;
+    }
+
+    /**
+     * Insert a node to the list next to another node.
+     * @param node1 node to be inserted
+     * @param node2 node1 will be inserted next to this node
+     */
+    private void insertNodeToList(int node1, int node2) {
+        int node2Next = next[node2];
+        next[node1] = node2Next;
+        prev[node1] = node2;
+        prev[node2Next] = node1;
+        next[node2] = node1;
+    }
+
+    /**
+     * Removes a node from the linked list it's a member of.
+     * Removed node's next and prev pointers are set to itself.
+     * @param node node to be removed
+     */
+    private void removeNodeFromList(int node) {
+        int nodeNext = next[node];
+        int nodePrev = prev[node];
+        next[nodePrev] = nodeNext;
+        prev[nodeNext] = nodePrev;
+        next[node] = node;
+        prev[node] = node;
+    }
+
+    /**
+     * Successively links trees in the heap.
+     * Pre-condition: the heap is not empty
+     * Post-condition: the heap contains one tree of each rank at most.
+     * Post-condition: minimum pointer is updated to the correct node.
+     */
+    private void consolidate() {
+        if (size >= treeArrThreshold) {
+            treeArr = new int[FibonacciHeap.maxRank(size) + 1];
+            Arrays.fill(treeArr, NONE);
+            treeArrThreshold = FibonacciHeap.growThreshold(treeArr.length);
+        }
+        int[] treeArr = this.treeArr;
+        long linksBefore = links;
+
+        int range = treesCount;
+        consolidations++;
+        rootsScanned += range;
+        int iterator = min;
+        for (int i = 0; i < range; i++) {
+            int root1 = iterator;
+            iterator = next[iterator];
+            int rank = this.rank[root1];
+            while (treeArr[rank] != NONE) {
+                int root2 = treeArr[rank]; // we found another tree with the same rank
+
+                // Make sure root1 has the smaller key between the roots
+                if (key[root2] < key[root1]) {
+                    int temp = root2;
+                    root2 = root1;
+                    root1 = temp;
+                }
+
+                link(root1, root2);
+                treeArr[rank] = NONE;
+                rank++;
+            }
+            treeArr[rank] = root1;
+        }
+
+        // Recreate root list with the consolidated trees, leaving the buckets empty for the next call
+        min = NONE;
+        for (int i = 0; i < treeArr.length; i++) {
+            int root = treeArr[i];
+            if (root != NONE) {
+                treeArr[i] = NONE;
+                if (min == NONE) {
+                    min = root;
+                    next[root] = root;
+                    prev[root] = root;
+                } else {
+                    insertNodeToList(root, min);
+                    if (key[root] < key[min]) {
+                        min = root;
+                    }
+                }
+            }
+        }
+        FibonacciHeap.TOTAL_LINKS.add(links - linksBefore);
+    }
+
+    /**
+     * Link two trees. Tree whose root's key is bigger will be a child of the other tree.
+     * @param root1 first root
+     * @param root2 second root
+     */
+    private void link(int root1, int root2) {
+        removeNodeFromList(root2);
+        if (child[root1] != NONE) {
+            insertNodeToList(root2, child[root1]);
+        } else {
+            child[root1] = root2;
+        }
+        rank[root1]++;
+        parent[root2] = root1;
+        if (marked[root2]) {
+            marked[root2] = false;
+            markedCount--;
+        }
+
+        treesCount--;
+        links++;
+    }
+
+    /**
+     * Insert node2's list into node1's list.
+     * @param node1 node from the list that is being melded into
+     * @param node2 node from the list being melded into node1's list
+     */
+    private void concatenate(int node1, int node2) {
+        int node1Next = next[node1];
+        int node2Prev = prev[node2];
+        next[node2Prev] = node1Next;
+        prev[node1Next] = node2Prev;
+        prev[node2] = node1;
+        next[node1] = node2;
+    }
+}
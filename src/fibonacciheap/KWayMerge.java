@@ -0,0 +1,276 @@
+package fibonacciheap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * KWayMerge
+ * <p>
+ * Merges sorted primitive sources, such as spilled sort runs or the results of shards, into one sorted iterator.
+ * <p>
+ * The heap holds one IntEntry per source that is not exhausted, keyed by the head of the source, with the index of
+ * the source as its value. Taking the next element reads the minimum and gives its node the next head of the same
+ * source with replaceMin, so a merge of n elements allocates no node after the first k and makes one heap
+ * operation per element instead of a deleteMin and an insert. A source is only deleted from the heap when it is
+ * exhausted.
+ * <p>
+ * Sources are read ahead in batches into one buffer of k * batch elements, so each source is called in a tight
+ * loop batch times in a row rather than once between heap operations on other sources. Every source must be in
+ * ascending order. When the next element of a source is smaller than the last one, IllegalStateException is
+ * thrown before anything is consumed, so the merge stays where it is and every later call throws again.
+ */
+
+public final class KWayMerge {
+    /**
+     * Number of elements read ahead from a source when no batch size is given.
+     */
+    public static final int DEFAULT_BATCH = 64;
+
+    private KWayMerge() {
+    }
+
+    /**
+     * public static Ints merge(PrimitiveIterator.OfInt... sources)
+     * <p>
+     * Merge the sources, reading DEFAULT_BATCH elements ahead from each.
+     */
+    public static Ints merge(PrimitiveIterator.OfInt... sources) {
+        return merge(Arrays.asList(sources), DEFAULT_BATCH);
+    }
+
+    /**
+     * public static Ints merge(List&lt;? extends PrimitiveIterator.OfInt&gt; sources, int batch)
+     * <p>
+     * Merge the sources, reading batch elements ahead from each. The first batch of every source is read here.
+     * Throws IllegalArgumentException if batch is smaller than 1.
+     */
+    public static Ints merge(List<? extends PrimitiveIterator.OfInt> sources, int batch) {
+        return new Ints(sources, checkBatch(batch));
+    }
+
+    /**
+     * public static Longs mergeLongs(PrimitiveIterator.OfLong... sources)
+     * <p>
+     * Merge the sources, reading DEFAULT_BATCH elements ahead from each.
+     */
+    public static Longs mergeLongs(PrimitiveIterator.OfLong... sources) {
+        return mergeLongs(Arrays.asList(sources), DEFAULT_BATCH);
+    }
+
+    /**
+     * public static Longs mergeLongs(List&lt;? extends PrimitiveIterator.OfLong&gt; sources, int batch)
+     * <p>
+     * Merge the sources, reading batch elements ahead from each. The first batch of every source is read here.
+     * Throws IllegalArgumentException if batch is smaller than 1.
+     */
+    public static Longs mergeLongs(List<? extends PrimitiveIterator.OfLong> sources, int batch) {
+        return new Longs(sources, checkBatch(batch));
+    }
+
+    /**
+     * public static final class Ints
+     * <p>
+     * The merge of sorted int sources, over a FibonacciHeap.
+     */
+    public static final class Ints implements PrimitiveIterator.OfInt {
+        private final PrimitiveIterator.OfInt[] sources;
+        private final int batch;
+        private final int[] buffer; // batch elements per source, source i at [i * batch, (i + 1) * batch)
+        private final int[] position; // next buffered element of each source
+        private final int[] limit; // end of the buffered elements of each source
+        private final FibonacciHeap heap = new FibonacciHeap();
+
+        private Ints(List<? extends PrimitiveIterator.OfInt> sources, int batch) {
+            int k = sources.size();
+            this.sources = sources.toArray(new PrimitiveIterator.OfInt[k]);
+            this.batch = batch;
+            this.buffer = new int[Math.multiplyExact(k, batch)];
+            this.position = new int[k];
+            this.limit = new int[k];
+            FibonacciHeap.HeapNode[] heads = new FibonacciHeap.HeapNode[k];
+            int count = 0;
+            for (int i = 0; i < k; i++) {
+                if (refill(i)) {
+                    heads[count++] = new FibonacciHeap.IntEntry(buffer[position[i]++], i);
+                }
+            }
+            heap.insertNodes(heads, count);
+        }
+
+        /**
+         * public boolean hasNext()
+         * <p>
+         * Return true if and only if some source has elements left.
+         */
+        @Override
+        public boolean hasNext() {
+            return !heap.empty();
+        }
+
+        /**
+         * public int nextInt()
+         * <p>
+         * Return the smallest element left over all sources. Throws NoSuchElementException if there is none.
+         */
+        @Override
+        public int nextInt() {
+            FibonacciHeap.IntEntry head = (FibonacciHeap.IntEntry)heap.findMin();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            int key = head.key;
+            int source = head.value;
+            if (position[source] == limit[source] && !refill(source)) {
+                heap.deleteMin();
+                return key;
+            }
+            int next = buffer[position[source]];
+            if (next < key) {
+                throw new IllegalStateException("Source " + source + " is not sorted: " + next + " after " + key);
+            }
+            position[source]++;
+            heap.replaceMin(next);
+            return key;
+        }
+
+        /**
+         * public IntStream stream()
+         * <p>
+         * Return a sequential, sorted stream of the elements left. The stream consumes this iterator.
+         */
+        public IntStream stream() {
+            return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(this,
+                    Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL), false);
+        }
+
+        /**
+         * Read up to batch elements of a source into its part of the buffer.
+         * @param source index of the source
+         * @return false if the source is exhausted
+         */
+        private boolean refill(int source) {
+            PrimitiveIterator.OfInt iterator = sources[source];
+            int start = source * batch;
+            int end = start;
+            int stop = start + batch;
+            while (end < stop && iterator.hasNext()) {
+                buffer[end++] = iterator.nextInt();
+            }
+            position[source] = start;
+            limit[source] = end;
+            return end > start;
+        }
+    }
+
+    /**
+     * public static final class Longs
+     * <p>
+     * The merge of sorted long sources, over a LongFibonacciHeap.
+     */
+    public static final class Longs implements PrimitiveIterator.OfLong {
+        private final PrimitiveIterator.OfLong[] sources;
+        private final int batch;
+        private final long[] buffer; // batch elements per source, source i at [i * batch, (i + 1) * batch)
+        private final int[] position; // next buffered element of each source
+        private final int[] limit; // end of the buffered elements of each source
+        private final LongFibonacciHeap heap = new LongFibonacciHeap();
+
+        private Longs(List<? extends PrimitiveIterator.OfLong> sources, int batch) {
+            int k = sources.size();
+            this.sources = sources.toArray(new PrimitiveIterator.OfLong[k]);
+            this.batch = batch;
+            this.buffer = new long[Math.multiplyExact(k, batch)];
+            this.position = new int[k];
+            this.limit = new int[k];
+            for (int i = 0; i < k; i++) {
+                if (refill(i)) {
+                    heap.insert(buffer[position[i]++], i);
+                }
+            }
+        }
+
+        /**
+         * public boolean hasNext()
+         * <p>
+         * Return true if and only if some source has elements left.
+         */
+        @Override
+        public boolean hasNext() {
+            return !heap.empty();
+        }
+
+        /**
+         * public long nextLong()
+         * <p>
+         * Return the smallest element left over all sources. Throws NoSuchElementException if there is none.
+         */
+        @Override
+        public long nextLong() {
+            LongFibonacciHeap.IntEntry head = (LongFibonacciHeap.IntEntry)heap.findMin();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            long key = head.key;
+            int source = head.value;
+            if (position[source] == limit[source] && !refill(source)) {
+                heap.deleteMin();
+                return key;
+            }
+            long next = buffer[position[source]];
+            if (next < key) {
+                throw new IllegalStateException("Source " + source + " is not sorted: " + next + " after " + key);
+            }
+            position[source]++;
+            heap.replaceMin(next);
+            return key;
+        }
+
+        /**
+         * public LongStream stream()
+         * <p>
+         * Return a sequential, sorted stream of the elements left. The stream consumes this iterator.
+         */
+        public LongStream stream() {
+            return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(this,
+                    Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL), false);
+        }
+
+        /**
+         * Read up to batch elements of a source into its part of the buffer.
+         * @param source index of the source
+         * @return false if the source is exhausted
+         */
+        private boolean refill(int source) {
+            PrimitiveIterator.OfLong iterator = sources[source];
+            int start = source * batch;
+            int end = start;
+            int stop = start + batch;
+            while (end < stop && iterator.hasNext()) {
+                buffer[end++] = iterator.nextLong();
+            }
+            position[source] = start;
+            limit[source] = end;
+            return end > start;
+        }
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Return the batch size, or throw IllegalArgumentException if it is smaller than 1.
+     * @param batch number of elements read ahead from a source
+     */
+    private static int checkBatch(int batch) {
+        if (batch < 1) {
+            throw new IllegalArgumentException("Batch must be at least 1: " + batch);
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,289 @@
+package fibonacciheap;
+
+/**
+ * LongRadixHeap
+ * <p>
+ * An implementation of the radix heap over non-negative long integers, for monotone workloads such as Dijkstra's
+ * algorithm or event simulation, where no key smaller than the last deleted minimum is ever inserted.
+ * <p>
+ * A node whose key first differs from the last deleted minimum in bit i - 1 is kept in bucket i, and a node
+ * whose key equals it in bucket 0, so every key of bucket i is smaller than every key of bucket i + 1. When
+ * bucket 0 is empty, deleteMin finds the minimum of the first non-empty bucket and redistributes that bucket
+ * around it; a node only ever moves to a lower bucket, so each node moves at most 64 times in total.
+ * <p>
+ * Keys that would break the monotonicity, i.e. negative keys or keys smaller than the last deleted minimum,
+ * are rejected with an IllegalArgumentException by insert and decreaseKey.
+ */
+
+public class LongRadixHeap {
+    private static final int BUCKETS = 64;
+
+    private final HeapNode[] buckets = new HeapNode[BUCKETS]; // unordered doubly linked lists
+    private long occupied; // bit i is set if bucket i is not empty
+    private long last; // last deleted minimum, or 0
+    private HeapNode min; // null when the minimum is not known yet
+    private int size;
+
+    private long redistributions;
+    private long nodesMoved;
+
+    /**
+     * public boolean empty()
+     * <p>
+     * The method returns true if and only if the heap is empty.
+     */
+    public boolean empty() {
+        return size == 0;
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * public long lastMin()
+     * <p>
+     * Return the last deleted minimum, or 0 if no minimum has been deleted. Smaller keys are rejected.
+     */
+    public long lastMin() {
+        return last;
+    }
+
+    /**
+     * public HeapNode insert(long key)
+     * <p>
+     * Creates a node which contains the given key, inserts it into the heap and returns it.
+     * Throws IllegalArgumentException if the key is smaller than the last deleted minimum.
+     */
+    public HeapNode insert(long key) {
+        checkMonotone(key);
+        HeapNode node = new HeapNode(key);
+        add(node);
+        if (min != null && key < min.key) {
+            min = node;
+        }
+        size++;
+        return node;
+    }
+
+    /**
+     * public HeapNode findMin()
+     * <p>
+     * Return the node of the heap whose key is minimal, or null if the heap is empty.
+     */
+    public HeapNode findMin() {
+        if (size == 0) {
+            return null;
+        }
+        if (min == null) {
+            min = (occupied & 1) != 0 ? buckets[0] : minOf(buckets[Long.numberOfTrailingZeros(occupied)]);
+        }
+        return min;
+    }
+
+    /**
+     * public HeapNode deleteMin()
+     * <p>
+     * Delete the node containing the minimum key and return it, or return null if the heap is empty.
+     */
+    public HeapNode deleteMin() {
+        if (size == 0) {
+            return null;
+        }
+        HeapNode node = findMin();
+        if (node.bucket != 0) {
+            redistribute(node);
+        }
+        remove(node);
+        size--;
+        min = buckets[0];
+        return node;
+    }
+
+    /**
+     * public void decreaseKey(HeapNode x, long delta)
+     * <p>
+     * Decreases the key of the node x by delta. Throws IllegalArgumentException if the new key would be smaller
+     * than the last deleted minimum.
+     */
+    public void decreaseKey(HeapNode x, long delta) {
+        long key = x.key - delta;
+        checkMonotone(key);
+        x.key = key;
+        if (bucketOf(key) != x.bucket) {
+            remove(x);
+            add(x);
+        }
+        if (min != null && key < min.key) {
+            min = x;
+        }
+    }
+
+    /**
+     * public void delete(HeapNode x)
+     * <p>
+     * Deletes the node x from the heap.
+     */
+    public void delete(HeapNode x) {
+        remove(x);
+        size--;
+        if (x == min) {
+            min = null;
+        }
+    }
+
+    /**
+     * public void meld(LongRadixHeap heap2)
+     * <p>
+     * Move the nodes of heap2 into this heap, in time linear in the size of heap2. heap2 is left empty.
+     * Throws IllegalArgumentException, and changes neither heap, if heap2 holds a key smaller than the last
+     * deleted minimum of this heap.
+     */
+    public void meld(LongRadixHeap heap2) {
+        if (heap2 == this || heap2.empty()) {
+            return;
+        }
+        checkMonotone(heap2.findMin().key);
+        for (int i = 0; i < BUCKETS; i++) {
+            HeapNode node = heap2.buckets[i];
+            while (node != null) {
+                HeapNode next = node.next;
+                add(node);
+                node = next;
+            }
+            heap2.buckets[i] = null;
+        }
+        if (min != null && heap2.min.key < min.key) {
+            min = heap2.min;
+        }
+        size += heap2.size;
+        heap2.occupied = 0;
+        heap2.min = null;
+        heap2.size = 0;
+    }
+
+    /**
+     * public HeapCounters counters()
+     * <p>
+     * Return a snapshot of the operation counters of this heap. A radix heap neither links nor cuts; its
+     * redistributions are reported as consolidations, and the nodes they move as scanned roots.
+     */
+    public HeapCounters counters() {
+        return new HeapCounters(0, 0, 0, 0, redistributions, nodesMoved, 0);
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Throw IllegalArgumentException if the key is smaller than the last deleted minimum.
+     * @param key key to check
+     */
+    private void checkMonotone(long key) {
+        if (key < last) {
+            throw new IllegalArgumentException("Key " + key + " is smaller than the last deleted minimum " + last);
+        }
+    }
+
+    /**
+     * Return the bucket of a key that is not smaller than the last deleted minimum.
+     * @param key key of a node
+     */
+    private int bucketOf(long key) {
+        return BUCKETS - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    /**
+     * Add a node to the front of the bucket of its key.
+     * @param node node which is in no bucket
+     */
+    private void add(HeapNode node) {
+        int bucket = bucketOf(node.key);
+        HeapNode head = buckets[bucket];
+        node.bucket = bucket;
+        node.prev = null;
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        buckets[bucket] = node;
+        occupied |= 1L << bucket;
+    }
+
+    /**
+     * Remove a node from its bucket.
+     * @param node node to remove
+     */
+    private void remove(HeapNode node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            buckets[node.bucket] = node.next;
+            if (node.next == null) {
+                occupied &= ~(1L << node.bucket);
+            }
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.next = null;
+        node.prev = null;
+    }
+
+    /**
+     * Make the minimum the new base of the buckets, and move the nodes of its bucket to lower buckets.
+     * @param minimum node with the minimal key, in the first non-empty bucket
+     */
+    private void redistribute(HeapNode minimum) {
+        int bucket = minimum.bucket;
+        HeapNode node = buckets[bucket];
+        buckets[bucket] = null;
+        occupied &= ~(1L << bucket);
+        last = minimum.key;
+        while (node != null) {
+            HeapNode next = node.next;
+            add(node);
+            nodesMoved++;
+            node = next;
+        }
+        redistributions++;
+    }
+
+    /**
+     * Return the node with the minimal key in a bucket.
+     * @param first first node of the bucket
+     */
+    private static HeapNode minOf(HeapNode first) {
+        HeapNode best = first;
+        for (HeapNode node = first.next; node != null; node = node.next) {
+            if (node.key < best.key) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * public class HeapNode
+     * <p>
+     * A node of a radix heap, linked into the bucket of its key.
+     */
+    public static class HeapNode {
+        long key;
+        int bucket;
+        HeapNode next;
+        HeapNode prev;
+
+        HeapNode(long key) {
+            this.key = key;
+        }
+
+        public long getKey() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package fibonacciheap;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * MultiQueue
+ * <p>
+ * A relaxed concurrent priority queue over integers, made of independent FibonacciHeap shards, each behind
+ * its own lock. insert puts the key into a random shard, and deleteMin takes the minimum of the better of two
+ * randomly sampled shards, so deleteMin returns a key close to, but not necessarily equal to, the global
+ * minimum. Threads that fail to take a shard's lock pick other shards instead of waiting.
+ * <p>
+ * With c * P shards for P threads, the expected rank error of deleteMin (the number of smaller keys left in
+ * the queue) grows linearly with the number of shards, while contention falls as c grows.
+ */
+
+public class MultiQueue {
+    private static final long EMPTY = Long.MAX_VALUE;
+
+    private final Shard[] shards;
+
+    /**
+     * Initialize an empty queue with the given number of shards.
+     * @param shards number of shards, typically a small multiple of the number of threads
+     */
+    public MultiQueue(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Number of shards must be positive: " + shards);
+        }
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * public int shards()
+     * <p>
+     * Return the number of shards.
+     */
+    public int shards() {
+        return shards.length;
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the queue. Not atomic with respect to concurrent operations.
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    /**
+     * public boolean empty()
+     * <p>
+     * Return true if all shards were seen empty. Not atomic with respect to concurrent operations.
+     */
+    public boolean empty() {
+        for (Shard shard : shards) {
+            if (shard.minKey != EMPTY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * public Node insert(int key)
+     * <p>
+     * Inserts the key into a random shard and returns its node, which is the handle for decreaseKey.
+     */
+    public Node insert(int key) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            int index = random.nextInt(shards.length);
+            Shard shard = shards[index];
+            if (shard.lock.tryLock()) {
+                try {
+                    Node node = shard.heap.insertNode(new Node(key, index));
+                    shard.update();
+                    return node;
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * public Node deleteMin()
+     * <p>
+     * Deletes the minimum of the better of two random shards and returns it, or returns null if all shards
+     * were seen empty.
+     */
+    public Node deleteMin() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Shard shard1 = shards[random.nextInt(shards.length)];
+            Shard shard2 = shards[random.nextInt(shards.length)];
+            Shard shard = shard2.minKey < shard1.minKey ? shard2 : shard1;
+            if (shard.minKey == EMPTY) {
+                if (empty()) {
+                    return null;
+                }
+                continue;
+            }
+            if (shard.lock.tryLock()) {
+                try {
+                    if (!shard.heap.empty()) {
+                        Node node = (Node) shard.heap.deleteMin();
+                        shard.update();
+                        return node;
+                    }
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * public void decreaseKey(Node x, int delta)
+     * <p>
+     * Decreases the key of the node x by delta, in the shard holding x.
+     */
+    public void decreaseKey(Node x, int delta) {
+        Shard shard = shards[x.shard];
+        shard.lock.lock();
+        try {
+            shard.heap.decreaseKey(x, delta);
+            shard.update();
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * public void delete(Node x)
+     * <p>
+     * Deletes the node x from the shard holding it.
+     */
+    public void delete(Node x) {
+        Shard shard = shards[x.shard];
+        shard.lock.lock();
+        try {
+            shard.heap.delete(x);
+            shard.update();
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * public static class Node
+     * <p>
+     * A node of the queue, which remembers the shard holding it.
+     */
+    public static class Node extends FibonacciHeap.HeapNode {
+        final int shard;
+
+        Node(int key, int shard) {
+            super(key);
+            this.shard = shard;
+        }
+    }
+
+    /**
+     * One shard: a heap, its lock, and its minimum key and size published for lock-free sampling.
+     */
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final FibonacciHeap heap = new FibonacciHeap();
+        volatile long minKey = EMPTY;
+        volatile int size;
+
+        /**
+         * Publish the minimum key and size after a change. Called while holding the lock.
+         */
+        void update() {
+            minKey = heap.empty() ? EMPTY : heap.findMin().key;
+            size = heap.size();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package fibonacciheap;
+
+/**
+ * PairingHeap
+ * <p>
+ * An implementation of the two-pass pairing heap over integers.
+ * <p>
+ * A pairing heap is a single heap-ordered tree with no ranks and no marks: insert, meld and decreaseKey each
+ * link one tree under the root, and deleteMin links the children of the root in pairs from left to right, and
+ * then the pairs from right to left. Its bounds for decreaseKey are weaker than a fibonacci heap's, but its
+ * nodes are smaller and its constant factors lower, so it is usually faster when decreaseKey is rare.
+ * <p>
+ * Links and cuts are added to FibonacciHeap.totalLinks() and FibonacciHeap.totalCuts() once per deleteMin,
+ * decreaseKey, delete or meld; the link made by an insert is added with the next of those.
+ */
+
+public class PairingHeap implements AddressableHeap<PairingHeap.HeapNode, PairingHeap> {
+    private HeapNode root;
+    private int size;
+
+    private long links;
+    private long cuts;
+    private long linksReported; // part of links already added to FibonacciHeap.TOTAL_LINKS
+    private long cutsReported; // part of cuts already added to FibonacciHeap.TOTAL_CUTS
+    private long pairings;
+    private long childrenPaired;
+
+    /**
+     * public boolean empty()
+     * <p>
+     * The method returns true if and only if the heap is empty.
+     */
+    @Override
+    public boolean empty() {
+        return root == null;
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * public HeapNode insert(int key)
+     * <p>
+     * Creates a node which contains the given key, inserts it into the heap and returns it.
+     */
+    @Override
+    public HeapNode insert(int key) {
+        HeapNode node = new HeapNode(key);
+        root = root == null ? node : link(root, node);
+        size++;
+        return node;
+    }
+
+    /**
+     * public HeapNode findMin()
+     * <p>
+     * Return the node of the heap whose key is minimal, or null if the heap is empty.
+     */
+    @Override
+    public HeapNode findMin() {
+        return root;
+    }
+
+    /**
+     * public HeapNode deleteMin()
+     * <p>
+     * Delete the node containing the minimum key and return it, or return null if the heap is empty.
+     */
+    @Override
+    public HeapNode deleteMin() {
+        HeapNode oldRoot = root;
+        if (oldRoot == null) {
+            return null;
+        }
+        root = pair(oldRoot.child);
+        oldRoot.child = null;
+        size--;
+        report();
+        return oldRoot;
+    }
+
+    /**
+     * public void decreaseKey(HeapNode x, int delta)
+     * <p>
+     * Decreases the key of the node x by delta. If x is not the root, its subtree is cut and linked with the root.
+     */
+    @Override
+    public void decreaseKey(HeapNode x, int delta) {
+        x.key -= delta;
+        if (x != root) {
+            cut(x);
+            root = link(root, x);
+            report();
+        }
+    }
+
+    /**
+     * public void delete(HeapNode x)
+     * <p>
+     * Deletes the node x from the heap.
+     */
+    @Override
+    public void delete(HeapNode x) {
+        if (x == root) {
+            deleteMin();
+            return;
+        }
+        cut(x);
+        HeapNode children = pair(x.child);
+        x.child = null;
+        if (children != null) {
+            root = link(root, children);
+        }
+        size--;
+        report();
+    }
+
+    /**
+     * public void meld(PairingHeap heap2)
+     * <p>
+     * Meld the heap with heap2. heap2 is left empty.
+     */
+    @Override
+    public void meld(PairingHeap heap2) {
+        if (heap2 == this || heap2.root == null) {
+            return;
+        }
+        root = root == null ? heap2.root : link(root, heap2.root);
+        size += heap2.size;
+        heap2.root = null;
+        heap2.size = 0;
+        heap2.report();
+        report();
+    }
+
+    /**
+     * public HeapCounters counters()
+     * <p>
+     * Return a snapshot of the operation counters of this heap. A pairing heap has no marks and no cascading
+     * cuts; its pairing passes are reported as consolidations, and the children they pair as scanned roots.
+     */
+    public HeapCounters counters() {
+        return new HeapCounters(links, cuts, 0, 0, pairings, childrenPaired, 0);
+    }
+
+    //************************************************** Helper Methods ***********************************************
+
+    /**
+     * Link two trees, hanging the one with the larger root as the leftmost child of the other.
+     * @param a root of a tree, with no siblings
+     * @param b root of a tree, with no siblings
+     * @return root of the linked tree
+     */
+    private HeapNode link(HeapNode a, HeapNode b) {
+        if (b.key < a.key) {
+            HeapNode tmp = a;
+            a = b;
+            b = tmp;
+        }
+        b.next = a.child;
+        if (a.child != null) {
+            a.child.prev = b;
+        }
+        b.prev = a;
+        a.child = b;
+        links++;
+        return a;
+    }
+
+    /**
+     * Detach the subtree of a node that is not the root from its parent and siblings.
+     * @param x node to cut
+     */
+    private void cut(HeapNode x) {
+        if (x.prev.child == x) {
+            x.prev.child = x.next; // x is the leftmost child, prev is its parent
+        } else {
+            x.prev.next = x.next;
+        }
+        if (x.next != null) {
+            x.next.prev = x.prev;
+        }
+        x.next = null;
+        x.prev = null;
+        cuts++;
+    }
+
+    /**
+     * Add the links and cuts made since the last call to the totals of all heaps, one add per total at most.
+     */
+    private void report() {
+        if (links != linksReported) {
+            FibonacciHeap.TOTAL_LINKS.add(links - linksReported);
+            linksReported = links;
+        }
+        if (cuts != cutsReported) {
+            FibonacciHeap.TOTAL_CUTS.add(cuts - cutsReported);
+            cutsReported = cuts;
+        }
+    }
+
+    /**
+     * Link a list of sibling trees into one tree in two passes: first in pairs from left to right, then the
+     * pairs from right to left.
+     * @param first leftmost of the siblings, or null
+     * @return root of the linked tree, or null if there were no siblings
+     */
+    private HeapNode pair(HeapNode first) {
+        if (first == null) {
+            return null;
+        }
+        pairings++;
+
+        // First pass: link pairs, collecting them into a list through next, rightmost pair first
+        HeapNode pairs = null;
+        HeapNode a = first;
+        while (a != null) {
+            HeapNode b = a.next;
+            HeapNode rest = b == null ? null : b.next;
+            a.next = null;
+            a.prev = null;
+            HeapNode tree = a;
+            childrenPaired++;
+            if (b != null) {
+                b.next = null;
+                b.prev = null;
+                tree = link(a, b);
+                childrenPaired++;
+            }
+            tree.next = pairs;
+            pairs = tree;
+            a = rest;
+        }
+
+        // Second pass: link each pair into the tree of the pairs to its right
+        HeapNode result = pairs;
+        pairs = pairs.next;
+        result.next = null;
+        while (pairs != null) {
+            HeapNode next = pairs.next;
+            pairs.next = null;
+            result = link(result, pairs);
+            pairs = next;
+        }
+        return result;
+    }
+
+    /**
+     * public class HeapNode
+     * <p>
+     * A node of a pairing heap. prev points to the left sibling, or to the parent for a leftmost child.
+     */
+    public static class HeapNode implements AddressableHeap.Handle {
+        int key;
+        HeapNode child;
+        HeapNode next;
+        HeapNode prev;
+
+        HeapNode(int key) {
+            this.key = key;
+        }
+
+        @Override
+        public int getKey() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package fibonacciheap;
+
+/**
+ * RecordingInstrumentation
+ * <p>
+ * HeapInstrumentation that records latency histograms (in nanoseconds) of insert, deleteMin, decreaseKey, meld
+ * and consolidate, a histogram of the number of roots each consolidation links, and a histogram of cascade
+ * depths. Consolidations that take at least the slow threshold are also emitted as SlowConsolidationEvent to
+ * JDK Flight Recorder, where the event is named fibonacciheap.SlowConsolidation.
+ * <p>
+ * Like the heaps, it is not thread-safe; use one instance per heap.
+ */
+
+public class RecordingInstrumentation implements HeapInstrumentation {
+    private final Histogram insert = new Histogram();
+    private final Histogram deleteMin = new Histogram();
+    private final Histogram decreaseKey = new Histogram();
+    private final Histogram meld = new Histogram();
+    private final Histogram consolidate = new Histogram();
+    private final Histogram consolidateRoots = new Histogram();
+    private final Histogram cascadeDepth = new Histogram();
+    private final long slowConsolidationNanos;
+
+    /**
+     * Record histograms, and emit a JFR event for every consolidation that takes at least 1 millisecond.
+     */
+    public RecordingInstrumentation() {
+        this(1_000_000);
+    }
+
+    /**
+     * Record histograms, and emit a JFR event for every consolidation that takes at least the given time.
+     * @param slowConsolidationNanos threshold in nanoseconds
+     */
+    public RecordingInstrumentation(long slowConsolidationNanos) {
+        if (slowConsolidationNanos < 0) {
+            throw new IllegalArgumentException("Threshold must be non-negative: " + slowConsolidationNanos);
+        }
+        this.slowConsolidationNanos = slowConsolidationNanos;
+    }
+
+    @Override
+    public long start() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void insert(long start) {
+        insert.record(System.nanoTime() - start);
+    }
+
+    @Override
+    public void deleteMin(long start) {
+        deleteMin.record(System.nanoTime() - start);
+    }
+
+    @Override
+    public void decreaseKey(long start) {
+        decreaseKey.record(System.nanoTime() - start);
+    }
+
+    @Override
+    public void meld(long start) {
+        meld.record(System.nanoTime() - start);
+    }
+
+    @Override
+    public void consolidate(int roots, long start) {
+        long nanos = System.nanoTime() - start;
+        consolidate.record(nanos);
+        consolidateRoots.record(roots);
+        if (nanos >= slowConsolidationNanos) {
+            SlowConsolidationEvent event = new SlowConsolidationEvent();
+            if (event.shouldCommit()) {
+                event.roots = roots;
+                event.consolidationTime = nanos;
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public void cascade(int depth) {
+        cascadeDepth.record(depth);
+    }
+
+    public Histogram insertLatency() {
+        return insert;
+    }
+
+    public Histogram deleteMinLatency() {
+        return deleteMin;
+    }
+
+    public Histogram decreaseKeyLatency() {
+        return decreaseKey;
+    }
+
+    public Histogram meldLatency() {
+        return meld;
+    }
+
+    public Histogram consolidateLatency() {
+        return consolidate;
+    }
+
+    /**
+     * Number of roots linked by each consolidation.
+     */
+    public Histogram consolidateRoots() {
+        return consolidateRoots;
+    }
+
+    /**
+     * Number of cascading cuts caused by each cut.
+     */
+    public Histogram cascadeDepth() {
+        return cascadeDepth;
+    }
+
+    @Override
+    public String toString() {
+        return "insert ns: " + insert + "\n"
+                + "deleteMin ns: " + deleteMin + "\n"
+                + "decreaseKey ns: " + decreaseKey + "\n"
+                + "meld ns: " + meld + "\n"
+                + "consolidate ns: " + consolidate + "\n"
+                + "consolidate roots: " + consolidateRoots + "\n"
+                + "cascade depth: " + cascadeDepth;
+    }
+}
@@ -0,0 +1,28 @@
+package fibonacciheap;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * SlowConsolidationEvent
+ * <p>
+ * JDK Flight Recorder event for a consolidation that took at least the threshold of its RecordingInstrumentation.
+ */
+
+@Name("fibonacciheap.SlowConsolidation")
+@Label("Slow Consolidation")
+@Category("Fibonacci Heap")
+@Description("A consolidation of the root list that took at least the configured threshold")
+class SlowConsolidationEvent extends Event {
+    @Label("Roots")
+    @Description("Number of roots linked")
+    int roots;
+
+    @Label("Consolidation Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long consolidationTime;
+}